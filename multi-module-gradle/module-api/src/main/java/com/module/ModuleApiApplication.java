@@ -2,9 +2,10 @@ package com.module;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
 
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ModuleApiApplication {
     public static void main(String[] args){
         SpringApplication.run(ModuleApiApplication.class, args);
@@ -0,0 +1,21 @@
+package com.module.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.main.web-application-type=reactive로 띄울 때의 서버 설정.
+ * classpath에 Tomcat도 있어서 그대로 두면 Boot가 Tomcat을 고른다. 요청을 소수의 event loop 스레드
+ * (reactor.netty.ioWorkerCount, 기본 core 수와 4 중 큰 값)에서 처리하도록 Netty를 쓴다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
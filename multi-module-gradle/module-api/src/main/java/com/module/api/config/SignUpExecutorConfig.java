@@ -0,0 +1,35 @@
+package com.module.api.config;
+
+import com.module.api.service.SignUpProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 가입 저장 단계 전용 executor. Boot가 만드는 applicationTaskExecutor에 기대면, 다른 Executor bean이 생기는 순간
+ * 그 bean이 빠져 AccountService를 만들 수 없다.
+ * 반대로 Executor bean을 하나라도 두면 Boot는 applicationTaskExecutor를 만들지 않으므로(export의 StreamingResponseBody가 쓴다) 같이 둔다.
+ */
+@Configuration
+public class SignUpExecutorConfig {
+
+    public static final String SAVE_EXECUTOR = "accountSaveExecutor";
+
+    @Bean(SAVE_EXECUTOR)
+    public ThreadPoolTaskExecutor accountSaveExecutor(TaskExecutorBuilder builder, SignUpProperties properties) {
+        return builder
+                .corePoolSize(properties.getSaveThreads())
+                .maxPoolSize(properties.getSaveThreads())
+                .threadNamePrefix("account-save-")
+                .build();
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
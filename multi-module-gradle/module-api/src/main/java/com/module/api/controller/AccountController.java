@@ -0,0 +1,165 @@
+package com.module.api.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.module.api.importer.AccountImporter;
+import com.module.api.importer.ImportAlreadyRunningException;
+import com.module.api.importer.ImportFormat;
+import com.module.api.importer.ImportStatus;
+import com.module.api.service.AccountPage;
+import com.module.api.service.AccountService;
+import com.module.api.service.DuplicateUserNameException;
+import com.module.api.writebehind.AccountWriteBehind;
+import com.module.core.domain.Account;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.StreamSupport;
+
+//WebFlux 모드에서는 ReactiveAccountController가 /accounts를 받는다
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor
+public class AccountController {
+
+    private AccountService accountService;
+    private AccountImporter accountImporter;
+    private ObjectMapper objectMapper;
+    private AccountWriteBehind accountWriteBehind;
+
+    //hash와 저장이 끝나면 200으로 응답한다. 그동안 요청 스레드는 반환된다
+    //write-behind가 켜져 있으면 journal에 기록되는 즉시 202로 응답하고, 조회는 DB에 저장된 뒤부터 된다
+    @PostMapping(value = "/accounts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Account>> signUp(@RequestBody SignUpRequest request) {
+        Account account = request.toAccount();
+        if (accountWriteBehind.isEnabled()) {
+            return accountWriteBehind.accept(account)
+                    .thenApply(accepted -> ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted));
+        }
+        return accountService.signUpAsync(account)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    //로그인처럼 자주 읽히는 조회. userName -> id, id -> entity 모두 cache를 거친다
+    @GetMapping(value = "/accounts", params = "userName")
+    public ResponseEntity<Account> findByUserName(@RequestParam("userName") String userName) {
+        return accountService.findByUserName(userName)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    //GET /accounts?after={이전 페이지의 nextAfter}&size=100
+    @GetMapping(value = "/accounts", params = "!userName")
+    public AccountPage findPage(@RequestParam(value = "after", defaultValue = "0") long after,
+                                @RequestParam(value = "size", defaultValue = "100") int size) {
+        return accountService.findPage(after, size);
+    }
+
+    //전체 계정을 JSON 배열로 내려준다. 목록을 만들지 않고 DB에서 읽는 대로 response에 쓴다
+    @GetMapping(value = "/accounts/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        //한 건마다 flush하지 않고 generator buffer가 찰 때 내보낸다
+        ObjectWriter writer = objectMapper.writerFor(Account.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                accountService.forEachAccount(account -> {
+                    try {
+                        writer.writeValue(generator, account);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    //JSON 배열을 List로 한 번에 읽지 않고 한 건씩 꺼내 저장한다
+    @PostMapping(value = "/accounts/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Long> signUpAll(InputStream body) throws IOException {
+        long start = System.currentTimeMillis();
+        try (MappingIterator<SignUpRequest> requests = objectMapper.readerFor(SignUpRequest.class).readValues(body)) {
+            long count = accountService.signUpAll(toAccounts(requests));
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("elapsedMillis", System.currentTimeMillis() - start);
+            return result;
+        }
+    }
+
+    //heap보다 큰 CSV/NDJSON 파일도 읽는 대로 저장한다. 같은 importId로 다시 보내면 마지막 commit 다음부터 이어간다
+    @PostMapping(value = "/accounts/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ImportStatus importAccounts(@RequestParam("importId") String importId,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                       InputStream body) throws IOException {
+        return accountImporter.importAccounts(importId, ImportFormat.of(contentType), body);
+    }
+
+    @GetMapping("/accounts/import/{importId}")
+    public ResponseEntity<ImportStatus> importStatus(@PathVariable("importId") String importId) {
+        return accountImporter.getStatus(importId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    //요청 body를 읽는 대로 한 건씩 새 entity로 바꾼다
+    private static Iterable<Account> toAccounts(Iterator<SignUpRequest> requests) {
+        return () -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(requests, Spliterator.ORDERED), false)
+                .map(SignUpRequest::toAccount)
+                .iterator();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    //hash 대기열이나 write-behind 대기열이 가득 찬 경우. 잠시 후 다시 시도하면 된다
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> overloaded(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateUserNameException.class)
+    public ResponseEntity<String> duplicateUserName(DuplicateUserNameException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ImportAlreadyRunningException.class)
+    public ResponseEntity<String> conflict(ImportAlreadyRunningException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package com.module.api.controller;
+
+import com.module.api.service.DuplicateUserNameException;
+import com.module.api.service.ReactiveAccountService;
+import com.module.api.writebehind.AccountWriteBehind;
+import com.module.core.domain.Account;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+//spring.main.web-application-type=reactive, module.r2dbc.enabled=true일 때의 /accounts 가입과 조회. 응답은 AccountController와 같다
+//목록, export, bulk, import는 아직 servlet 모드에만 있다
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "module.r2dbc.enabled", havingValue = "true")
+@AllArgsConstructor
+public class ReactiveAccountController {
+
+    private ReactiveAccountService reactiveAccountService;
+    private AccountWriteBehind accountWriteBehind;
+
+    @PostMapping(value = "/accounts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Account>> signUp(@RequestBody SignUpRequest request) {
+        Account account = request.toAccount();
+        //write-behind는 filter에 걸린 이름을 JPA로 확인하므로 event loop가 아닌 곳에서 받는다
+        if (accountWriteBehind.isEnabled()) {
+            return Mono.fromFuture(() -> accountWriteBehind.accept(account))
+                    .subscribeOn(Schedulers.elastic())
+                    .map(accepted -> ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted));
+        }
+        return reactiveAccountService.signUp(account)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/accounts", params = "userName")
+    public Mono<ResponseEntity<Account>> findByUserName(@RequestParam("userName") String userName) {
+        return reactiveAccountService.findByUserName(userName)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    //hash 대기열이나 write-behind 대기열이 가득 찬 경우. 잠시 후 다시 시도하면 된다
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> overloaded(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateUserNameException.class)
+    public ResponseEntity<String> duplicateUserName(DuplicateUserNameException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,30 @@
+package com.module.api.controller;
+
+import com.module.api.service.SignUpValidation;
+import com.module.core.domain.Account;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//가입 요청 body. entity를 바로 바인딩하면 요청에 실린 id까지 들어가므로 userName, password만 받는다
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor
+public class SignUpRequest {
+
+    private String userName;
+    private String password;
+
+    //id 없는 새 entity. 저장할 때 persist된다. 형식이 잘못된 요청은 IllegalArgumentException(400)
+    public Account toAccount() {
+        String error = SignUpValidation.validate(userName, password);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return Account.builder()
+                .userName(userName)
+                .password(password)
+                .build();
+    }
+}
@@ -0,0 +1,311 @@
+package com.module.api.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.module.api.service.AccountService;
+import com.module.core.domain.Account;
+import com.module.core.domain.ImportCheckpoint;
+import com.module.core.domain.ImportCheckpointRepository;
+import com.module.core.security.PasswordHashingService;
+import com.module.core.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 계정 파일 import. 세 단계가 동시에 돈다.
+ *   읽기(요청 스레드) → password hash(PasswordHashingService worker들이 chunk를 나눠서) → 저장(writer 스레드 하나, chunk 순서대로)
+ * 단계 사이는 maxChunksInFlight 크기의 queue로 이어져 있어, 저장이 밀리면 요청 body 읽기도 멈춘다.
+ * checkpoint는 shard마다 하나씩 두고, chunk의 계정을 shard별로 나눠 그 shard의 checkpoint와 한 transaction으로 commit한다.
+ * shard 사이의 commit은 원자적이지 않아 중간에 실패하면 shard마다 진행 위치가 다를 수 있다.
+ * 같은 importId로 다시 보내면 가장 뒤처진 shard의 위치부터 읽고, 이미 commit된 shard의 record는 건너뛴다.
+ * 한 파일에 같은 userName이 여러 번 나오면 처음 것만 저장하고 나머지는 거부된 record로 남긴다.
+ */
+@Slf4j
+@Service
+public class AccountImporter implements DisposableBean {
+
+    private static final CompletableFuture<Chunk> END = CompletableFuture.completedFuture(null);
+
+    private final AccountService accountService;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+    private final ShardRouter shardRouter;
+    private final ExecutorService writerExecutor;
+    //실행 중인 import만 둔다. 끝난 import의 상태는 checkpoint에서 다시 만든다
+    private final Map<String, ImportStatus> statuses = new ConcurrentHashMap<>();
+
+    public AccountImporter(AccountService accountService, ImportCheckpointRepository checkpointRepository,
+                           PasswordHashingService passwordHashingService, ObjectMapper objectMapper, ImportProperties properties,
+                           ShardRouter shardRouter) {
+        this.accountService = accountService;
+        this.checkpointRepository = checkpointRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.writerExecutor = Executors.newCachedThreadPool(threadFactory("account-import-writer"));
+    }
+
+    public ImportStatus importAccounts(String importId, ImportFormat format, InputStream in) throws IOException {
+        ShardCheckpoints checkpoints = new ShardCheckpoints(shardRouter.scatter(shard -> checkpointRepository.findById(importId)
+                .orElseGet(() -> new ImportCheckpoint(importId))));
+        ImportStatus status = new ImportStatus(importId, checkpoints, properties.getMaxReportedErrors());
+        if (statuses.putIfAbsent(importId, status) != null) {
+            throw new ImportAlreadyRunningException(importId);
+        }
+
+        BlockingQueue<CompletableFuture<Chunk>> queue = new ArrayBlockingQueue<>(properties.getMaxChunksInFlight());
+        AtomicBoolean aborted = new AtomicBoolean();
+        //읽었지만 아직 commit되지 않은 이름. 같은 파일 안의 중복은 DB를 봐서는 알 수 없다
+        Set<String> pendingNames = ConcurrentHashMap.newKeySet();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(
+                () -> write(queue, checkpoints, pendingNames, status, aborted), writerExecutor);
+        try (AccountRecordReader reader = format.reader(in, objectMapper)) {
+            long position = checkpoints.getResumeFrom();
+            skip(reader, position);
+            List<AccountRecord> records = new ArrayList<>(properties.getChunkSize());
+            int consumed = 0;
+            AccountRecord record;
+            while ((record = reader.next()) != null) {
+                if (isCommitted(record, position++, checkpoints)) {
+                    status.recordSkipped();
+                } else {
+                    record = rejectDuplicateUserName(record, pendingNames);
+                    status.recordRead(record);
+                    records.add(record);
+                }
+                //chunk 경계는 건너뛴 record까지 세어 이전 실행과 같게 유지한다
+                if (++consumed == properties.getChunkSize()) {
+                    enqueue(queue, hash(records, position), writer);
+                    records = new ArrayList<>(properties.getChunkSize());
+                    consumed = 0;
+                }
+            }
+            if (consumed > 0) {
+                enqueue(queue, hash(records, position), writer);
+            }
+            enqueue(queue, END, writer);
+            writer.join();
+            status.complete();
+            log.info("import {} completed: {} accounts written, {} rejected, {} rows/s", importId,
+                    status.getWrittenAccounts(), status.getRejectedRecords(), String.format("%.1f", status.getRowsPerSecond()));
+            return status;
+        } catch (IOException | RuntimeException e) {
+            aborted.set(true);
+            Throwable cause = awaitWriter(writer).orElse(e);
+            status.fail(cause);
+            log.warn("import {} failed after {} committed chunks", importId, status.getCommittedChunks(), cause);
+            throw e;
+        } finally {
+            statuses.remove(importId, status);
+        }
+    }
+
+    public Optional<ImportStatus> getStatus(String importId) {
+        ImportStatus status = statuses.get(importId);
+        if (status != null) {
+            return Optional.of(status);
+        }
+        List<Optional<ImportCheckpoint>> found = shardRouter.scatter(shard -> checkpointRepository.findById(importId));
+        if (found.stream().noneMatch(Optional::isPresent)) {
+            return Optional.empty();
+        }
+        return Optional.of(ImportStatus.stopped(importId, new ShardCheckpoints(found.stream()
+                .map(checkpoint -> checkpoint.orElseGet(() -> new ImportCheckpoint(importId)))
+                .collect(Collectors.toList()))));
+    }
+
+    //모든 shard에서 commit된 record는 hash/저장 없이 읽고 버린다
+    private static void skip(AccountRecordReader reader, long records) throws IOException {
+        for (long i = 0; i < records; i++) {
+            if (reader.next() == null) {
+                return;
+            }
+        }
+    }
+
+    //일부 shard에만 commit된 구간의 record. 오류 record는 이전 실행에서 이미 보고되었다
+    private boolean isCommitted(AccountRecord record, long position, ShardCheckpoints checkpoints) {
+        if (position >= checkpoints.getCommittedUpTo()) {
+            return false;
+        }
+        return !record.isValid() || checkpoints.isCommitted(position, shardRouter.shardOf(record.getUserName()));
+    }
+
+    //이미 가입된 이름, 이 파일의 앞쪽에서 읽고 아직 저장 중인 이름은 저장하지 않고 오류로 남긴다
+    //새 이름은 대부분 Bloom filter에서 바로 통과한다
+    private AccountRecord rejectDuplicateUserName(AccountRecord record, Set<String> pendingNames) {
+        if (!record.isValid()) {
+            return record;
+        }
+        if (accountService.isUserNameTaken(record.getUserName())) {
+            return AccountRecord.rejected(record.getLine(), "userName " + record.getUserName() + " already exists");
+        }
+        if (!pendingNames.add(record.getUserName())) {
+            return AccountRecord.rejected(record.getLine(), "userName " + record.getUserName() + " appears more than once in the file");
+        }
+        return record;
+    }
+
+    //유효한 record의 password를 hash 전용 worker들이 나눠서 hash한다
+    private CompletableFuture<Chunk> hash(List<AccountRecord> records, long upToRecord) {
+        List<AccountRecord> valid = records.stream()
+                .filter(AccountRecord::isValid)
+                .collect(Collectors.toList());
+        return passwordHashingService.hashAll(valid.stream()
+                        .map(AccountRecord::getPassword)
+                        .collect(Collectors.toList()))
+                .thenApply(encodedPasswords -> {
+                    List<Account> accounts = new ArrayList<>(valid.size());
+                    Map<String, Long> lines = new HashMap<>();
+                    for (int i = 0; i < valid.size(); i++) {
+                        accounts.add(Account.builder()
+                                .userName(valid.get(i).getUserName())
+                                .password(encodedPasswords.get(i))
+                                .build());
+                        lines.put(valid.get(i).getUserName(), valid.get(i).getLine());
+                    }
+                    return new Chunk(upToRecord, accounts, lines);
+                });
+    }
+
+    //queue가 가득 차 있으면 writer가 chunk를 가져갈 때까지 기다린다(backpressure)
+    private static void enqueue(BlockingQueue<CompletableFuture<Chunk>> queue, CompletableFuture<Chunk> chunk,
+                                CompletableFuture<Void> writer) {
+        try {
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    writer.join();
+                    throw new IllegalStateException("import writer stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while importing", e);
+        }
+    }
+
+    private void write(BlockingQueue<CompletableFuture<Chunk>> queue, ShardCheckpoints checkpoints, Set<String> pendingNames,
+                       ImportStatus status, AtomicBoolean aborted) {
+        try {
+            while (true) {
+                CompletableFuture<Chunk> next = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (next == END || (next == null && aborted.get())) {
+                    return;
+                }
+                if (next == null) {
+                    continue;
+                }
+                Chunk chunk = next.join();
+                Map<Integer, List<Account>> byShard = accountService.groupByShard(chunk.accounts);
+                long written = 0;
+                for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                    ImportCheckpoint checkpoint = checkpoints.get(shard);
+                    if (checkpoint.getCommittedRecords() < chunk.upToRecord) {
+                        written += save(shard, byShard.getOrDefault(shard, Collections.emptyList()), checkpoint, chunk, status);
+                    }
+                }
+                chunk.accounts.forEach(account -> pendingNames.remove(account.getUserName()));
+                status.chunkCommitted(written);
+                log.debug("import {}: chunk {} committed, {} rows/s", status.getImportId(), status.getCommittedChunks(),
+                        String.format("%.1f", status.getRowsPerSecond()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //한 shard의 계정과 checkpoint를 함께 commit한다. 읽은 뒤 다른 가입이 같은 이름을 먼저 저장했으면
+    //unique index 위반으로 transaction 전체가 rollback되므로, 그 이름들을 거부된 record로 빼고 나머지로 다시 저장한다
+    //rollback된 시도에서 id가 붙은 entity는 다시 persist할 수 없으므로 시도마다 새 entity를 만든다
+    private long save(int shard, List<Account> accounts, ImportCheckpoint checkpoint, Chunk chunk, ImportStatus status) {
+        List<Account> remaining = new ArrayList<>(accounts);
+        while (true) {
+            List<Account> attempt = remaining.stream()
+                    .map(account -> Account.builder()
+                            .userName(account.getUserName())
+                            .password(account.getPassword())
+                            .build())
+                    .collect(Collectors.toList());
+            try {
+                return accountService.saveAll(shard, attempt, () -> {
+                    checkpoint.commit(chunk.upToRecord, attempt.size());
+                    checkpointRepository.save(checkpoint);
+                });
+            } catch (RuntimeException e) {
+                if (!AccountService.isUserNameConflict(e)) {
+                    throw e;
+                }
+                List<Account> taken = remaining.stream()
+                        .filter(account -> accountService.isUserNameTaken(account.getUserName()))
+                        .collect(Collectors.toList());
+                if (taken.isEmpty()) {
+                    throw e;
+                }
+                taken.forEach(account -> status.recordRejected(chunk.lines.get(account.getUserName()),
+                        "userName " + account.getUserName() + " already exists"));
+                remaining.removeAll(taken);
+            }
+        }
+    }
+
+    private static Optional<Throwable> awaitWriter(CompletableFuture<Void> writer) {
+        try {
+            writer.join();
+            return Optional.empty();
+        } catch (CompletionException e) {
+            return Optional.of(e.getCause());
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        writerExecutor.shutdownNow();
+    }
+
+    private static class Chunk {
+        //파일 처음부터 센, 이 chunk 다음 record의 위치
+        private final long upToRecord;
+        private final List<Account> accounts;
+        private final Map<String, Long> lines;
+
+        Chunk(long upToRecord, List<Account> accounts, Map<String, Long> lines) {
+            this.upToRecord = upToRecord;
+            this.accounts = accounts;
+            this.lines = lines;
+        }
+    }
+}
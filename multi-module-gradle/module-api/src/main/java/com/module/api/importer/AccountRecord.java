@@ -0,0 +1,33 @@
+package com.module.api.importer;
+
+import com.module.api.service.SignUpValidation;
+import lombok.Getter;
+
+//입력 파일의 한 줄. 형식이 잘못되었거나 검증에 실패하면 error가 채워지고 저장하지 않는다
+@Getter
+public class AccountRecord {
+
+    private final long line;
+    private final String userName;
+    private final String password;
+    private final String error;
+
+    private AccountRecord(long line, String userName, String password, String error) {
+        this.line = line;
+        this.userName = userName;
+        this.password = password;
+        this.error = error;
+    }
+
+    public static AccountRecord of(long line, String userName, String password) {
+        return new AccountRecord(line, userName, password, SignUpValidation.validate(userName, password));
+    }
+
+    public static AccountRecord rejected(long line, String error) {
+        return new AccountRecord(line, null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
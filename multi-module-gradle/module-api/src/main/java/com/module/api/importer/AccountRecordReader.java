@@ -0,0 +1,11 @@
+package com.module.api.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+//입력을 한 record씩 읽는다. 파일 전체를 메모리에 올리지 않는다
+public interface AccountRecordReader extends Closeable {
+
+    //더 읽을 record가 없으면 null
+    AccountRecord next() throws IOException;
+}
@@ -0,0 +1,98 @@
+package com.module.api.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 첫 줄이 header(userName,password 순서 무관)인 CSV.
+ * 값은 큰따옴표로 감쌀 수 있고 ""는 따옴표 하나로 읽는다. 한 record가 여러 줄에 걸치는 값은 지원하지 않는다.
+ */
+public class CsvAccountRecordReader implements AccountRecordReader {
+
+    private final BufferedReader reader;
+    private long line;
+    private int userNameIndex = -1;
+    private int passwordIndex = -1;
+
+    public CsvAccountRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public AccountRecord next() throws IOException {
+        if (line == 0) {
+            readHeader();
+        }
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isEmpty());
+
+        List<String> fields;
+        try {
+            fields = split(text);
+        } catch (IllegalArgumentException e) {
+            return AccountRecord.rejected(line, e.getMessage());
+        }
+        if (fields.size() <= Math.max(userNameIndex, passwordIndex)) {
+            return AccountRecord.rejected(line, "expected at least " + (Math.max(userNameIndex, passwordIndex) + 1) + " columns");
+        }
+        return AccountRecord.of(line, fields.get(userNameIndex), fields.get(passwordIndex));
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is missing");
+        }
+        List<String> columns = split(header);
+        userNameIndex = columns.indexOf("userName");
+        passwordIndex = columns.indexOf("password");
+        if (userNameIndex < 0 || passwordIndex < 0) {
+            throw new IllegalArgumentException("CSV header must contain userName and password: " + header);
+        }
+    }
+
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.module.api.importer;
+
+public class ImportAlreadyRunningException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportAlreadyRunningException(String importId) {
+        super("import " + importId + " is already running");
+    }
+}
@@ -0,0 +1,20 @@
+package com.module.api.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "module.import")
+@Getter
+@Setter
+public class ImportProperties {
+
+    //한 transaction에서 저장할 입력 record 수. 재시작은 이 단위로 이어진다
+    private int chunkSize = 1000;
+    //읽기가 저장보다 빠를 때 쌓아둘 수 있는 chunk 수. 가득 차면 요청 body 읽기를 멈춘다
+    private int maxChunksInFlight = 4;
+    //status에 남길 거부 사유 수
+    private int maxReportedErrors = 100;
+}
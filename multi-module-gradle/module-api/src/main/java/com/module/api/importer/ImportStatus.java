@@ -0,0 +1,124 @@
+package com.module.api.importer;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+//import 진행 상황. 처리 중에도 GET /accounts/import/{importId}로 조회할 수 있다
+public class ImportStatus {
+
+    public enum State { RUNNING, COMPLETED, FAILED, STOPPED }
+
+    @Getter
+    private final String importId;
+    @Getter
+    private volatile State state;
+    //이전 실행에서 commit되어 이번에 건너뛴 record 수
+    private final AtomicLong skippedRecords;
+    private final AtomicLong readRecords = new AtomicLong();
+    private final AtomicLong rejectedRecords = new AtomicLong();
+    private final AtomicLong writtenAccounts = new AtomicLong();
+    private final AtomicLong committedChunks;
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final int maxReportedErrors;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long finishedAt;
+    @Getter
+    private volatile String failure;
+
+    ImportStatus(String importId, ShardCheckpoints checkpoints, int maxReportedErrors) {
+        this.importId = importId;
+        this.state = State.RUNNING;
+        this.skippedRecords = new AtomicLong(checkpoints.getResumeFrom());
+        this.committedChunks = new AtomicLong(checkpoints.getCommittedChunks());
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    //실행 중인 import가 없을 때(끝났거나 서버가 재시작된 경우) checkpoint만으로 만든 상태
+    static ImportStatus stopped(String importId, ShardCheckpoints checkpoints) {
+        ImportStatus status = new ImportStatus(importId, checkpoints, 0);
+        status.writtenAccounts.set(checkpoints.getWrittenAccounts());
+        status.state = State.STOPPED;
+        status.finishedAt = status.startedAt;
+        return status;
+    }
+
+    void recordRead(AccountRecord record) {
+        readRecords.incrementAndGet();
+        if (!record.isValid()) {
+            recordRejected(record.getLine(), record.getError());
+        }
+    }
+
+    //이전 실행에서 일부 shard에만 commit된 chunk의 record
+    void recordSkipped() {
+        skippedRecords.incrementAndGet();
+    }
+
+    //읽을 때는 유효했지만 저장하면서 거부된 record도 여기로 온다
+    void recordRejected(long line, String error) {
+        rejectedRecords.incrementAndGet();
+        if (errors.size() < maxReportedErrors) {
+            errors.add("line " + line + ": " + error);
+        }
+    }
+
+    void chunkCommitted(long accounts) {
+        writtenAccounts.addAndGet(accounts);
+        committedChunks.incrementAndGet();
+    }
+
+    void complete() {
+        finishedAt = System.currentTimeMillis();
+        state = State.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        finishedAt = System.currentTimeMillis();
+        failure = String.valueOf(cause.getMessage());
+        state = State.FAILED;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public long getSkippedRecords() {
+        return skippedRecords.get();
+    }
+
+    public long getReadRecords() {
+        return readRecords.get();
+    }
+
+    public long getRejectedRecords() {
+        return rejectedRecords.get();
+    }
+
+    public long getWrittenAccounts() {
+        return writtenAccounts.get();
+    }
+
+    public long getCommittedChunks() {
+        return committedChunks.get();
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    public long getElapsedMillis() {
+        return (finishedAt == 0 ? System.currentTimeMillis() : finishedAt) - startedAt;
+    }
+
+    //이번 실행에서 읽은 입력 기준 처리량
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : readRecords.get() * 1000.0 / elapsed;
+    }
+}
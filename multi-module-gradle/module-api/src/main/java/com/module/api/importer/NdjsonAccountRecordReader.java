@@ -0,0 +1,53 @@
+package com.module.api.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+//한 줄에 JSON 객체 하나({"userName":..,"password":..}). 깨진 줄은 그 줄만 거부한다
+public class NdjsonAccountRecordReader implements AccountRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    public NdjsonAccountRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public AccountRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.trim().isEmpty());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (IOException e) {
+            return AccountRecord.rejected(line, "malformed JSON");
+        }
+        if (!node.isObject()) {
+            return AccountRecord.rejected(line, "expected a JSON object");
+        }
+        return AccountRecord.of(line, textOf(node, "userName"), textOf(node, "password"));
+    }
+
+    private static String textOf(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.module.api.importer;
+
+import com.module.core.domain.ImportCheckpoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 import의 shard별 checkpoint. 각 shard의 checkpoint는 그 shard에 저장한 계정과 같은 transaction에서 commit된다.
+ * shard 사이의 commit은 원자적이지 않으므로, chunk를 저장하다 멈추면 일부 shard만 그 chunk 끝까지 가 있을 수 있다.
+ * 다시 실행하면 가장 뒤처진 shard의 위치부터 읽고, 그보다 앞선 shard에 이미 commit된 record는 저장하지 않고 넘긴다.
+ */
+class ShardCheckpoints {
+
+    private final List<ImportCheckpoint> checkpoints;
+    //writer가 checkpoint를 갱신하는 동안에도 읽기 단계는 시작 시점의 위치로 판단한다
+    private final long[] committedAtStart;
+
+    //index가 shard 번호
+    ShardCheckpoints(List<ImportCheckpoint> checkpoints) {
+        this.checkpoints = checkpoints;
+        this.committedAtStart = checkpoints.stream().mapToLong(ImportCheckpoint::getCommittedRecords).toArray();
+    }
+
+    ImportCheckpoint get(int shard) {
+        return checkpoints.get(shard);
+    }
+
+    //모든 shard에 commit된 위치. 여기까지는 읽고 버린다
+    long getResumeFrom() {
+        return Arrays.stream(committedAtStart).min().orElse(0);
+    }
+
+    //앞선 shard가 있으면 resumeFrom부터 여기까지는 record마다 shard의 위치와 비교한다
+    long getCommittedUpTo() {
+        return Arrays.stream(committedAtStart).max().orElse(0);
+    }
+
+    //record(0부터 센 입력 순서)가 shard에 이미 commit되었는지
+    boolean isCommitted(long record, int shard) {
+        return record < committedAtStart[shard];
+    }
+
+    long getCommittedChunks() {
+        return checkpoints.stream().mapToLong(ImportCheckpoint::getCommittedChunks).min().orElse(0);
+    }
+
+    long getWrittenAccounts() {
+        return checkpoints.stream().mapToLong(ImportCheckpoint::getWrittenAccounts).sum();
+    }
+}
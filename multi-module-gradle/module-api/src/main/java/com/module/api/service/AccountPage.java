@@ -0,0 +1,16 @@
+package com.module.api.service;
+
+import com.module.core.domain.Account;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+//keyset 페이지. 다음 페이지는 nextAfter를 after로 넘겨 요청한다. 마지막 페이지면 nextAfter가 null이다
+@Getter
+@AllArgsConstructor
+public class AccountPage {
+
+    private final List<Account> content;
+    private final Long nextAfter;
+}
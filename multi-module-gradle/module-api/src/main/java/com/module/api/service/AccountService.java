@@ -1,18 +1,313 @@
 package com.module.api.service;
 
+import com.module.api.config.SignUpExecutorConfig;
+import com.module.core.config.CacheConfig;
+import com.module.core.config.JpaBatchProperties;
 import com.module.core.domain.Account;
 import com.module.core.domain.AccountRepository;
-import lombok.AllArgsConstructor;
+import com.module.core.domain.UserNameIndex;
+import com.module.core.security.PasswordHashingService;
+import com.module.core.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@AllArgsConstructor
 public class AccountService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     private AccountRepository accountRepository;
+    private EntityManager entityManager;
+    private JpaBatchProperties jpaBatchProperties;
+    private PasswordHashingService passwordHashingService;
+    private TaskExecutor saveExecutor;
+    private CacheManager cacheManager;
+    private UserNameIndex userNameIndex;
+    private ShardRouter shardRouter;
+
+    public AccountService(AccountRepository accountRepository, EntityManager entityManager, JpaBatchProperties jpaBatchProperties,
+                          PasswordHashingService passwordHashingService,
+                          @Qualifier(SignUpExecutorConfig.SAVE_EXECUTOR) TaskExecutor saveExecutor,
+                          CacheManager cacheManager, UserNameIndex userNameIndex, ShardRouter shardRouter){
+        this.accountRepository = accountRepository;
+        this.entityManager = entityManager;
+        this.jpaBatchProperties = jpaBatchProperties;
+        this.passwordHashingService = passwordHashingService;
+        this.saveExecutor = saveExecutor;
+        this.cacheManager = cacheManager;
+        this.userNameIndex = userNameIndex;
+        this.shardRouter = shardRouter;
+    }
+
+    //afterId보다 큰 id를 size개. 한 건 더 읽어 다음 페이지가 있는지 본다
+    //shard가 여럿이면 모든 shard에서 size + 1개씩 읽어 id 순서로 합친다. id는 shard 사이에서도 겹치지 않는다
+    public AccountPage findPage(long afterId, int size){
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Account> accounts = shardRouter.scatter(shard -> accountRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, size + 1)))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Account::getId))
+                .limit(size + 1)
+                .collect(Collectors.toList());
+        if (accounts.size() <= size) {
+            return new AccountPage(accounts, null);
+        }
+        List<Account> content = accounts.subList(0, size);
+        return new AccountPage(content, content.get(size - 1).getId());
+    }
+
+    //모든 계정을 id 순서로 한 건씩 넘긴다. 넘긴 entity는 바로 detach하므로 건수와 관계없이 메모리가 일정하다
+    public void forEachAccount(Consumer<Account> action){
+        if (shardRouter.getShardCount() > 1) {
+            forEachAccountMerged(action);
+            return;
+        }
+        shardRouter.inTransaction(0, true, () -> {
+            try (Stream<Account> accounts = accountRepository.streamAllOrderById()) {
+                accounts.forEach(account -> {
+                    action.accept(account);
+                    entityManager.detach(account);
+                });
+            }
+            return null;
+        });
+    }
+
+    //shard마다 id 순서의 page를 하나씩 들고 있다가 가장 작은 id부터 꺼낸다. 각 shard는 한 번씩만 읽힌다
+    private void forEachAccountMerged(Consumer<Account> action){
+        PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(Comparator.comparing(cursor -> cursor.head.getId()));
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardCursor cursor = new ShardCursor(shard);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        while (!cursors.isEmpty()) {
+            ShardCursor cursor = cursors.poll();
+            action.accept(cursor.head);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    //대부분의 새 이름은 Bloom filter에서 끝나고, 걸린 경우에만 DB의 userName index를 확인한다
+    public boolean isUserNameTaken(String userName){
+        return userNameIndex.exists(userName);
+    }
+
+    //userName -> id는 cache에서, entity는 2차 cache에서 찾으므로 반복 조회는 DB까지 가지 않는다
+    public Optional<Account> findByUserName(String userName){
+        return accountRepository.findIdByUserName(userName)
+                .flatMap(accountRepository::findById);
+    }
 
     public Account signUp(Account account){
-        return accountRepository.save(account);
+        try {
+            return signUpAsync(account).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    //hash는 hash 전용 worker에서, 저장은 저장 전용 executor에서 한다. 호출 스레드는 바로 반환된다
+    //이미 있는 이름이면 비싼 hash 전에 거절한다. 확인과 저장 사이에 끼어든 가입은 unique index가 막는다
+    public CompletableFuture<Account> signUpAsync(Account account){
+        if (isUserNameTaken(account.getUserName())) {
+            CompletableFuture<Account> duplicate = new CompletableFuture<>();
+            duplicate.completeExceptionally(new DuplicateUserNameException(account.getUserName()));
+            return duplicate;
+        }
+        return passwordHashingService.hashAsync(account.getPassword())
+                .thenApplyAsync(encodedPassword -> {
+                    account.changePassword(encodedPassword);
+                    Account saved;
+                    try {
+                        saved = accountRepository.save(account);
+                    } catch (DataIntegrityViolationException e) {
+                        if (!isUserNameConflict(e)) {
+                            throw e;
+                        }
+                        throw new DuplicateUserNameException(account.getUserName());
+                    }
+                    userNameIndex.add(saved.getUserName());
+                    userNameCache().evict(saved.getUserName());
+                    return saved;
+                }, saveExecutor);
+    }
+
+    //batch 단위로 password를 병렬 hash한 뒤 저장한다
+    //요청 안에서 겹치는 이름은 DB를 봐서는 알 수 없으므로, 읽은 이름을 모아 두고 persist 전에 거절한다
+    @Transactional
+    public long signUpAll(Iterable<Account> accounts){
+        int batchSize = jpaBatchProperties.getBatchSize();
+        List<Account> batch = new ArrayList<>(batchSize);
+        Set<String> userNames = new HashSet<>();
+        long count = 0;
+        for (Account account : accounts) {
+            if (!userNames.add(account.getUserName()) || isUserNameTaken(account.getUserName())) {
+                throw new DuplicateUserNameException(account.getUserName());
+            }
+            batch.add(account);
+            if (batch.size() == batchSize) {
+                count += hashAndSave(batch);
+                batch.clear();
+            }
+        }
+        return count + hashAndSave(batch);
+    }
+
+    //password가 이미 hash된 계정을 저장한다. batch 크기만큼 insert를 모아 보내고,
+    //persistence context를 비워 건수와 관계없이 메모리를 일정하게 유지한다
+    //shard가 여럿이면 shard별로 나눠 각 shard의 transaction에서 저장한다. 이때 shard 사이의 commit은 원자적이지 않다
+    @Transactional
+    public long saveAll(Iterable<Account> accounts){
+        if (shardRouter.getShardCount() == 1) {
+            return persistAll(accounts);
+        }
+        long count = 0;
+        for (Map.Entry<Integer, List<Account>> shard : groupByShard(accounts).entrySet()) {
+            count += shardRouter.inTransaction(shard.getKey(), false, () -> persistAll(shard.getValue()));
+        }
+        return count;
+    }
+
+    //userName의 shard별로 나눈다. 계정이 없는 shard는 넣지 않는다
+    public Map<Integer, List<Account>> groupByShard(Iterable<Account> accounts){
+        Map<Integer, List<Account>> byShard = new TreeMap<>();
+        for (Account account : accounts) {
+            byShard.computeIfAbsent(shardRouter.shardOf(account.getUserName()), shard -> new ArrayList<>()).add(account);
+        }
+        return byShard;
+    }
+
+    //한 shard의 계정을 저장하고, 같은 transaction에서 afterSave를 실행한다
+    //import checkpoint처럼 저장한 row와 함께 commit되어야 하는 기록을 그 shard에 남길 때 쓴다
+    public long saveAll(int shard, List<Account> accounts, Runnable afterSave){
+        return shardRouter.inTransaction(shard, false, () -> {
+            long count = persistAll(accounts);
+            afterSave.run();
+            return count;
+        });
+    }
+
+    //userName unique index 위반. 너무 긴 값처럼 다른 이유의 무결성 오류는 중복이 아니다
+    //JDBC(Hibernate가 감싼 SQLException)와 R2DBC 모두 DB 메시지에 위반한 index 이름이 들어 있다
+    public static boolean isUserNameConflict(Throwable e){
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(Account.USER_NAME_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long persistAll(Iterable<Account> accounts){
+        int batchSize = jpaBatchProperties.getBatchSize();
+        long count = 0;
+        for (Account account : accounts) {
+            entityManager.persist(account);
+            userNameIndex.add(account.getUserName());
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        evictUserNamesAfterCommit();
+        return count;
+    }
+
+    private long hashAndSave(List<Account> batch){
+        List<String> encodedPasswords = passwordHashingService.hashAll(batch.stream()
+                .map(Account::getPassword)
+                .collect(Collectors.toList())).join();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).changePassword(encodedPasswords.get(i));
+        }
+        return saveAll(batch);
+    }
+
+    //건수가 많을 수 있어 key를 모아두지 않고 commit 후 통째로 비운다. commit 전에 비우면 그 사이 조회가 '없음'을 다시 cache한다
+    private void evictUserNamesAfterCommit(){
+        Cache cache = userNameCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.clear();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                cache.clear();
+            }
+        });
+    }
+
+    private Cache userNameCache(){
+        return cacheManager.getCache(CacheConfig.ACCOUNT_ID_BY_USER_NAME);
+    }
+
+    private class ShardCursor {
+        private final int shard;
+        private Iterator<Account> page = Collections.emptyIterator();
+        private boolean lastPage;
+        private long lastId = Long.MIN_VALUE;
+        private Account head;
+
+        ShardCursor(int shard){
+            this.shard = shard;
+        }
+
+        //다음 계정을 head에 둔다. page를 다 쓰면 마지막 id 다음 page를 읽는다
+        boolean advance(){
+            if (!page.hasNext()) {
+                if (lastPage) {
+                    return false;
+                }
+                List<Account> accounts = shardRouter.inTransaction(shard, true,
+                        () -> accountRepository.findExportPage(lastId, PageRequest.of(0, EXPORT_PAGE_SIZE)));
+                lastPage = accounts.size() < EXPORT_PAGE_SIZE;
+                page = accounts.iterator();
+                if (!page.hasNext()) {
+                    return false;
+                }
+            }
+            head = page.next();
+            lastId = head.getId();
+            return true;
+        }
     }
 
 }
@@ -0,0 +1,10 @@
+package com.module.api.service;
+
+public class DuplicateUserNameException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateUserNameException(String userName) {
+        super("user name " + userName + " is already taken");
+    }
+}
@@ -0,0 +1,59 @@
+package com.module.api.service;
+
+import com.module.core.config.CacheConfig;
+import com.module.core.domain.Account;
+import com.module.core.domain.ReactiveAccountRepository;
+import com.module.core.domain.UserNameIndex;
+import com.module.core.security.PasswordHashingService;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+//WebFlux 모드의 가입/조회. AccountService와 같은 순서로 처리하되 DB는 R2DBC로 읽고 쓴다
+@Service
+@ConditionalOnProperty(name = "module.r2dbc.enabled", havingValue = "true")
+@AllArgsConstructor
+public class ReactiveAccountService {
+
+    private ReactiveAccountRepository reactiveAccountRepository;
+    private PasswordHashingService passwordHashingService;
+    private UserNameIndex userNameIndex;
+    private CacheManager cacheManager;
+
+    //대부분의 새 이름은 Bloom filter에서 끝나고, 걸린 경우에만 DB의 userName index를 확인한다
+    public Mono<Boolean> isUserNameTaken(String userName){
+        if (!userNameIndex.mightExist(userName)) {
+            return Mono.just(false);
+        }
+        return reactiveAccountRepository.existsByUserName(userName)
+                .map(userNameIndex::confirm);
+    }
+
+    public Mono<Account> findByUserName(String userName){
+        return reactiveAccountRepository.findByUserName(userName);
+    }
+
+    //hash는 hash 전용 worker에서 하고, insert도 hash가 끝난 worker 스레드에서 이어서 한다. event loop 스레드는 기다리지 않는다
+    //이미 있는 이름이면 비싼 hash 전에 거절한다. 확인과 저장 사이에 끼어든 가입은 unique index가 막는다
+    public Mono<Account> signUp(Account account){
+        String userName = account.getUserName();
+        return isUserNameTaken(userName)
+                .flatMap(taken -> taken
+                        ? Mono.<String>error(new DuplicateUserNameException(userName))
+                        : Mono.fromFuture(() -> passwordHashingService.hashAsync(account.getPassword())))
+                .flatMap(encodedPassword -> {
+                    account.changePassword(encodedPassword);
+                    return reactiveAccountRepository.save(account);
+                })
+                .onErrorMap(e -> e instanceof R2dbcDataIntegrityViolationException && AccountService.isUserNameConflict(e),
+                        e -> new DuplicateUserNameException(userName))
+                .doOnNext(saved -> {
+                    userNameIndex.add(saved.getUserName());
+                    //blocking 쪽(AccountService)이 '없음'으로 cache 해둔 이름일 수 있다
+                    cacheManager.getCache(CacheConfig.ACCOUNT_ID_BY_USER_NAME).evict(saved.getUserName());
+                });
+    }
+}
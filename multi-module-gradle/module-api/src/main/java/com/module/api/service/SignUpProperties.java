@@ -0,0 +1,16 @@
+package com.module.api.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "module.sign-up")
+@Getter
+@Setter
+public class SignUpProperties {
+
+    //hash가 끝난 가입을 저장하는 스레드 수. 저장은 DB connection을 기다리므로 connection pool보다 크게 잡을 필요가 없다
+    private int saveThreads = 10;
+}
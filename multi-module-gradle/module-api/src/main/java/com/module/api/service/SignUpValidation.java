@@ -0,0 +1,24 @@
+package com.module.api.service;
+
+import com.module.core.domain.Account;
+
+//가입 요청, import 파일, write-behind가 같은 기준으로 입력을 거른다. DB 제약에 걸리기 전에 사유를 알려주기 위해서다
+public final class SignUpValidation {
+
+    private SignUpValidation() {
+    }
+
+    //문제가 없으면 null
+    public static String validate(String userName, String password) {
+        if (userName == null || userName.trim().isEmpty()) {
+            return "userName is empty";
+        }
+        if (userName.length() > Account.MAX_USER_NAME_LENGTH) {
+            return "userName is longer than " + Account.MAX_USER_NAME_LENGTH;
+        }
+        if (password == null || password.isEmpty()) {
+            return "password is empty";
+        }
+        return null;
+    }
+}
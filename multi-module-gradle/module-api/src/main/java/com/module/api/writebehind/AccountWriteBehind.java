@@ -0,0 +1,295 @@
+package com.module.api.writebehind;
+
+import com.module.api.service.AccountService;
+import com.module.api.service.DuplicateUserNameException;
+import com.module.api.service.SignUpValidation;
+import com.module.core.domain.Account;
+import com.module.core.domain.JournalCheckpoint;
+import com.module.core.domain.JournalCheckpointRepository;
+import com.module.core.journal.AccountJournal;
+import com.module.core.journal.JournalEntry;
+import com.module.core.security.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * write-behind 가입. password를 hash해 AccountJournal에 append하면 바로 응답하고,
+ * background writer 하나가 쌓인 가입을 batchSize 단위(최대 maxDelay 대기)로 모아 한 transaction에 저장한다.
+ * 저장과 checkpoint 갱신이 같은 transaction이라, 재시작하면 checkpoint 이후의 journal record만 다시 넣는다.
+ * plain password는 journal에 남기지 않도록 hash한 뒤에 기록한다.
+ *
+ * 응답 후 DB에 들어가기 전까지는 조회되지 않는다. 그동안의 중복 가입은 pendingNames로 막는다.
+ * - account.write-behind.pending : 아직 DB에 들어가지 않은 건수
+ * - account.write-behind.flush / batch.size : batch 저장 시간과 크기
+ * - account.write-behind.dropped : 저장 시점에 중복으로 밝혀져 버린 건수
+ */
+@Slf4j
+@Service
+public class AccountWriteBehind {
+
+    private final AccountService accountService;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final WriteBehindProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<JournalEntry> pending = new LinkedBlockingQueue<>();
+    private final Set<String> pendingNames = ConcurrentHashMap.newKeySet();
+    private final Timer flushTimer;
+    private final DistributionSummary batchSize;
+    private final Counter accepted;
+    private final Counter replayed;
+    private final Counter dropped;
+    private AccountJournal journal;
+    private JournalCheckpoint checkpoint;
+    //transaction이 commit된 마지막 sequence. checkpoint entity는 commit 전에 바뀌므로 실패한 뒤에는 믿을 수 없다
+    private long flushedSequence;
+    private Thread writer;
+    private volatile boolean running;
+
+    public AccountWriteBehind(AccountService accountService, JournalCheckpointRepository checkpointRepository,
+                              PasswordHashingService passwordHashingService, WriteBehindProperties properties,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.accountService = accountService;
+        this.checkpointRepository = checkpointRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Tags tags = Tags.of("journal", properties.getName());
+        this.flushTimer = Timer.builder("account.write-behind.flush").tags(tags).publishPercentileHistogram().register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("account.write-behind.batch.size").tags(tags).register(meterRegistry);
+        this.accepted = Counter.builder("account.write-behind.accepted").tags(tags).register(meterRegistry);
+        this.replayed = Counter.builder("account.write-behind.replayed").tags(tags).register(meterRegistry);
+        this.dropped = Counter.builder("account.write-behind.dropped").tags(tags).register(meterRegistry);
+        Gauge.builder("account.write-behind.pending", pending, BlockingQueue::size).tags(tags).register(meterRegistry);
+    }
+
+    //journal을 열고, 지난 실행에서 DB에 못 넣은 record를 대기열에 다시 올린 뒤 writer를 시작한다
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        checkpoint = checkpointRepository.findById(properties.getName())
+                .orElseGet(() -> new JournalCheckpoint(properties.getName()));
+        journal = new AccountJournal(Paths.get(properties.getDirectory()), (int) properties.getSegmentSize().toBytes(), properties.isFsync());
+        flushedSequence = checkpoint.getCommittedSequence();
+        journal.advanceTo(flushedSequence);
+        List<JournalEntry> unflushed = journal.recoveredAfter(checkpoint.getCommittedSequence());
+        for (JournalEntry entry : unflushed) {
+            pendingNames.add(entry.getUserName());
+            pending.add(entry);
+        }
+        replayed.increment(unflushed.size());
+        if (!unflushed.isEmpty()) {
+            log.info("write-behind {}: replaying {} journal records after sequence {}", properties.getName(),
+                    unflushed.size(), checkpoint.getCommittedSequence());
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "account-write-behind-" + properties.getName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //남은 가입을 저장하고 멈춘다. 시간 안에 못 끝낸 것은 journal에 남아 다음 시작 때 저장된다
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        writer.interrupt();
+        writer.join();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    //journal에 기록되면 완료된다. DB 저장은 그 뒤에 일어난다
+    public CompletableFuture<Account> accept(Account account) {
+        String userName = account.getUserName();
+        //DB에 넣을 때 걸러질 값은 202로 받기 전에 거절한다. background writer에서 실패하면 알릴 곳이 없다
+        String error = SignUpValidation.validate(userName, account.getPassword());
+        if (error != null) {
+            return failed(new IllegalArgumentException(error));
+        }
+        if (pending.size() >= properties.getMaxPending()) {
+            return failed(new RejectedExecutionException("write-behind queue is full"));
+        }
+        if (!pendingNames.add(userName)) {
+            return failed(new DuplicateUserNameException(userName));
+        }
+        if (accountService.isUserNameTaken(userName)) {
+            pendingNames.remove(userName);
+            return failed(new DuplicateUserNameException(userName));
+        }
+        return passwordHashingService.hashAsync(account.getPassword())
+                .thenApply(encodedPassword -> {
+                    append(userName, encodedPassword);
+                    account.changePassword(encodedPassword);
+                    accepted.increment();
+                    return account;
+                })
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        pendingNames.remove(userName);
+                    }
+                });
+    }
+
+    //writer는 대기열 순서대로 저장하고 마지막 sequence를 checkpoint로 남기므로, 대기열 순서가 sequence 순서와 같아야 한다
+    private void append(String userName, String encodedPassword) {
+        synchronized (pending) {
+            long sequence = journal.append(userName, encodedPassword);
+            pending.add(new JournalEntry(sequence, userName, encodedPassword));
+        }
+    }
+
+    private void writeLoop() {
+        List<JournalEntry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    fill(batch);
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                //DB 장애 등. 같은 batch를 잠시 뒤 다시 시도한다
+                log.warn("write-behind {}: flushing {} accounts failed, retrying", properties.getName(), batch.size(), e);
+                try {
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    //첫 건을 받은 뒤 batchSize가 차거나 maxDelay가 지날 때까지 모은다(group commit)
+    private void fill(List<JournalEntry> batch) throws InterruptedException {
+        JournalEntry first = pending.poll(properties.getMaxDelay().toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            pending.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            JournalEntry next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<JournalEntry> batch) {
+        long start = System.nanoTime();
+        //한 건씩 넣다가 실패해 다시 시도하는 batch라면 앞쪽은 이미 저장됐다
+        List<JournalEntry> unsaved = batch.stream()
+                .filter(entry -> entry.getSequence() > flushedSequence)
+                .collect(Collectors.toList());
+        try {
+            if (!unsaved.isEmpty()) {
+                save(unsaved);
+            }
+        } catch (RuntimeException e) {
+            if (!AccountService.isUserNameConflict(e)) {
+                throw e;
+            }
+            //batch 중 누가 중복인지 모르므로 한 건씩 다시 넣고, 중복인 건은 checkpoint만 넘긴다
+            for (JournalEntry entry : unsaved) {
+                try {
+                    save(Collections.singletonList(entry));
+                } catch (RuntimeException single) {
+                    if (!AccountService.isUserNameConflict(single)) {
+                        throw single;
+                    }
+                    log.warn("write-behind {}: dropping sequence {} ({}), user name already exists",
+                            properties.getName(), entry.getSequence(), entry.getUserName());
+                    dropped.increment();
+                    commitCheckpoint(entry.getSequence());
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        batch.forEach(entry -> pendingNames.remove(entry.getUserName()));
+        try {
+            journal.deleteUpTo(batch.get(batch.size() - 1).getSequence());
+        } catch (IOException e) {
+            log.warn("write-behind {}: could not delete flushed journal segments", properties.getName(), e);
+        }
+    }
+
+    private void save(List<JournalEntry> entries) {
+        List<Account> accounts = entries.stream()
+                .map(entry -> Account.builder()
+                        .userName(entry.getUserName())
+                        .password(entry.getEncodedPassword())
+                        .build())
+                .collect(Collectors.toList());
+        long sequence = entries.get(entries.size() - 1).getSequence();
+        transactionTemplate.execute(status -> {
+            accountService.saveAll(accounts);
+            checkpoint.commit(sequence);
+            return checkpointRepository.save(checkpoint);
+        });
+        flushedSequence = sequence;
+    }
+
+    private void commitCheckpoint(long sequence) {
+        transactionTemplate.execute(status -> {
+            checkpoint.commit(sequence);
+            return checkpointRepository.save(checkpoint);
+        });
+        flushedSequence = sequence;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
@@ -0,0 +1,31 @@
+package com.module.api.writebehind;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "module.write-behind")
+@Getter
+@Setter
+public class WriteBehindProperties {
+
+    //켜면 POST /accounts는 journal에 기록하는 즉시 202로 응답하고, DB 저장은 background writer가 모아서 한다
+    private boolean enabled = false;
+    private String directory = "journal/accounts";
+    //DB의 checkpoint key. journal 디렉터리마다 달라야 한다
+    private String name = "accounts";
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+    //append마다 디스크까지 내린다. 끄면 프로세스 장애는 견디지만 OS 장애 시 마지막 몇 초가 사라질 수 있다
+    private boolean fsync = false;
+    //한 transaction에 저장할 최대 건수와, batch를 채우려고 기다리는 최대 시간
+    private int batchSize = 1000;
+    private Duration maxDelay = Duration.ofMillis(100);
+    //DB에 아직 못 넣은 건수가 이보다 많으면 새 가입을 거절한다
+    private int maxPending = 100_000;
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,254 @@
+package com.module.api.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.module.core.domain.Account;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void 가입() throws Exception {
+        //when
+        MvcResult result = mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"single1\",\"password\":\"1234\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userName").value("single1"));
+    }
+
+    @Test
+    public void userName으로_조회() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"lookup1\",\"password\":\"1234\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result));
+
+        //when, then
+        mockMvc.perform(get("/accounts").param("userName", "lookup1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userName").value("lookup1"));
+        mockMvc.perform(get("/accounts").param("userName", "nobody"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void 중복_가입은_409() throws Exception {
+        //given
+        String body = "{\"userName\":\"conflict1\",\"password\":\"1234\"}";
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn()));
+
+        //when
+        MvcResult result = mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void userName이_없거나_너무_길면_400() throws Exception {
+        //given
+        String tooLong = String.join("", Collections.nCopies(Account.MAX_USER_NAME_LENGTH + 45, "a"));
+
+        //when, then
+        mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"" + tooLong + "\",\"password\":\"1234\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"1234\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"noPassword\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 대량_가입에_userName_없는_요소가_있으면_400_전체_rollback() throws Exception {
+        //when
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userName\":\"invalidBulk1\",\"password\":\"1234\"},{\"password\":\"1234\"}]"))
+                .andExpect(status().isBadRequest());
+
+        //then
+        mockMvc.perform(get("/accounts").param("userName", "invalidBulk1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void keyset_목록_조회() throws Exception {
+        //given
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userName\":\"list1\",\"password\":\"1234\"},{\"userName\":\"list2\",\"password\":\"1234\"}]"));
+
+        //when, then
+        mockMvc.perform(get("/accounts").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].password").doesNotExist())
+                .andExpect(jsonPath("$.nextAfter").isNumber());
+        assertTrue(meterRegistry.get("jdbc.queries.per.request").tag("method", "GET").tag("uri", "/accounts").summary().totalAmount() >= 1);
+    }
+
+    @Test
+    public void 전체_export() throws Exception {
+        //given
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userName\":\"export1\",\"password\":\"1234\"}]"));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[?(@.userName == 'export1')]", hasSize(1)))
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+    }
+
+    @Test
+    public void 대량_가입() throws Exception {
+        //given
+        String body = "[{\"userName\":\"bulkUser1\",\"password\":\"1234\"},"
+                    + "{\"userName\":\"bulkUser2\",\"password\":\"1234\"},"
+                    + "{\"userName\":\"bulkUser3\",\"password\":\"1234\"}]";
+
+        //when, then
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3));
+    }
+
+    @Test
+    public void 가입_요청의_id는_무시() throws Exception {
+        //given: 이미 있는 계정의 id를 실어 보낸다
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"owner1\",\"password\":\"1234\"}"))
+                .andReturn()));
+        MvcResult owner = mockMvc.perform(get("/accounts").param("userName", "owner1")).andReturn();
+        Number ownerId = JsonPath.read(owner.getResponse().getContentAsString(), "$.id");
+
+        //when
+        MvcResult result = mockMvc.perform(post("/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + ownerId + ",\"userName\":\"intruder1\",\"password\":\"1234\"}"))
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(not(ownerId.longValue())));
+        mockMvc.perform(get("/accounts").param("userName", "owner1"))
+                .andExpect(jsonPath("$.id").value(ownerId.longValue()));
+    }
+
+    @Test
+    public void 대량_가입_요청의_id는_무시() throws Exception {
+        //given: 이미 있는 계정의 id를 실어 보낸다
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userName\":\"bulkOwner\",\"password\":\"1234\"}]"));
+        MvcResult owner = mockMvc.perform(get("/accounts").param("userName", "bulkOwner")).andReturn();
+        Number ownerId = JsonPath.read(owner.getResponse().getContentAsString(), "$.id");
+
+        //when
+        mockMvc.perform(post("/accounts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + ownerId + ",\"userName\":\"bulkIntruder\",\"password\":\"1234\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+
+        //then
+        mockMvc.perform(get("/accounts").param("userName", "bulkOwner"))
+                .andExpect(jsonPath("$.id").value(ownerId.longValue()));
+        mockMvc.perform(get("/accounts").param("userName", "bulkIntruder"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(not(ownerId.longValue())));
+    }
+
+    @Test
+    public void 파일_import_후_상태_조회() throws Exception {
+        //given
+        String body = "userName,password\nfile1,1234\nfile2,1234\n";
+
+        //when
+        mockMvc.perform(post("/accounts/import")
+                        .param("importId", "controller")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.writtenAccounts").value(2));
+
+        //then
+        mockMvc.perform(get("/accounts/import/controller"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committedChunks").value(1));
+        mockMvc.perform(get("/accounts/import/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void header가_없는_csv는_거부() throws Exception {
+        mockMvc.perform(post("/accounts/import")
+                        .param("importId", "no-header")
+                        .contentType("text/csv")
+                        .content("file1,1234\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,73 @@
+package com.module.api.controller;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.main.web-application-type=reactive", "module.r2dbc.enabled=true"})
+@AutoConfigureWebTestClient
+public class ReactiveAccountControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    public void 가입_후_userName으로_조회() {
+        //given
+        webTestClient.post().uri("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"userName\":\"webflux1\",\"password\":\"1234\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.userName").isEqualTo("webflux1")
+                .jsonPath("$.id").exists()
+                .jsonPath("$.password").doesNotExist();
+
+        //when, then
+        webTestClient.get().uri("/accounts?userName={userName}", "webflux1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.userName").isEqualTo("webflux1");
+    }
+
+    @Test
+    public void 이미_있는_userName으로_가입하면_409() {
+        //given
+        webTestClient.post().uri("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"userName\":\"webflux2\",\"password\":\"1234\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        //when, then
+        webTestClient.post().uri("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"userName\":\"webflux2\",\"password\":\"5678\"}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    public void userName_없이_가입하면_400() {
+        webTestClient.post().uri("/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody("{\"password\":\"1234\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void 없는_userName_조회는_404() {
+        webTestClient.get().uri("/accounts?userName={userName}", "webflux-none")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,157 @@
+package com.module.api.controller;
+
+import com.module.ModuleApiApplication;
+import io.netty.channel.ChannelOption;
+import org.junit.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 같은 가입+조회 부하를 JPA/Tomcat(servlet) 모드와 R2DBC/Netty(reactive) 모드에 걸어 비교한다. 평소 test에서는 건너뛴다.
+ *   gradle test --tests '*WebStackBenchmark' -Dbenchmark=true -Dbenchmark.clients=2000 -Dbenchmark.requests=20000
+ * client마다 가입(POST /accounts) 후 바로 조회(GET /accounts?userName=)를 한다. benchmark.clients 개가 항상 동시에 요청 중이다.
+ * client는 같은 JVM에서 별도 event loop 2개로 돌고, 서버 쪽 요청 처리 스레드 수는 이름으로 골라 10ms마다 센다.
+ */
+public class WebStackBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+
+    @Test
+    public void servlet_reactive_가입_조회_비교() throws Exception {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        LoopResources clientLoop = LoopResources.create("benchmark-client", 2, true);
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+                .maxConnections(CLIENTS)
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .build();
+        try {
+            //JIT warm-up. 두 모드 모두 한 번씩 돌리고 버린다
+            run(WebApplicationType.SERVLET, "warmup-servlet", Math.min(REQUESTS, 2_000), clientLoop, connections, false);
+            run(WebApplicationType.REACTIVE, "warmup-reactive", Math.min(REQUESTS, 2_000), clientLoop, connections, false);
+            run(WebApplicationType.SERVLET, "servlet", REQUESTS, clientLoop, connections, true);
+            run(WebApplicationType.REACTIVE, "reactive", REQUESTS, clientLoop, connections, true);
+        } finally {
+            connections.dispose();
+            clientLoop.dispose();
+        }
+    }
+
+    private void run(WebApplicationType type, String name, int requests, LoopResources clientLoop,
+                     ConnectionProvider connections, boolean print) throws InterruptedException {
+        boolean reactive = type == WebApplicationType.REACTIVE;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ModuleApiApplication.class)
+                .web(type)
+                .properties("server.port=0",
+                        "module.r2dbc.enabled=" + reactive,
+                        "spring.datasource.url=jdbc:h2:mem:web-bench-" + name + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        //동시 가입 수만큼 hash 대기열을 열어둔다. 거절(503)이 아닌 처리량을 재려는 것이다
+                        "module.password.queue-capacity=" + CLIENTS,
+                        "spring.jpa.open-in-view=false",
+                        "spring.jmx.enabled=false")
+                .run()) {
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)
+                            .runOn(clientLoop)
+                            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60_000)))
+                    .build();
+
+            ThreadSampler sampler = new ThreadSampler(reactive ? "reactor-http-" : "http-nio-");
+            sampler.start();
+            AtomicLongArray latencies = new AtomicLongArray(requests);
+            AtomicInteger failed = new AtomicInteger();
+            long start = System.nanoTime();
+            Flux.range(0, requests)
+                    .flatMap(i -> signUpThenLookup(client, name + i)
+                            .doOnSuccess(nanos -> latencies.set(i, nanos))
+                            .onErrorResume(e -> {
+                                failed.incrementAndGet();
+                                return Mono.empty();
+                            }), CLIENTS)
+                    .blockLast();
+            long elapsed = System.nanoTime() - start;
+            sampler.interrupt();
+            sampler.join();
+
+            if (print) {
+                long[] sorted = new long[requests];
+                for (int i = 0; i < requests; i++) {
+                    sorted[i] = latencies.get(i);
+                }
+                Arrays.sort(sorted);
+                System.out.printf("%-9s %,7.0f signup+lookup/s  p50 %,6.1fms  p99 %,7.1fms  request threads %3d  (%,d requests, %,d clients, %d failed)%n",
+                        name, requests * 1e9 / elapsed, percentile(sorted, 0.5), percentile(sorted, 0.99),
+                        sampler.peak, requests, CLIENTS, failed.get());
+            }
+        }
+    }
+
+    //가입부터 조회 응답까지 걸린 시간(ns)
+    private static Mono<Long> signUpThenLookup(WebClient client, String userName) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.post().uri("/accounts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .syncBody("{\"userName\":\"" + userName + "\",\"password\":\"1234\"}")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .then(client.get().uri("/accounts?userName={userName}", userName)
+                            .retrieve()
+                            .bodyToMono(String.class))
+                    .map(body -> System.nanoTime() - start);
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * sorted.length))] / 1e6;
+    }
+
+    //이름이 prefix로 시작하는 살아 있는 스레드 수의 최대값
+    private static class ThreadSampler extends Thread {
+        private final String prefix;
+        private volatile int peak;
+
+        ThreadSampler(String prefix) {
+            super("benchmark-thread-sampler");
+            this.prefix = prefix;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                Thread[] threads = new Thread[Thread.activeCount() * 2];
+                int count = 0;
+                for (int i = 0, n = Thread.enumerate(threads); i < n; i++) {
+                    if (threads[i].getName().startsWith(prefix)) {
+                        count++;
+                    }
+                }
+                peak = Math.max(peak, count);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.module.api.importer;
+
+import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.domain.ImportCheckpoint;
+import com.module.core.domain.ImportCheckpointRepository;
+import com.module.core.security.PasswordHasher;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"module.import.chunk-size=10", "module.password.iterations=1000"})
+public class AccountImporterTest {
+
+    @Autowired
+    AccountImporter accountImporter;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    PasswordHasher passwordHasher;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void csv_import() throws Exception {
+        //given: 25건 중 1건은 password가 비어 있다
+        StringBuilder csv = new StringBuilder("password,userName\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append(i == 7 ? "" : "pw" + i).append(",\"csv,").append(i).append("\"\n");
+        }
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("csv", ImportFormat.CSV, stream(csv.toString()));
+
+        //then
+        assertThat(status.getState(), is(ImportStatus.State.COMPLETED));
+        assertThat(status.getReadRecords(), is(25L));
+        assertThat(status.getRejectedRecords(), is(1L));
+        assertThat(status.getWrittenAccounts(), is(24L));
+        assertThat(status.getErrors().get(0), is("line 9: password is empty"));
+
+        ImportCheckpoint checkpoint = checkpointRepository.findById("csv").get();
+        assertThat(checkpoint.getCommittedChunks(), is(3L));
+        assertThat(checkpoint.getCommittedRecords(), is(25L));
+
+        //끝난 import는 메모리에 남기지 않고 checkpoint에서 상태를 다시 만든다
+        ImportStatus stopped = accountImporter.getStatus("csv").get();
+        assertThat(stopped.getState(), is(ImportStatus.State.STOPPED));
+        assertThat(stopped.getWrittenAccounts(), is(24L));
+
+        Account account = accountRepository.findAll().stream()
+                .filter(saved -> saved.getUserName().equals("csv,3"))
+                .findFirst().get();
+        assertTrue(passwordHasher.matches("pw3", account.getPassword()));
+    }
+
+    @Test
+    public void 마지막_commit_이후부터_이어서_import() throws Exception {
+        //given: 이전 실행에서 첫 chunk(10건)까지 commit됨
+        ImportCheckpoint checkpoint = new ImportCheckpoint("resume");
+        checkpoint.commit(10, 10);
+        checkpointRepository.save(checkpoint);
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            ndjson.append("{\"userName\":\"resume").append(i).append("\",\"password\":\"pw\"}\n");
+        }
+        long before = accountRepository.count();
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("resume", ImportFormat.NDJSON, stream(ndjson.toString()));
+
+        //then
+        assertThat(status.getSkippedRecords(), is(10L));
+        assertThat(status.getReadRecords(), is(15L));
+        assertThat(status.getCommittedChunks(), is(3L));
+        assertThat(accountRepository.count() - before, is(15L));
+        assertThat(checkpointRepository.findById("resume").get().getCommittedRecords(), is(25L));
+    }
+
+    @Test
+    public void 깨진_줄만_거부() throws Exception {
+        //given
+        String ndjson = "{\"userName\":\"broken1\",\"password\":\"pw\"}\n"
+                      + "{\"userName\":\"broken2\",\n"
+                      + "\n"
+                      + "{\"userName\":\"broken3\",\"password\":\"pw\"}\n";
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("broken", ImportFormat.NDJSON, stream(ndjson));
+
+        //then
+        assertThat(status.getWrittenAccounts(), is(2L));
+        assertThat(status.getErrors().get(0), is("line 2: malformed JSON"));
+    }
+
+    @Test
+    public void 이미_있는_userName은_거부() throws Exception {
+        //given
+        accountImporter.importAccounts("taken-first", ImportFormat.NDJSON, stream("{\"userName\":\"taken1\",\"password\":\"pw\"}\n"));
+        String ndjson = "{\"userName\":\"taken1\",\"password\":\"pw\"}\n"
+                      + "{\"userName\":\"taken2\",\"password\":\"pw\"}\n";
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("taken", ImportFormat.NDJSON, stream(ndjson));
+
+        //then
+        assertThat(status.getWrittenAccounts(), is(1L));
+        assertThat(status.getErrors().get(0), is("line 1: userName taken1 already exists"));
+    }
+
+    @Test
+    public void 파일_안에서_중복된_userName은_처음_것만_저장() throws Exception {
+        //given: 같은 chunk 안의 중복(line 2)과 다음 chunk에서의 중복(line 12)
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 15; i++) {
+            String userName = i == 1 || i == 11 ? "twice0" : "twice" + i;
+            ndjson.append("{\"userName\":\"").append(userName).append("\",\"password\":\"pw\"}\n");
+        }
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("twice", ImportFormat.NDJSON, stream(ndjson.toString()));
+
+        //then
+        assertThat(status.getState(), is(ImportStatus.State.COMPLETED));
+        assertThat(status.getWrittenAccounts(), is(13L));
+        assertThat(status.getRejectedRecords(), is(2L));
+        assertThat(status.getErrors().get(0), is("line 2: userName twice0 appears more than once in the file"));
+        assertTrue(status.getErrors().get(1).startsWith("line 12: userName twice0"));
+        assertTrue(accountRepository.existsByUserName("twice14"));
+    }
+
+    @Test
+    public void 읽은_뒤_다른_가입이_먼저_저장한_userName은_거부하고_나머지는_저장() throws Exception {
+        //given: filter를 거치지 않고 넣어, 읽을 때는 없던 이름이 저장할 때 생긴 것과 같게 만든다
+        jdbcTemplate.update("insert into account (id, user_name, password) values (?, ?, ?)", 2_000_000_000L, "raced1", "x");
+        String ndjson = "{\"userName\":\"raced0\",\"password\":\"pw\"}\n"
+                      + "{\"userName\":\"raced1\",\"password\":\"pw\"}\n"
+                      + "{\"userName\":\"raced2\",\"password\":\"pw\"}\n";
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("raced", ImportFormat.NDJSON, stream(ndjson));
+
+        //then
+        assertThat(status.getState(), is(ImportStatus.State.COMPLETED));
+        assertThat(status.getWrittenAccounts(), is(2L));
+        assertThat(status.getRejectedRecords(), is(1L));
+        assertThat(status.getErrors().get(0), is("line 2: userName raced1 already exists"));
+        assertTrue(accountRepository.existsByUserName("raced0"));
+        assertTrue(accountRepository.existsByUserName("raced2"));
+        assertThat(checkpointRepository.findById("raced").get().getCommittedRecords(), is(3L));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.module.api.importer;
+
+import com.module.api.service.AccountService;
+import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.domain.ImportCheckpoint;
+import com.module.core.domain.ImportCheckpointRepository;
+import com.module.core.shard.ShardRouter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "module.import.chunk-size=10",
+        "module.password.iterations=1000",
+        "module.sharding.enabled=true",
+        "module.sharding.urls[0]=jdbc:h2:mem:sharded-import-0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "module.sharding.urls[1]=jdbc:h2:mem:sharded-import-1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class ShardedAccountImporterTest {
+
+    @Autowired
+    AccountImporter accountImporter;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @Test
+    public void 일부_shard에만_commit된_chunk부터_이어서_import() throws Exception {
+        //given: 이전 실행이 첫 chunk를 shard 0에만 commit하고 멈췄다
+        List<Account> shard0 = new ArrayList<>();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 15; i++) {
+            String userName = "partial" + i;
+            if (i < 10 && shardRouter.shardOf(userName) == 0) {
+                shard0.add(Account.builder().userName(userName).password("pw").build());
+            }
+            ndjson.append("{\"userName\":\"").append(userName).append("\",\"password\":\"pw\"}\n");
+        }
+        ImportCheckpoint checkpoint = new ImportCheckpoint("partial");
+        accountService.saveAll(0, shard0, () -> {
+            checkpoint.commit(10, shard0.size());
+            checkpointRepository.save(checkpoint);
+        });
+
+        //when
+        ImportStatus status = accountImporter.importAccounts("partial", ImportFormat.NDJSON, stream(ndjson.toString()));
+
+        //then
+        assertThat(status.getSkippedRecords(), is((long) shard0.size()));
+        assertThat(status.getRejectedRecords(), is(0L));
+        assertThat(status.getWrittenAccounts(), is(15L - shard0.size()));
+        for (int i = 0; i < 15; i++) {
+            assertTrue(accountRepository.existsByUserName("partial" + i));
+        }
+        List<Optional<ImportCheckpoint>> checkpoints = shardRouter.scatter(shard -> checkpointRepository.findById("partial"));
+        assertThat(checkpoints.get(0).get().getCommittedRecords(), is(15L));
+        assertThat(checkpoints.get(1).get().getCommittedRecords(), is(15L));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
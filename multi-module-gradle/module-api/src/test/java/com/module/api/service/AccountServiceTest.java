@@ -1,12 +1,29 @@
 package com.module.api.service;
 
 import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.security.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.persistence.EntityManagerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
 
@@ -17,6 +34,21 @@ public class AccountServiceTest {
     @Autowired
     AccountService accountService;
 
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    PasswordHasher passwordHasher;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     public void signUp() {
         //given
@@ -29,5 +61,222 @@ public class AccountServiceTest {
 
         //then
         assertThat(result, is(account));
+        assertTrue(passwordHasher.matches("1234", result.getPassword()));
+    }
+
+    @Test
+    public void signUpAsync() throws Exception {
+        //given
+        Account account = Account.builder()
+                                .userName("async1")
+                                .password("1234")
+                                .build();
+        //when
+        Account result = accountService.signUpAsync(account).get();
+
+        //then
+        assertNotNull(result.getId());
+        assertTrue(passwordHasher.matches("1234", result.getPassword()));
+    }
+
+    @Test
+    public void 확인_뒤_먼저_저장된_userName만_중복으로_거절() throws Exception {
+        //given: 중복 확인(Bloom filter)을 거치지 않고 들어간 이름
+        jdbcTemplate.update("insert into account (id, user_name, password) values (?, ?, ?)", 2_000_000_001L, "raced2", "x");
+        String tooLong = String.join("", Collections.nCopies(Account.MAX_USER_NAME_LENGTH + 1, "a"));
+
+        //when
+        ExecutionException duplicate = signUpFailure(Account.builder().userName("raced2").password("1234").build());
+        ExecutionException invalid = signUpFailure(Account.builder().userName(tooLong).password("1234").build());
+
+        //then
+        assertThat(duplicate.getCause(), instanceOf(DuplicateUserNameException.class));
+        assertThat(invalid.getCause(), instanceOf(DataIntegrityViolationException.class));
+    }
+
+    @Test
+    public void signUpAll() {
+        //given: batch 크기(50)로 나누어 떨어지지 않는 건수
+        long before = accountRepository.count();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            accounts.add(Account.builder()
+                                .userName("bulk" + i)
+                                .password("1234")
+                                .build());
+        }
+
+        //when
+        long count = accountService.signUpAll(accounts);
+
+        //then
+        assertThat(count, is(120L));
+        assertThat(accountRepository.count() - before, is(120L));
+    }
+
+    @Test
+    public void userName_반복_조회는_DB를_거치지_않음() {
+        //given
+        accountService.signUp(Account.builder()
+                                .userName("cached1")
+                                .password("1234")
+                                .build());
+        accountService.findByUserName("cached1");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        double hits = meterRegistry.get("cache.gets").tag("cache", "accountIdByUserName").tag("result", "hit").functionCounter().count();
+
+        //when
+        Account result = accountService.findByUserName("cached1").get();
+
+        //then
+        assertThat(result.getUserName(), is("cached1"));
+        assertThat(statistics.getPrepareStatementCount(), is(statements));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "accountIdByUserName").tag("result", "hit").functionCounter().count(), is(hits + 1));
+    }
+
+    @Test
+    public void 없는_userName도_가입하면_조회됨() {
+        //given: 없다는 결과도 cache 된다
+        assertFalse(accountService.findByUserName("late1").isPresent());
+
+        //when
+        accountService.signUp(Account.builder()
+                                .userName("late1")
+                                .password("1234")
+                                .build());
+
+        //then
+        assertTrue(accountService.findByUserName("late1").isPresent());
+    }
+
+    @Test
+    public void 대량_가입_후_commit되면_userName_cache를_비움() {
+        //given
+        assertFalse(accountService.findByUserName("lateBulk1").isPresent());
+        List<Account> accounts = new ArrayList<>();
+        accounts.add(Account.builder()
+                            .userName("lateBulk1")
+                            .password("1234")
+                            .build());
+
+        //when
+        accountService.signUpAll(accounts);
+
+        //then
+        assertTrue(accountService.findByUserName("lateBulk1").isPresent());
+    }
+
+    @Test(expected = DuplicateUserNameException.class)
+    public void 이미_있는_userName으로_가입하면_거절() {
+        //given
+        accountService.signUp(Account.builder()
+                                .userName("taken1")
+                                .password("1234")
+                                .build());
+
+        //when
+        accountService.signUp(Account.builder()
+                                .userName("taken1")
+                                .password("5678")
+                                .build());
+    }
+
+    @Test
+    public void 대량_가입_요청_안에서_userName이_겹치면_거절() {
+        //given
+        List<Account> accounts = Arrays.asList(
+                Account.builder().userName("twiceBulk1").password("1234").build(),
+                Account.builder().userName("twiceBulk2").password("1234").build(),
+                Account.builder().userName("twiceBulk1").password("5678").build());
+
+        //when
+        try {
+            accountService.signUpAll(accounts);
+            fail();
+        } catch (DuplicateUserNameException expected) {
+        }
+
+        //then: 앞의 batch도 같은 transaction이라 저장되지 않는다
+        assertFalse(accountService.isUserNameTaken("twiceBulk2"));
+    }
+
+    @Test
+    public void userName_중복_확인() {
+        //given
+        accountService.signUp(Account.builder()
+                                .userName("exists1")
+                                .password("1234")
+                                .build());
+
+        //when, then
+        assertTrue(accountService.isUserNameTaken("exists1"));
+        assertFalse(accountService.isUserNameTaken("free1"));
+    }
+
+    @Test
+    public void keyset_페이지를_끝까지_넘김() {
+        //given
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            accounts.add(Account.builder()
+                                .userName("page" + i)
+                                .password("1234")
+                                .build());
+        }
+        accountService.signUpAll(accounts);
+        long total = accountRepository.count();
+
+        //when
+        long read = 0;
+        long lastId = 0;
+        Long after = 0L;
+        while (after != null) {
+            AccountPage page = accountService.findPage(after, 10);
+            for (Account account : page.getContent()) {
+                assertTrue(account.getId() > lastId);
+                lastId = account.getId();
+            }
+            read += page.getContent().size();
+            after = page.getNextAfter();
+        }
+
+        //then
+        assertThat(read, is(total));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void 페이지_크기_초과() {
+        accountService.findPage(0, 1001);
+    }
+
+    @Test
+    public void 전체_계정을_id_순서로_순회() {
+        //given
+        accountService.signUp(Account.builder()
+                                .userName("stream1")
+                                .password("1234")
+                                .build());
+        AtomicLong count = new AtomicLong();
+        AtomicLong lastId = new AtomicLong();
+
+        //when
+        accountService.forEachAccount(account -> {
+            assertTrue(account.getId() > lastId.get());
+            lastId.set(account.getId());
+            count.incrementAndGet();
+        });
+
+        //then
+        assertThat(count.get(), is(accountRepository.count()));
+    }
+
+    private ExecutionException signUpFailure(Account account) throws InterruptedException {
+        try {
+            accountService.signUpAsync(account).get();
+        } catch (ExecutionException e) {
+            return e;
+        }
+        throw new AssertionError("signUpAsync succeeded: " + account.getUserName());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.module.api.service;
+
+import com.module.ModuleApiApplication;
+import com.module.core.domain.Account;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * shard 수에 따른 가입 처리량. 평소 test에서는 건너뛴다.
+ *   gradle test --tests '*ShardedSignUpBenchmark' -Dbenchmark=true -Dbenchmark.signups=4000
+ * 같은 JVM 안의 H2는 CPU를 나눠 쓰므로 그대로 재면 shard 수와 관계없이 CPU에서 막힌다.
+ * 그래서 shard마다 connection 수(benchmark.pool-size)를 줄이고 query마다 지연(benchmark.latency-millis)을 둬서
+ * DB 하나의 처리량이 병목인 상황을 만든다. 지연이 CPU 한계보다 충분히 낮은 처리량을 만들어야 shard 효과가 보인다.
+ */
+public class ShardedSignUpBenchmark {
+
+    private static final int SIGNUPS = Integer.getInteger("benchmark.signups", 1_000);
+    private static final long LATENCY_MILLIS = Long.getLong("benchmark.latency-millis", 25);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 1);
+    private static final int IN_FLIGHT = 64;
+
+    @Test
+    public void shard_수별_가입_처리량() throws Exception {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        //JIT warm-up. 먼저 재는 쪽이 불리하지 않게 지연 없이 한 번 돌리고 버린다
+        run(1, 0);
+        double single = 0;
+        for (int shards : new int[]{1, 2, 4}) {
+            double throughput = run(shards, LATENCY_MILLIS);
+            if (shards == 1) {
+                single = throughput;
+            }
+            System.out.printf("%d shard(s)  %,8.0f signups/s  (x%.2f)%n", shards, throughput, throughput / single);
+        }
+    }
+
+    private double run(int shards, long latencyMillis) throws InterruptedException {
+        List<String> properties = new ArrayList<>();
+        properties.add("module.sharding.enabled=true");
+        for (int i = 0; i < shards; i++) {
+            properties.add("module.sharding.urls[" + i + "]=jdbc:h2:mem:signup-bench-" + shards + "-" + latencyMillis + "-" + i
+                    + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        }
+        properties.add("module.sharding.maximum-pool-size=" + POOL_SIZE);
+        properties.add("module.password.iterations=1");
+        properties.add("module.password.calibration.enabled=false");
+        properties.add("spring.task.execution.pool.core-size=" + IN_FLIGHT);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ModuleApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .initializers(applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(latency(latencyMillis)))
+                .run()) {
+            AccountService accountService = context.getBean(AccountService.class);
+            Semaphore inFlight = new Semaphore(IN_FLIGHT);
+            AtomicInteger failed = new AtomicInteger();
+            long start = System.nanoTime();
+            for (int i = 0; i < SIGNUPS; i++) {
+                inFlight.acquire();
+                accountService.signUpAsync(Account.builder().userName("sharded" + i).password("1234").build())
+                        .whenComplete((account, e) -> {
+                            if (e != null) {
+                                failed.incrementAndGet();
+                            }
+                            inFlight.release();
+                        });
+            }
+            inFlight.acquire(IN_FLIGHT);
+            long elapsed = System.nanoTime() - start;
+            if (failed.get() > 0) {
+                throw new IllegalStateException(failed.get() + " signups failed");
+            }
+            return SIGNUPS * 1e9 / elapsed;
+        }
+    }
+
+    //query가 끝난 뒤 connection을 쥔 채 기다린다. 원격 DB의 왕복과 처리 시간 대신이다
+    private static BeanPostProcessor latency(long latencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .afterQuery((execution, queries) -> {
+                            try {
+                                Thread.sleep(latencyMillis);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+}
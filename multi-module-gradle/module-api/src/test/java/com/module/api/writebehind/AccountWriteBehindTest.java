@@ -0,0 +1,206 @@
+package com.module.api.writebehind;
+
+import com.module.api.service.AccountService;
+import com.module.api.service.DuplicateUserNameException;
+import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.domain.JournalCheckpointRepository;
+import com.module.core.journal.AccountJournal;
+import com.module.core.security.PasswordHasher;
+import com.module.core.security.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountWriteBehindTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    @Autowired
+    PasswordHasher passwordHasher;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void journal에_기록되면_응답하고_나중에_DB에_저장() throws Exception {
+        //given
+        AccountWriteBehind writeBehind = writeBehind("accept");
+        writeBehind.start();
+        try {
+            //when
+            Account accepted = writeBehind.accept(Account.builder().userName("behind1").password("1234").build()).join();
+
+            //then
+            assertTrue(passwordHasher.matches("1234", accepted.getPassword()));
+            awaitSaved("behind1");
+            assertTrue(passwordHasher.matches("1234", accountService.findByUserName("behind1").get().getPassword()));
+            assertThat(checkpointRepository.findById("accept").get().getCommittedSequence(), is(1L));
+        } finally {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    public void 저장_대기_중인_이름으로_다시_가입하면_거절() throws Exception {
+        //given
+        AccountWriteBehind writeBehind = writeBehind("duplicate");
+        writeBehind.start();
+        try {
+            writeBehind.accept(Account.builder().userName("behind2").password("1234").build()).join();
+
+            //when
+            try {
+                writeBehind.accept(Account.builder().userName("behind2").password("5678").build()).join();
+                fail();
+            } catch (CompletionException e) {
+                //then
+                assertThat(e.getCause(), instanceOf(DuplicateUserNameException.class));
+            }
+            awaitSaved("behind2");
+            assertThat(accountRepository.existsByUserName("behind2"), is(true));
+        } finally {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    public void 컬럼보다_긴_userName은_journal에_기록하기_전에_거절() throws Exception {
+        //given
+        AccountWriteBehind writeBehind = writeBehind("too-long");
+        writeBehind.start();
+        char[] userName = new char[Account.MAX_USER_NAME_LENGTH + 1];
+        Arrays.fill(userName, 'a');
+        try {
+            //when
+            try {
+                writeBehind.accept(Account.builder().userName(new String(userName)).password("1234").build()).join();
+                fail();
+            } catch (CompletionException e) {
+                //then
+                assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+            }
+        } finally {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    public void 재시작하면_DB에_못_넣은_record를_다시_저장() throws Exception {
+        //given 기록만 하고 DB에 넣기 전에 죽은 상황
+        AccountJournal journal = new AccountJournal(folder.getRoot().toPath(), 4096, false);
+        journal.append("behind3", passwordHasher.hash("1234"));
+        journal.append("behind4", passwordHasher.hash("1234"));
+
+        //when
+        AccountWriteBehind restarted = writeBehind("recovery");
+        restarted.start();
+        awaitSaved("behind3");
+        awaitSaved("behind4");
+        restarted.stop();
+
+        //then 한 번 더 시작해도 checkpoint 이후의 record가 없어 다시 넣지 않는다
+        AccountWriteBehind again = writeBehind("recovery");
+        again.start();
+        assertThat(again.getPendingCount(), is(0));
+        again.stop();
+        assertThat(checkpointRepository.findById("recovery").get().getCommittedSequence(), is(2L));
+        assertThat(meterRegistry.get("account.write-behind.replayed").tag("journal", "recovery").counter().count(), is(2.0));
+        journal.close();
+    }
+
+    @Test
+    public void 한_건씩_넣다_실패한_batch는_저장된_건을_건너뛰고_다시_시도() throws Exception {
+        //given: 중복 때문에 한 건씩 넣던 중 세 번째에서 DB 오류가 한 번 난다
+        accountService.signUp(Account.builder().userName("behind6").password("1234").build());
+        AccountJournal journal = new AccountJournal(folder.getRoot().toPath(), 4096, false);
+        journal.append("behind5", passwordHasher.hash("1234"));
+        journal.append("behind6", passwordHasher.hash("1234"));
+        journal.append("behind7", passwordHasher.hash("1234"));
+        journal.close();
+        //proxy의 method는 final이라 stub할 수 없다. write-behind는 자기 transaction 안에서 부르므로 target으로 충분하다
+        AccountService flaky = Mockito.spy(AopTestUtils.<AccountService>getUltimateTargetObject(accountService));
+        AtomicBoolean failed = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            Iterable<Account> accounts = invocation.getArgument(0);
+            Account first = accounts.iterator().next();
+            if (first.getUserName().equals("behind7") && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("connection lost");
+            }
+            return invocation.callRealMethod();
+        }).when(flaky).saveAll(ArgumentMatchers.<Iterable<Account>>any());
+
+        //when
+        AccountWriteBehind writeBehind = writeBehind("partial-retry", flaky);
+        writeBehind.start();
+        try {
+            awaitSaved("behind7");
+        } finally {
+            writeBehind.stop();
+        }
+
+        //then: 이미 저장된 behind5를 중복으로 세지 않는다
+        assertTrue(failed.get());
+        assertTrue(accountRepository.existsByUserName("behind5"));
+        assertThat(meterRegistry.get("account.write-behind.dropped").tag("journal", "partial-retry").counter().count(), is(1.0));
+        assertThat(checkpointRepository.findById("partial-retry").get().getCommittedSequence(), is(3L));
+    }
+
+    private AccountWriteBehind writeBehind(String name) {
+        return writeBehind(name, accountService);
+    }
+
+    private AccountWriteBehind writeBehind(String name, AccountService accountService) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setName(name);
+        properties.setDirectory(folder.getRoot().getPath());
+        properties.setMaxDelay(Duration.ofMillis(10));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        return new AccountWriteBehind(accountService, checkpointRepository, passwordHashingService, properties,
+                transactionManager, meterRegistry);
+    }
+
+    private void awaitSaved(String userName) throws InterruptedException {
+        for (int i = 0; i < 500 && !accountRepository.existsByUserName(userName); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(userName + " was not saved", accountRepository.existsByUserName(userName));
+    }
+}
@@ -0,0 +1,113 @@
+package com.module.api.writebehind;
+
+import com.module.api.service.AccountService;
+import com.module.core.domain.Account;
+import com.module.core.domain.JournalCheckpointRepository;
+import com.module.core.domain.UserNameIndex;
+import com.module.core.security.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 가입 한 건씩 바로 저장하는 경로와 write-behind 경로의 처리량 비교. 평소 test에서는 건너뛴다.
+ *   gradle test --tests '*SignUpThroughputBenchmark' -Dbenchmark=true -Dbenchmark.signups=20000
+ * 동시에 64건까지 요청을 걸어두고, 응답을 받기까지와 DB에 모두 들어가기까지의 시간을 잰다.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SignUpThroughputBenchmark {
+
+    private static final int SIGNUPS = Integer.getInteger("benchmark.signups", 20_000);
+    private static final int IN_FLIGHT = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserNameIndex userNameIndex;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @After
+    public void tearDown() {
+        if (Boolean.getBoolean("benchmark")) {
+            jdbcTemplate.update("delete from account where user_name like 'tput%'");
+            userNameIndex.rebuild();
+        }
+    }
+
+    @Test
+    public void 가입_처리량() throws Exception {
+        run("sync insert", "tputsync", accountService::signUpAsync, () -> 0);
+
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setName("benchmark");
+        properties.setDirectory(folder.getRoot().getPath());
+        AccountWriteBehind writeBehind = new AccountWriteBehind(accountService, checkpointRepository, passwordHashingService,
+                properties, transactionManager, meterRegistry);
+        writeBehind.start();
+        try {
+            run("write-behind", "tputbehind", writeBehind::accept, writeBehind::getPendingCount);
+        } finally {
+            writeBehind.stop();
+        }
+    }
+
+    private void run(String name, String prefix, Function<Account, CompletableFuture<Account>> signUp,
+                     IntSupplier pending) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        long start = System.nanoTime();
+        for (int i = 0; i < SIGNUPS; i++) {
+            inFlight.acquire();
+            signUp.apply(Account.builder().userName(prefix + i).password("1234").build())
+                    .whenComplete((account, e) -> inFlight.release());
+        }
+        inFlight.acquire(IN_FLIGHT);
+        long acknowledged = System.nanoTime() - start;
+        while (pending.getAsInt() > 0) {
+            Thread.sleep(1);
+        }
+        long durable = System.nanoTime() - start;
+        System.out.printf("%-14s acknowledged %,8.0f signups/s, stored %,8.0f signups/s (%,d signups)%n", name,
+                SIGNUPS * 1e9 / acknowledged, SIGNUPS * 1e9 / durable, SIGNUPS);
+    }
+}
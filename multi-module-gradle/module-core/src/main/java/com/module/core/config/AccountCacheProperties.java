@@ -0,0 +1,35 @@
+package com.module.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "module.cache")
+@Getter
+@Setter
+public class AccountCacheProperties {
+
+    //id로 조회하는 Account entity의 2차 cache
+    private Entity entity = new Entity();
+    //userName -> id 조회 결과 cache. 없는 userName도 기억한다
+    private UserName userName = new UserName();
+
+    @Getter
+    @Setter
+    public static class Entity {
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class UserName {
+        private long maximumSize = 100_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,68 @@
+package com.module.core.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.module.core.domain.Account;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Collections;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNT_ID_BY_USER_NAME = "accountIdByUserName";
+
+    //@Cacheable 용. 시작 시 cache를 만들어 두어야 actuator가 cache.gets(hit/miss) metric을 붙인다
+    @Bean
+    public CacheManager cacheManager(AccountCacheProperties properties) {
+        AccountCacheProperties.UserName userName = properties.getUserName();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(userName.getMaximumSize())
+                .expireAfterWrite(userName.getExpireAfterWrite())
+                .recordStats());
+        cacheManager.setCacheNames(Collections.singletonList(ACCOUNT_ID_BY_USER_NAME));
+        return cacheManager;
+    }
+
+    //Hibernate 2차 cache 저장소. context마다 따로 만들어 test에서 context가 여러 개 떠도 region이 겹치지 않게 한다
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager entityCacheManager(AccountCacheProperties properties) {
+        javax.cache.CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("module-core:entity-cache:" + System.identityHashCode(properties)), getClass().getClassLoader());
+
+        AccountCacheProperties.Entity entity = properties.getEntity();
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(entity.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(entity.getExpireAfterWrite().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(Account.class.getName(), configuration);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(AccountCacheProperties properties,
+                                                                   javax.cache.CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            if (!properties.getEntity().isEnabled()) {
+                hibernateProperties.put("hibernate.cache.use_second_level_cache", false);
+                return;
+            }
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", true);
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            //region을 만들지 않은 entity에 @Cache를 붙이면 크기 제한 없는 cache가 생기지 않도록 시작 시 실패시킨다
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.module.core.config;
+
+import com.module.core.jdbc.QueryCountInterceptor;
+import com.module.core.jdbc.QueryMetricsListener;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * datasource 관측용 설정.
+ * - hikaricp.connections.* : 풀 상태(active/idle/pending)는 actuator가 붙이고, 여기서는 acquire/usage 시간에 histogram을 켠다
+ * - jdbc.query, jdbc.query.slow : SQL 실행 시간과 느린 SQL
+ * - hibernate.* : 쿼리 실행, flush, 2차 cache hit/miss 등 Hibernate statistics
+ * - jdbc.queries.per.request : endpoint별 요청당 SQL 수
+ */
+@Configuration
+public class JdbcMetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final JdbcMetricsProperties properties;
+
+    public JdbcMetricsConfig(MeterRegistry meterRegistry, JdbcMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    //Hikari는 DataSourceUnwrapper로 proxy 안쪽에서 찾아지므로 pool metric은 그대로 붙는다
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                        ObjectProvider<JdbcMetricsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                        .listener(new QueryMetricsListener(meterRegistry::getObject, properties.getObject()))
+                        .countQuery()
+                        .build();
+            }
+        };
+    }
+
+    //MeterRegistry를 만들 때 불리므로 MeterRegistry를 받는 이 설정 객체 없이 만들 수 있게 static으로 둔다
+    @Bean
+    public static MeterFilter connectionPoolHistogram() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() == Meter.Type.TIMER && id.getName().startsWith("hikaricp.connections.")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    //actuator의 hibernate.* metric은 statistics가 켜져 있어야 값이 쌓인다
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return hibernateProperties -> hibernateProperties.put("hibernate.generate_statistics", true);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry, properties));
+    }
+}
@@ -0,0 +1,20 @@
+package com.module.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "module.jdbc")
+@Getter
+@Setter
+public class JdbcMetricsProperties {
+
+    //이보다 오래 걸린 SQL은 warn log로 남긴다
+    private Duration slowQueryThreshold = Duration.ofMillis(300);
+    //요청 하나가 이보다 많은 SQL을 실행하면 warn log로 남긴다. N+1을 찾는 용도
+    private int requestQueryThreshold = 50;
+}
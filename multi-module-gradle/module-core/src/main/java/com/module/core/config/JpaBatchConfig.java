@@ -0,0 +1,20 @@
+package com.module.core.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaBatchConfig {
+
+    //같은 entity의 insert/update를 모아 JDBC batch로 보낸다
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(JpaBatchProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.jdbc.batch_size", properties.getBatchSize());
+            hibernateProperties.put("hibernate.order_inserts", true);
+            hibernateProperties.put("hibernate.order_updates", true);
+            hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+        };
+    }
+}
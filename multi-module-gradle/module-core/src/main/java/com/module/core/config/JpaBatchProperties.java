@@ -0,0 +1,16 @@
+package com.module.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "module.jpa")
+@Getter
+@Setter
+public class JpaBatchProperties {
+
+    //insert를 몇 건씩 묶어 보낼지. 대량 저장 시 이 단위로 flush/clear 한다
+    private int batchSize = 50;
+}
@@ -0,0 +1,44 @@
+package com.module.core.config;
+
+import com.module.core.domain.ReactiveAccountRepository;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * module.r2dbc.enabled=true면 spring.datasource와 같은 H2 DB에 R2DBC로도 붙는다.
+ * schema와 account_seq는 JPA(Hibernate)가 만든 것을 그대로 쓴다.
+ * WebFlux 모드(spring.main.web-application-type=reactive)의 가입/조회가 ReactiveAccountRepository로 이 연결을 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "module.r2dbc.enabled", havingValue = "true")
+public class R2dbcConfig {
+
+    private static final String H2_URL_PREFIX = "jdbc:h2:";
+
+    //ConnectionFactory bean이 있으면 Boot의 DataSourceAutoConfiguration이 물러나 JPA가 쓸 DataSource가 없어진다.
+    //그래서 bean으로 두지 않고 repository 안에서만 쓴다. 같은 이유로 app은 R2dbcAutoConfiguration을 제외한다
+    @Bean
+    public ReactiveAccountRepository reactiveAccountRepository(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties) {
+        return new ReactiveAccountRepository(connectionFactory(dataSourceProperties, shardingProperties));
+    }
+
+    private static ConnectionFactory connectionFactory(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties) {
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("module.r2dbc.enabled cannot be combined with module.sharding.enabled");
+        }
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(H2_URL_PREFIX)) {
+            throw new IllegalStateException("module.r2dbc.enabled requires an H2 spring.datasource.url, got " + url);
+        }
+        return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_URL_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build());
+    }
+}
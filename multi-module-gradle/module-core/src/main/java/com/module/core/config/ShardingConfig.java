@@ -0,0 +1,97 @@
+package com.module.core.config;
+
+import com.module.core.domain.AccountRepository;
+import com.module.core.shard.ShardRouter;
+import com.module.core.shard.ShardRoutingDataSource;
+import com.module.core.shard.ShardRoutingInterceptor;
+import com.module.core.shard.ShardSchemaIntegrator;
+import com.module.core.shard.ShardedSequenceGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * module.sharding.enabled=true면 spring.datasource 대신 shard DB들로 routing하는 DataSource를 쓴다.
+ * - hikaricp.connections.* : shard마다 pool="account-shard-{n}"
+ * - AccountRepository 호출은 ShardRoutingInterceptor가 @ShardKey로 shard를 골라 보낸다
+ */
+@Configuration
+@ConditionalOnProperty(name = "module.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getUrls().isEmpty()) {
+            throw new IllegalStateException("module.sharding.urls must list at least one database");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("account-shard-" + i);
+            shard.setJdbcUrl(properties.getUrls().get(i));
+            shard.setUsername(properties.getUsername());
+            shard.setPassword(properties.getPassword());
+            shard.setMaximumPoolSize(properties.getMaximumPoolSize());
+            //pool은 처음 connection을 빌릴 때 시작한다. MeterRegistry도 그때 꺼내야 registry의 DataSource metric과 순환하지 않는다
+            shard.setMetricsTrackerFactory((poolName, poolStats) ->
+                    new MicrometerMetricsTrackerFactory(meterRegistry.getObject()).create(poolName, poolStats));
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    //connection을 transaction이 끝날 때마다 돌려줘야 다음 transaction이 다른 shard의 connection을 받는다
+    //(기본값은 open-in-view로 열린 EntityManager가 요청 내내 처음 connection을 붙잡는다)
+    @Bean
+    public static BeanPostProcessor releaseConnectionAfterTransactionPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                //connection에 read-only 등을 설정했다가 commit 후 되돌리는 기능. 되돌릴 때는 이미 connection을 반납한 뒤라 끈다
+                if (bean instanceof HibernateJpaVendorAdapter) {
+                    ((HibernateJpaVendorAdapter) bean).setPrepareConnection(false);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingCustomizer(ShardingProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ShardedSequenceGenerator.SHARD_COUNT, properties.getShardCount());
+            hibernateProperties.put("hibernate.connection.handling_mode",
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            hibernateProperties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> Collections.singletonList(new ShardSchemaIntegrator(properties.getShardCount())));
+        };
+    }
+
+    //repository proxy의 transaction, cache advice보다 앞에서 shard를 정해야 하므로 맨 앞에 넣는다
+    @Bean
+    public static BeanPostProcessor shardRoutingRepositoryPostProcessor(ObjectProvider<ShardRouter> shardRouter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AccountRepository && bean instanceof Advised) {
+                    ((Advised) bean).addAdvice(0, new ShardRoutingInterceptor(shardRouter.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.module.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "module.sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    //켜면 Account를 userName hash로 urls의 DB들에 나눠 저장한다. 끄면 spring.datasource 하나만 쓴다
+    private boolean enabled = false;
+    //목록 순서가 shard 번호다. 계정이 저장된 뒤에는 순서와 개수를 바꾸면 안 된다
+    private List<String> urls = new ArrayList<>();
+    private String username = "sa";
+    private String password = "";
+    //shard마다의 connection pool 크기
+    private int maximumPoolSize = 10;
+
+    public int getShardCount() {
+        return enabled ? urls.size() : 1;
+    }
+}
@@ -0,0 +1,19 @@
+package com.module.core.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "module.user-name-index")
+@Getter
+@Setter
+public class UserNameIndexProperties {
+
+    //userName 중복 확인 앞에 Bloom filter를 둘지. 끄면 매번 DB에 묻는다
+    private boolean enabled = true;
+    //시작 시 계정 수가 이보다 많으면 계정 수의 2배로 잡는다
+    private long expectedNames = 1_000_000;
+    private double falsePositiveRate = 0.01;
+}
@@ -1,22 +1,43 @@
 package com.module.core.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = @Index(name = Account.USER_NAME_INDEX, columnList = "userName", unique = true))
 public class Account {
 
+    public static final String USER_NAME_INDEX = "ux_account_user_name";
+    //user_name 컬럼 길이(@Column 기본값)
+    public static final int MAX_USER_NAME_LENGTH = 255;
+
+    //AUTO(H2에서는 SEQUENCE)도 batch insert는 되지만 row마다 sequence를 조회한다. batch가 꺼지는 것은 IDENTITY뿐이다
+    //pooled optimizer로 id를 미리 50개씩 받아 sequence 조회를 50 row에 한 번으로 줄인다
+    //shard가 여럿이면 id에 shard 번호가 들어간다(ShardedSequenceGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", strategy = "com.module.core.shard.ShardedSequenceGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "account_seq"),
+            @Parameter(name = "increment_size", value = "50")
+    })
     private Long id;
 
     @Column
     private String userName;
 
+    //가입 요청에서는 읽지만 응답과 export에는 hash를 내보내지 않는다
     @Column
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Builder
@@ -24,5 +45,16 @@ public class Account {
         this.userName = userName;
         this.password = password;
     }
+
+    //JPA를 거치지 않고 저장하거나 읽은 row(ReactiveAccountRepository)
+    Account(Long id, String userName, String password) {
+        this.id = id;
+        this.userName = userName;
+        this.password = password;
+    }
+
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+    }
     
 }
@@ -1,9 +1,62 @@
 package com.module.core.domain;
 
-import org.springframework.boot.autoconfigure.domain.EntityScan;
+import com.module.core.config.CacheConfig;
+import com.module.core.shard.ShardKey;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+//shard가 여럿이면 @ShardKey가 있는 method는 그 shard로 가고, 나머지는 ShardRouter로 shard를 정한 뒤 불러야 한다
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountViewRepository {
+
+    <S extends Account> S save(@ShardKey S account);
+
+    Optional<Account> findById(@ShardKey Long id);
+
+    //id만 cache하고 entity는 2차 cache에서 꺼낸다. 없는 userName도 cache되므로 저장 시 evict 해야 한다
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_ID_BY_USER_NAME)
+    @Query("select a.id from Account a where a.userName = :userName")
+    Optional<Long> findIdByUserName(@ShardKey @Param("userName") String userName);
+
+    //entity를 만들지 않고 userName index만 확인한다
+    boolean existsByUserName(@ShardKey String userName);
+
+    //transaction 안에서 호출하고 다 읽으면 닫아야 한다
+    @Query("select a.userName from Account a")
+    Stream<String> streamAllUserNames();
+
+    //keyset paging: offset 없이 마지막으로 본 id 다음부터 읽으므로 뒤 페이지도 앞 페이지만큼 빠르다
+    List<Account> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    //전체 export 용. DB에서 fetch size만큼씩 읽고, 변경 추적과 2차 cache 적재 없이 흘려보낸다
+    //transaction 안에서 호출하고, 다 쓴 entity는 detach 해야 persistence context가 커지지 않는다
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select a from Account a order by a.id")
+    Stream<Account> streamAllOrderById();
+
+    //shard가 여럿일 때의 export 용. shard마다 keyset page로 읽어 id 순서로 합친다. 2차 cache에는 넣지 않는다
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select a from Account a where a.id > :afterId order by a.id")
+    List<Account> findExportPage(@Param("afterId") Long afterId, Pageable pageable);
 }
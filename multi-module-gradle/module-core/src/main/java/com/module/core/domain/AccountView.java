@@ -0,0 +1,13 @@
+package com.module.core.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//조회 전용 Account. entity가 아니어서 persistence context와 proxy 없이 result set에서 바로 만든다
+@Getter
+@AllArgsConstructor
+public class AccountView {
+
+    private final Long id;
+    private final String userName;
+}
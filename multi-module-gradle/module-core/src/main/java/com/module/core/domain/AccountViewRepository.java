@@ -0,0 +1,17 @@
+package com.module.core.domain;
+
+import com.module.core.shard.AllShards;
+import com.module.core.shard.ShardKey;
+
+import java.util.List;
+import java.util.Optional;
+
+//AccountRepository에 합쳐지는 조회 전용 fragment. 구현은 AccountViewRepositoryImpl
+public interface AccountViewRepository {
+
+    Optional<AccountView> findViewById(@ShardKey long id);
+
+    //keyset paging. afterId보다 큰 id를 size개. 모든 shard에서 size개씩 읽어 id 순서로 합친다
+    @AllShards
+    List<AccountView> findViewsAfter(long afterId, int size);
+}
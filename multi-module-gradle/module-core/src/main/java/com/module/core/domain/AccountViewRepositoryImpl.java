@@ -0,0 +1,45 @@
+package com.module.core.domain;
+
+import com.module.core.shard.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+//JPA를 거치지 않고 필요한 column만 JDBC로 읽는다. dirty checking용 snapshot도, 2차 cache 적재도 없다
+public class AccountViewRepositoryImpl implements AccountViewRepository {
+
+    private static final RowMapper<AccountView> ROW_MAPPER = (rs, rowNum) -> new AccountView(rs.getLong(1), rs.getString(2));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public AccountViewRepositoryImpl(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Optional<AccountView> findViewById(long id) {
+        return jdbcTemplate.query("select id, user_name from account where id = ?", ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<AccountView> findViewsAfter(long afterId, int size) {
+        List<List<AccountView>> pages = shardRouter.scatter(shard ->
+                jdbcTemplate.query("select id, user_name from account where id > ? order by id limit ?", ROW_MAPPER, afterId, size));
+        if (pages.size() == 1) {
+            return pages.get(0);
+        }
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingLong(AccountView::getId))
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+}
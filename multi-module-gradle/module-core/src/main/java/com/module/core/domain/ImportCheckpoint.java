@@ -0,0 +1,42 @@
+package com.module.core.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//대량 import의 마지막 commit 위치. chunk 저장과 같은 transaction에서 갱신되므로 재시작 시 여기서부터 이어간다
+//shard가 여럿이면 shard마다 하나씩 두고, 그 shard에 저장한 계정과 같은 transaction에서 갱신한다
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+public class ImportCheckpoint {
+
+    @Id
+    private String importId;
+
+    //commit된 chunk 수와, 마지막 chunk까지 소비한 입력 record 수(파일 처음부터, 거부된 record 포함)
+    @Column
+    private long committedChunks;
+
+    @Column
+    private long committedRecords;
+
+    @Column
+    private long writtenAccounts;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    public ImportCheckpoint(String importId) {
+        this.importId = importId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void commit(long upToRecord, long accounts) {
+        this.committedChunks++;
+        this.committedRecords = upToRecord;
+        this.writtenAccounts += accounts;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.module.core.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//journal에서 DB로 옮겨진 마지막 sequence. 계정 저장과 같은 transaction에서 갱신되므로 재시작 시 그 뒤부터 다시 넣는다
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+public class JournalCheckpoint {
+
+    @Id
+    private String journalName;
+
+    @Column
+    private long committedSequence;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    public JournalCheckpoint(String journalName) {
+        this.journalName = journalName;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void commit(long sequence) {
+        this.committedSequence = sequence;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,102 @@
+package com.module.core.domain;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * AccountRepository의 R2DBC 버전. JPA와 같은 account table, 같은 account_seq를 쓴다.
+ * persistence context와 2차 cache를 거치지 않는다. 여기서 저장한 계정은 새 id라 JPA 쪽 cache가 stale 해질 일은 없다.
+ * r2dbc-h2는 embedded H2를 구독한 스레드에서 바로 실행하므로, 호출하는 쪽은 오래 걸리는 query를 event loop에서 구독하지 않아야 한다.
+ * shard는 지원하지 않는다(R2dbcConfig가 시작 시 막는다).
+ */
+public class ReactiveAccountRepository {
+
+    //Account의 @GenericGenerator increment_size와 같아야 한다
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final BiFunction<Row, RowMetadata, Account> ROW_MAPPER = (row, metadata) ->
+            new Account(row.get("id", Long.class), row.get("user_name", String.class), row.get("password", String.class));
+
+    private final ConnectionFactory connectionFactory;
+    private final IdBlock idBlock = new IdBlock();
+
+    public ReactiveAccountRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    //id가 채워진 새 Account를 돌려준다. userName이 이미 있으면 R2dbcDataIntegrityViolationException으로 끝난다
+    public Mono<Account> save(Account account) {
+        return withConnection(connection -> nextId(connection)
+                .flatMap(id -> Mono.from(connection.createStatement("insert into account (id, user_name, password) values ($1, $2, $3)")
+                                .bind("$1", id)
+                                .bind("$2", account.getUserName())
+                                .bind("$3", account.getPassword())
+                                .execute())
+                        .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                        .thenReturn(new Account(id, account.getUserName(), account.getPassword()))));
+    }
+
+    public Mono<Account> findById(long id) {
+        return withConnection(connection -> Mono.from(connection.createStatement("select id, user_name, password from account where id = $1")
+                        .bind("$1", id)
+                        .execute())
+                .flatMap(result -> Mono.from(result.map(ROW_MAPPER))));
+    }
+
+    public Mono<Account> findByUserName(String userName) {
+        return withConnection(connection -> Mono.from(connection.createStatement("select id, user_name, password from account where user_name = $1")
+                        .bind("$1", userName)
+                        .execute())
+                .flatMap(result -> Mono.from(result.map(ROW_MAPPER))));
+    }
+
+    //entity를 만들지 않고 userName index만 확인한다
+    public Mono<Boolean> existsByUserName(String userName) {
+        return withConnection(connection -> Mono.from(connection.createStatement("select 1 from account where user_name = $1")
+                        .bind("$1", userName)
+                        .execute())
+                .flatMap(result -> Mono.from(result.map((row, metadata) -> Boolean.TRUE)))
+                .hasElement());
+    }
+
+    //구독마다 connection을 열고, 끝나거나 실패하거나 취소되면 닫는다
+    private <T> Mono<T> withConnection(Function<Connection, Mono<T>> work) {
+        return Flux.usingWhen(connectionFactory.create(), work, Connection::close)
+                .singleOrEmpty();
+    }
+
+    //Hibernate pooled optimizer와 같은 규칙으로 id를 나눠 쓴다. sequence 값 hi는 (hi - 50, hi] 구간을 예약한 것이다
+    private Mono<Long> nextId(Connection connection) {
+        Long id = idBlock.next();
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return Mono.from(connection.createStatement("select next value for account_seq").execute())
+                .flatMap(result -> Mono.from(result.map((row, metadata) -> row.get(0, Long.class))))
+                .map(idBlock::refill);
+    }
+
+    private static class IdBlock {
+        private long next = 1;
+        private long hi = 0;
+
+        //다 썼으면 null
+        synchronized Long next() {
+            return next <= hi ? next++ : null;
+        }
+
+        //동시에 여러 요청이 다시 채우면 나중 구간으로 바뀐다. 앞 구간의 남은 id는 건너뛸 뿐 두 번 쓰이지 않는다
+        synchronized long refill(long sequenceValue) {
+            hi = sequenceValue;
+            next = Math.max(sequenceValue - ID_BLOCK_SIZE, 0) + 1;
+            return next++;
+        }
+    }
+}
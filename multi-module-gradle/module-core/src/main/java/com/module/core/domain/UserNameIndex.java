@@ -0,0 +1,121 @@
+package com.module.core.domain;
+
+import com.module.core.config.UserNameIndexProperties;
+import com.module.core.shard.ShardRouter;
+import com.module.core.support.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * 사용 중인 userName의 Bloom filter. 가입 시 대부분은 처음 보는 이름이므로 filter에서 바로 '없음'으로 끝나고,
+ * filter가 '있을 수도 있음'이라고 할 때만 DB에 묻는다.
+ * filter에 들어간 이름은 rollback 되어도 빠지지 않는데, 이건 false positive가 하나 늘 뿐이다.
+ * 실제 중복은 userName unique index가 막는다.
+ */
+@Slf4j
+@Component
+public class UserNameIndex implements SmartInitializingSingleton {
+
+    private final AccountRepository accountRepository;
+    private final UserNameIndexProperties properties;
+    private final ShardRouter shardRouter;
+    private final Counter filtered;
+    private final Counter found;
+    private final Counter falsePositive;
+    private volatile BloomFilter filter;
+    //rebuild 중 추가된 이름은 새 filter에도 넣는다
+    private volatile BloomFilter rebuilding;
+
+    public UserNameIndex(AccountRepository accountRepository, UserNameIndexProperties properties,
+                         ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.filtered = lookups(meterRegistry, "filtered");
+        this.found = lookups(meterRegistry, "found");
+        this.falsePositive = lookups(meterRegistry, "false_positive");
+        Gauge.builder("account.user-name.filter.false-positive-rate", this,
+                        index -> index.filter == null ? 0 : index.filter.expectedFalsePositiveRate())
+                .description("bit 사용률로 계산한 현재 Bloom filter false positive 비율")
+                .register(meterRegistry);
+    }
+
+    //처음 filter는 bean을 모두 만든 뒤에 만든다. 초기화 중에 scatter하면 shard 스레드가 bean을 찾다가 singleton lock에 막힌다
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    //저장된 모든 userName으로 filter를 새로 만든다. entity를 읽지 않고 이름 column만 흘려 읽는다. shard들은 동시에 읽는다
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            filter = null;
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long count = shardRouter.scatter(shard -> accountRepository.count()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        BloomFilter next = new BloomFilter(Math.max(properties.getExpectedNames(), count * 2), properties.getFalsePositiveRate());
+        rebuilding = next;
+        shardRouter.scatter(shard -> shardRouter.inTransaction(shard, true, () -> {
+            try (Stream<String> userNames = accountRepository.streamAllUserNames()) {
+                userNames.forEach(next::put);
+            }
+            return null;
+        }));
+        filter = next;
+        rebuilding = null;
+        log.info("user name filter built from {} accounts in {}ms ({} bits, {} hash functions)",
+                count, System.currentTimeMillis() - start, next.getBitSize(), next.getHashFunctions());
+    }
+
+    public boolean exists(String userName) {
+        if (!mightExist(userName)) {
+            return false;
+        }
+        return confirm(accountRepository.existsByUserName(userName));
+    }
+
+    //DB에 묻지 않고 filter만 본다. false면 확실히 없는 이름이고, filter가 꺼져 있으면 항상 true다
+    public boolean mightExist(String userName) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(userName)) {
+            return true;
+        }
+        filtered.increment();
+        return false;
+    }
+
+    //mightExist가 true였던 이름을 DB에서 확인한 결과. reactive 쪽처럼 DB 조회를 직접 하는 경우에 부른다
+    public boolean confirm(boolean exists) {
+        if (filter != null) {
+            (exists ? found : falsePositive).increment();
+        }
+        return exists;
+    }
+
+    //저장하는 쪽에서 insert 직후 부른다
+    public void add(String userName) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(userName);
+        }
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(userName);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.user-name.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.module.core.jdbc;
+
+import com.module.core.config.JdbcMetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청 하나가 실행한 SQL 수를 endpoint(uri pattern)별 jdbc.queries.per.request에 기록한다.
+ * 수는 요청 스레드 기준이므로, 비동기 handler가 다른 스레드에서 실행한 SQL은 세지 않는다.
+ */
+@Slf4j
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final JdbcMetricsProperties properties;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry, JdbcMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountHolder.clear();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        QueryCountHolder.clear();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("jdbc.queries.per.request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count.getTotal());
+
+        if (count.getTotal() > properties.getRequestQueryThreshold()) {
+            log.warn("{} {} executed {} queries (select {}, insert {}, update {}, delete {}). possible N+1",
+                    request.getMethod(), uri, count.getTotal(), count.getSelect(), count.getInsert(),
+                    count.getUpdate(), count.getDelete());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.module.core.jdbc;
+
+import com.module.core.config.JdbcMetricsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 실행된 SQL마다 시간을 jdbc.query(type=select/insert/...) timer에 기록하고, 느린 SQL은 log로 남긴다.
+ * log에는 binding 값 없이 SQL만 남긴다. password hash 같은 값이 log에 남지 않게 하기 위함이다.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    //DataSource가 MeterRegistry보다 먼저 만들어지므로 SQL이 실행될 때 꺼낸다
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final JdbcMetricsProperties properties;
+
+    public QueryMetricsListener(Supplier<MeterRegistry> meterRegistry, JdbcMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        String type = QueryUtils.getQueryType(sql).name().toLowerCase();
+        Timer.builder("jdbc.query")
+                .tag("type", type)
+                .tag("batch", String.valueOf(execInfo.isBatch()))
+                .tag("success", String.valueOf(execInfo.isSuccess()))
+                .publishPercentileHistogram()
+                .register(meterRegistry.get())
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        if (execInfo.getElapsedTime() >= properties.getSlowQueryThreshold().toMillis()) {
+            Counter.builder("jdbc.query.slow")
+                    .tag("type", type)
+                    .register(meterRegistry.get())
+                    .increment();
+            log.warn("slow query {}ms{}: {}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "", sql);
+        }
+    }
+}
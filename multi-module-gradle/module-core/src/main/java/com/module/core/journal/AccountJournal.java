@@ -0,0 +1,259 @@
+package com.module.core.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 가입 요청을 DB에 쓰기 전에 먼저 남겨두는 append-only journal.
+ * 고정 크기 segment 파일을 memory-map 해서 쓰므로 append는 메모리 복사 한 번이고, 쓰는 즉시 page cache에 있어
+ * 프로세스가 죽어도 남는다. OS 장애까지 견디려면 fsync를 켜서 append마다 force 한다.
+ *
+ * record = length(int) | crc32(int) | sequence(long) | payload(userName, password)
+ * length를 맨 마지막에 쓰기 때문에 쓰다 만 record는 length가 0으로 남아 journal의 끝으로 읽힌다.
+ * crc가 맞지 않는 record가 마지막 segment에 있으면 그 앞까지만 살린다.
+ * DB에 반영된 sequence 이하로만 이루어진 segment는 deleteUpTo로 지운다.
+ */
+@Slf4j
+public class AccountJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_FIELD_BYTES = 0xffff;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<JournalEntry> recovered = new ArrayList<>();
+    private long lastSequence;
+
+    public AccountJournal(Path directory, int segmentSize, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        recover();
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(directory, lastSequence + 1, segmentSize));
+        }
+    }
+
+    public synchronized long append(String userName, String encodedPassword) {
+        long sequence = lastSequence + 1;
+        byte[] record = encode(sequence, userName, encodedPassword);
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("journal record is larger than segment size " + segmentSize);
+        }
+        Segment active = segments.get(segments.size() - 1);
+        if (active.buffer.remaining() < record.length) {
+            active = Segment.create(directory, sequence, segmentSize);
+            segments.add(active);
+        }
+        //length(첫 4 byte)는 나머지를 다 쓴 뒤에 채운다
+        int position = active.buffer.position();
+        active.buffer.position(position + 4);
+        active.buffer.put(record, 4, record.length - 4);
+        active.buffer.putInt(position, record.length - HEADER_SIZE);
+        if (fsync) {
+            active.buffer.force();
+        }
+        active.lastSequence = sequence;
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    //재시작 시 journal에 남아 있던 record 중 afterSequence 이후의 것
+    public synchronized List<JournalEntry> recoveredAfter(long afterSequence) {
+        return recovered.stream()
+                .filter(entry -> entry.getSequence() > afterSequence)
+                .collect(Collectors.toList());
+    }
+
+    //committedSequence까지 DB에 반영되었으면, 그 이하로만 이루어진 지난 segment 파일을 지운다
+    public synchronized void deleteUpTo(long committedSequence) throws IOException {
+        while (segments.size() > 1 && segments.get(0).lastSequence <= committedSequence) {
+            Segment segment = segments.remove(0);
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+        recovered.removeIf(entry -> entry.getSequence() <= committedSequence);
+    }
+
+    //journal 파일이 지워졌거나 새로 만들어졌을 때, 이미 DB에 반영된 sequence 뒤부터 번호를 이어가게 한다
+    public synchronized void advanceTo(long sequence) {
+        if (sequence <= lastSequence) {
+            return;
+        }
+        segments.add(Segment.create(directory, sequence + 1, segmentSize));
+        lastSequence = sequence;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            Segment segment = Segment.open(paths.get(i));
+            boolean complete = scan(segment);
+            segments.add(segment);
+            if (!complete && i < paths.size() - 1) {
+                throw new IllegalStateException("journal segment " + segment.path + " is corrupt before the last segment");
+            }
+        }
+        if (!recovered.isEmpty()) {
+            log.info("account journal recovered {} records up to sequence {} from {} segments",
+                    recovered.size(), lastSequence, segments.size());
+        }
+    }
+
+    //segment를 처음부터 읽어 유효한 record를 모은다. 끝까지 정상이면 true, 깨진 record에서 멈췄으면 false
+    private boolean scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || length > buffer.remaining() - HEADER_SIZE) {
+                return truncate(segment, start);
+            }
+            int crc = buffer.getInt(start + 4);
+            long sequence = buffer.getLong(start + 8);
+            byte[] payload = new byte[length];
+            buffer.position(start + HEADER_SIZE);
+            buffer.get(payload);
+            if (crc != crc(sequence, payload) || sequence != segment.lastSequence + 1) {
+                return truncate(segment, start);
+            }
+            recovered.add(decode(sequence, payload));
+            segment.lastSequence = sequence;
+        }
+        lastSequence = Math.max(lastSequence, segment.lastSequence);
+        return true;
+    }
+
+    //깨진 record부터 끝까지 0으로 지워 다음 append가 그 자리에 이어 쓰게 한다
+    private boolean truncate(Segment segment, int position) {
+        log.warn("account journal {} has a torn record at offset {}. records after sequence {} are discarded",
+                segment.path.getFileName(), position, segment.lastSequence);
+        ByteBuffer buffer = segment.buffer;
+        buffer.position(position);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(position);
+        lastSequence = Math.max(lastSequence, segment.lastSequence);
+        return false;
+    }
+
+    private static byte[] encode(long sequence, String userName, String encodedPassword) {
+        byte[] name = userName.getBytes(StandardCharsets.UTF_8);
+        byte[] password = encodedPassword.getBytes(StandardCharsets.UTF_8);
+        //길이는 2 byte에 unsigned로 넣는다. 넘치면 잘린 길이로 기록되어 복구 때 record가 어긋난다
+        if (name.length > MAX_FIELD_BYTES || password.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("journal field is longer than " + MAX_FIELD_BYTES + " bytes");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(4 + name.length + password.length);
+        payload.putShort((short) name.length).put(name);
+        payload.putShort((short) password.length).put(password);
+        byte[] payloadBytes = payload.array();
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payloadBytes.length);
+        record.putInt(payloadBytes.length);
+        record.putInt(crc(sequence, payloadBytes));
+        record.putLong(sequence);
+        record.put(payloadBytes);
+        return record.array();
+    }
+
+    private static JournalEntry decode(long sequence, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte[] name = new byte[buffer.getShort() & 0xffff];
+        buffer.get(name);
+        byte[] password = new byte[buffer.getShort() & 0xffff];
+        buffer.get(password);
+        return new JournalEntry(sequence, new String(name, StandardCharsets.UTF_8), new String(password, StandardCharsets.UTF_8));
+    }
+
+    private static int crc(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(sequence).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        private long lastSequence;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer, long firstSequence) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.firstSequence = firstSequence;
+            this.lastSequence = firstSequence - 1;
+        }
+
+        //파일 이름이 첫 sequence라 이름순 정렬이 곧 기록 순서다
+        static Segment create(Path directory, long firstSequence, int size) {
+            return open(directory.resolve(String.format("%020d%s", firstSequence, SUFFIX)), size);
+        }
+
+        static Segment open(Path path) throws IOException {
+            return open(path, (int) Files.size(path));
+        }
+
+        private static Segment open(Path path, int size) {
+            try {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                String name = path.getFileName().toString();
+                return new Segment(path, channel, buffer, Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.module.core.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//journal에 기록된 가입 한 건. password는 이미 hash된 값이다
+@Getter
+@AllArgsConstructor
+public class JournalEntry {
+
+    private final long sequence;
+    private final String userName;
+    private final String encodedPassword;
+}
@@ -0,0 +1,74 @@
+package com.module.core.security;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2(HMAC-SHA256) password hash.
+ * 결과는 "pbkdf2-sha256$반복횟수$salt$hash" 형식이라 반복 횟수를 바꿔도 이전 hash를 그대로 검증할 수 있다.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int KEY_LENGTH = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final PasswordProperties properties;
+    private volatile int iterations;
+
+    public PasswordHasher(PasswordProperties properties) {
+        this.properties = properties;
+        this.iterations = properties.getIterations();
+    }
+
+    public String hash(String rawPassword) {
+        return hash(rawPassword, iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    //새로 만드는 hash에만 적용된다. 이미 저장된 hash는 자기 반복 횟수로 검증한다
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public String hash(String rawPassword, int iterations) {
+        byte[] salt = new byte[properties.getSaltLength()];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = pbkdf2(rawPassword, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.module.core.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * password hash는 CPU만 쓰는 무거운 작업이라 요청 스레드가 아닌 core 수만큼의 전용 worker에서 실행한다.
+ * 대기열은 threads + queueCapacity 개로 제한하고, 넘치면 hashAsync는 바로 거절(RejectedExecutionException),
+ * hashAll은 자리가 날 때까지 호출 스레드를 기다리게 한다(대량 처리용 backpressure).
+ * - password.hash.queue.depth / password.hash.active : 대기 중, 실행 중인 hash 수
+ * - password.hash.duration : hash 한 번에 걸린 시간, password.hash.wait : 대기열에서 기다린 시간
+ * - password.hash.rejected : 대기열이 가득 차 거절된 요청 수
+ */
+@Slf4j
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private final PasswordHasher passwordHasher;
+    private final PasswordProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordHasher passwordHasher, PasswordProperties properties, MeterRegistry meterRegistry) {
+        this.passwordHasher = passwordHasher;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.capacity = new Semaphore(properties.getThreads() + properties.getQueueCapacity());
+        this.hashTimer = Timer.builder("password.hash.duration").publishPercentileHistogram().register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hash.wait").publishPercentileHistogram().register(meterRegistry);
+        this.rejected = meterRegistry.counter("password.hash.rejected");
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("password.hash.iterations", passwordHasher, PasswordHasher::getIterations).register(meterRegistry);
+    }
+
+    //시작 시 실제 hash 시간을 재서 targetMillis에 맞는 반복 횟수로 바꾼다
+    @PostConstruct
+    public void calibrate() {
+        PasswordProperties.Calibration calibration = properties.getCalibration();
+        if (!calibration.isEnabled()) {
+            return;
+        }
+        int probeIterations = Math.max(calibration.getMinIterations(), 1);
+        long nanos = measure(probeIterations);
+        long target = TimeUnit.MILLISECONDS.toNanos(calibration.getTargetMillis());
+        long scaled = probeIterations * target / Math.max(nanos, 1);
+        int iterations = (int) Math.max(calibration.getMinIterations(), Math.min(calibration.getMaxIterations(), scaled));
+        passwordHasher.setIterations(iterations);
+        log.info("password hash calibrated: {} iterations for ~{}ms (probe {} iterations took {}us)",
+                iterations, calibration.getTargetMillis(), probeIterations, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    //대기열이 가득 차 있으면 RejectedExecutionException으로 완료된다
+    public CompletableFuture<String> hashAsync(String rawPassword) {
+        if (!capacity.tryAcquire()) {
+            rejected.increment();
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new RejectedExecutionException("password hash queue is full"));
+            return future;
+        }
+        return submit(() -> passwordHasher.hash(rawPassword));
+    }
+
+    //여러 건을 worker 수만큼 나눠 hash한다. 대기열에 자리가 날 때까지 호출 스레드가 기다린다
+    public CompletableFuture<List<String>> hashAll(List<String> rawPasswords) {
+        int slices = Math.max(1, Math.min(properties.getThreads(), rawPasswords.size()));
+        int sliceSize = (rawPasswords.size() + slices - 1) / slices;
+        List<CompletableFuture<List<String>>> parts = new ArrayList<>(slices);
+        for (int from = 0; from < rawPasswords.size(); from += sliceSize) {
+            List<String> slice = rawPasswords.subList(from, Math.min(from + sliceSize, rawPasswords.size()));
+            capacity.acquireUninterruptibly();
+            parts.add(submit(() -> slice.stream().map(passwordHasher::hash).collect(Collectors.toList())));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> parts.stream()
+                        .flatMap(part -> part.join().stream())
+                        .collect(Collectors.toList()));
+    }
+
+    //capacity permit을 이미 얻은 상태에서 호출한다
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return hashTimer.record(work);
+                } finally {
+                    capacity.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    private long measure(int iterations) {
+        //JIT warm-up 후 중앙값
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            passwordHasher.hash("calibration", iterations);
+        }
+        long[] samples = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            passwordHasher.hash("calibration", iterations);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[CALIBRATION_ROUNDS / 2];
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.module.core.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "module.password")
+@Getter
+@Setter
+public class PasswordProperties {
+
+    //PBKDF2 반복 횟수. 클수록 hash 한 번이 비싸진다. calibration이 켜져 있으면 시작 시 다시 계산한다
+    private int iterations = 100_000;
+    private int saltLength = 16;
+    //hash 전용 worker 수와, 처리를 기다릴 수 있는 요청 수. 넘치면 바로 거절한다
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 256;
+    private Calibration calibration = new Calibration();
+
+    //서버 성능에 맞춰 hash 한 번이 targetMillis 정도 걸리도록 반복 횟수를 맞춘다
+    @Getter
+    @Setter
+    public static class Calibration {
+        private boolean enabled = true;
+        private long targetMillis = 50;
+        private int minIterations = 10_000;
+        private int maxIterations = 1_000_000;
+    }
+}
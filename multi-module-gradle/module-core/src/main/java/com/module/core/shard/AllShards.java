@@ -0,0 +1,12 @@
+package com.module.core.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//구현이 ShardRouter.scatter로 모든 shard를 직접 읽는 AccountRepository method. routing 없이 그대로 호출된다
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllShards {
+}
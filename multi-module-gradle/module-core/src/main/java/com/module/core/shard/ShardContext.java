@@ -0,0 +1,35 @@
+package com.module.core.shard;
+
+//현재 스레드가 쓰는 shard. ShardRoutingDataSource는 connection을 얻을 때, ShardedSequenceGenerator는 id를 만들 때 본다
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    //정해지지 않았으면 null. 이때 connection은 default shard(0)에서 나온다
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static int currentOrDefault() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    //이전 값을 돌려주므로 끝나면 restore로 되돌린다
+    static Integer bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
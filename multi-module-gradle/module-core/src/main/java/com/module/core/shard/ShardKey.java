@@ -0,0 +1,15 @@
+package com.module.core.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * AccountRepository method에서 shard를 고르는 parameter.
+ * String은 userName, Long은 Account id, Account는 그 userName으로 shard를 찾는다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
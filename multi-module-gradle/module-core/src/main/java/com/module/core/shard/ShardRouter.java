@@ -0,0 +1,130 @@
+package com.module.core.shard;
+
+import com.module.core.config.ShardingProperties;
+import com.module.core.support.StringHashing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Account를 어느 shard DB에 둘지 정하고, 코드를 그 shard에서 실행한다.
+ * - shard = hash(userName) % shard 수. 같은 userName은 항상 같은 shard라 userName unique index가 전체에서 유지된다
+ * - id는 ShardedSequenceGenerator가 shard 번호를 담아 만들므로 id만으로 shard를 안다(id % shard 수)
+ *
+ * connection은 transaction 시작 시 잡히므로 transaction 안에서는 shard를 바꿀 수 없다.
+ * 다른 shard의 transaction 안에서 부르면 그 transaction을 잠시 내려두고 대상 shard에서 새 transaction으로 실행한다.
+ * shard가 하나면(sharding 꺼짐) 아무것도 하지 않고 그대로 실행한다.
+ */
+@Component
+public class ShardRouter implements DisposableBean {
+
+    private final int shardCount;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate newReadOnlyTransaction;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.shardCount = properties.getShardCount();
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newReadOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.newReadOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newReadOnlyTransaction.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = shardCount == 1 ? null : Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String userName) {
+        return shardCount == 1 ? 0 : (int) Long.remainderUnsigned(StringHashing.hash64(userName), shardCount);
+    }
+
+    public int shardOfId(long id) {
+        return (int) Math.floorMod(id, (long) shardCount);
+    }
+
+    //지금 스레드의 transaction이 있는 shard. transaction 밖이면 다음 connection이 나올 shard
+    public int currentShard() {
+        return ShardContext.currentOrDefault();
+    }
+
+    //action을 shard에서 실행한다. transaction이 없으면 열지 않고 shard만 정해, 안쪽 repository가 필요할 때 연다
+    public <T> T route(int shard, Supplier<T> action) {
+        if (shardCount == 1) {
+            return action.get();
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return bound(shard, action);
+        }
+        if (currentShard() == shard) {
+            return action.get();
+        }
+        TransactionTemplate template = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? newReadOnlyTransaction : newTransaction;
+        return bound(shard, () -> template.execute(status -> action.get()));
+    }
+
+    //action을 shard의 transaction 안에서 실행한다. 같은 shard의 transaction이 이미 있으면 거기에 참여한다
+    public <T> T inTransaction(int shard, boolean readOnly, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && currentShard() == shard) {
+            return action.get();
+        }
+        TransactionTemplate template = readOnly ? newReadOnlyTransaction : newTransaction;
+        return bound(shard, () -> template.execute(status -> action.get()));
+    }
+
+    //모든 shard에서 동시에 실행하고 shard 번호 순서로 결과를 모은다. 호출한 스레드의 transaction과는 무관하다
+    public <T> List<T> scatter(IntFunction<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        if (shardCount == 1) {
+            results.add(bound(0, () -> action.apply(0)));
+            return results;
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> bound(shard, () -> action.apply(shard)), scatterExecutor));
+        }
+        try {
+            futures.forEach(future -> results.add(future.join()));
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private static <T> T bound(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
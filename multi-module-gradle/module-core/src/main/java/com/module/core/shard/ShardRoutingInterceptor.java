@@ -0,0 +1,85 @@
+package com.module.core.shard;
+
+import com.module.core.domain.Account;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * AccountRepository proxy 맨 앞에서 @ShardKey parameter로 shard를 골라 호출을 보낸다.
+ * key가 없는 method(목록, stream, count)는 ShardRouter로 shard를 정한 뒤에만 부를 수 있다.
+ * 정하지 않고 부르면 shard 0만 읽고 끝나므로 예외로 막는다.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || method.isAnnotationPresent(AllShards.class)) {
+            return invocation.proceed();
+        }
+        Integer shard = shardOf(method, invocation.getArguments());
+        if (shard == null) {
+            if (ShardContext.current() == null) {
+                throw new IllegalStateException("AccountRepository." + method.getName()
+                        + " has no @ShardKey parameter. call it through ShardRouter on a chosen shard");
+            }
+            return invocation.proceed();
+        }
+        try {
+            return shardRouter.route(shard, () -> {
+                try {
+                    return invocation.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedException(e);
+                }
+            });
+        } catch (CheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Integer shardOf(Method method, Object[] arguments) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return shardOf(arguments[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int shardOf(Object key) {
+        if (key instanceof String) {
+            return shardRouter.shardOf((String) key);
+        }
+        if (key instanceof Long) {
+            return shardRouter.shardOfId((Long) key);
+        }
+        if (key instanceof Account) {
+            return shardRouter.shardOf(((Account) key).getUserName());
+        }
+        throw new IllegalArgumentException("unsupported @ShardKey type " + (key == null ? null : key.getClass().getName()));
+    }
+
+    private static class CheckedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        CheckedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
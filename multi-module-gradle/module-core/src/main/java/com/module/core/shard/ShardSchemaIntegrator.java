@@ -0,0 +1,68 @@
+package com.module.core.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaExport;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
+import org.hibernate.tool.schema.TargetType;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate는 시작할 때 connection을 default shard(0)에서만 받아 hbm2ddl.auto를 적용한다.
+ * 나머지 shard에도 같은 설정(create, create-drop, update, validate)으로 schema를 맞춘다.
+ * import checkpoint는 shard마다 쓰고, journal checkpoint는 함께 만들어지지만 shard 0의 것만 쓴다.
+ */
+@Slf4j
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        Object action = sessionFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        if (action == null) {
+            return;
+        }
+        for (int shard = 1; shard < shardCount; shard++) {
+            Integer previous = ShardContext.bind(shard);
+            try {
+                apply(action.toString(), metadata);
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+        log.info("applied hbm2ddl.auto={} to {} more shards", action, shardCount - 1);
+    }
+
+    private static void apply(String action, Metadata metadata) {
+        EnumSet<TargetType> database = EnumSet.of(TargetType.DATABASE);
+        switch (action) {
+            case "create":
+            case "create-drop":
+                new SchemaExport().create(database, metadata);
+                break;
+            case "update":
+                new SchemaUpdate().execute(database, metadata);
+                break;
+            case "validate":
+                new SchemaValidator().validate(metadata);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
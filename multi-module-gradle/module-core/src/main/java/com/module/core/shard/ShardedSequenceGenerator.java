@@ -0,0 +1,65 @@
+package com.module.core.shard;
+
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * shard마다 자기 DB의 sequence로 번호를 받고, id = 번호 * shard 수 + shard 번호로 만든다.
+ * 그래서 id는 전체에서 겹치지 않고 id % shard 수로 shard를 알 수 있다. shard가 하나면 sequence 값 그대로다.
+ * pooled optimizer가 미리 받아둔 번호도 shard마다 따로 둔다.
+ */
+public class ShardedSequenceGenerator implements PersistentIdentifierGenerator, Configurable {
+
+    public static final String SHARD_COUNT = "module.sharding.count";
+
+    private SequenceStyleGenerator[] shards;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        int shardCount = ConfigurationHelper.getInt(SHARD_COUNT, serviceRegistry.getService(ConfigurationService.class).getSettings(), 1);
+        shards = new SequenceStyleGenerator[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new SequenceStyleGenerator();
+            shards[i].configure(type, params, serviceRegistry);
+        }
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        for (SequenceStyleGenerator shard : shards) {
+            shard.registerExportables(database);
+        }
+    }
+
+    //sequence는 지금 transaction의 connection, 즉 ShardContext의 shard에서 읽힌다
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardContext.currentOrDefault();
+        long value = ((Number) shards[shard].generate(session, object)).longValue();
+        return value * shards.length + shard;
+    }
+
+    //sequence를 읽는 SQL은 여기서 만들어진다. 위임하지 않으면 각 shard의 generator가 SQL 없이 남는다
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        for (SequenceStyleGenerator shard : shards) {
+            shard.initialize(context);
+        }
+    }
+
+    @Override
+    public Object generatorKey() {
+        return shards[0].generatorKey();
+    }
+}
@@ -0,0 +1,73 @@
+package com.module.core.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열용 Bloom filter. mightContain이 false면 넣은 적이 없는 값이고, true면 넣었을 수도 있는 값이다.
+ * bit 배열은 AtomicLongArray라 lock 없이 여러 스레드가 동시에 put/mightContain 할 수 있다.
+ * hash 두 개를 조합해 k개의 위치를 만든다(Kirsch-Mitzenmacher).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    //expectedInsertions개를 넣었을 때 false positive 비율이 falsePositiveRate가 되도록 크기를 잡는다
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+        this.bitSize = bits.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long h1 = StringHashing.hash64(value);
+        long h2 = StringHashing.mix(h1 + 0x9e3779b97f4a7c15L);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                //다른 스레드가 같은 word를 바꿨으면 다시 시도
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = StringHashing.hash64(value);
+        long h2 = StringHashing.mix(h1 + 0x9e3779b97f4a7c15L);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //지금까지 켜진 bit 비율로 계산한 현재 false positive 비율. 예상보다 많이 넣으면 커진다
+    public double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashFunctions);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+}
@@ -0,0 +1,27 @@
+package com.module.core.support;
+
+public final class StringHashing {
+
+    private StringHashing() {
+    }
+
+    //FNV-1a로 섞은 뒤 murmur3의 finalizer로 bit를 고르게 퍼뜨린다
+    //shard 배치에도 쓰이므로 바꾸면 이미 저장된 계정의 shard가 달라진다
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
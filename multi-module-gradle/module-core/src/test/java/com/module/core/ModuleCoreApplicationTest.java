@@ -1,9 +1,10 @@
 package com.module.core;
 
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.test.context.ContextConfiguration;
 
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ModuleCoreApplicationTest {
     public void contextLoads(){}
 }
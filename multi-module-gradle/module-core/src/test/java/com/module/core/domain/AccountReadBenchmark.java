@@ -0,0 +1,93 @@
+package com.module.core.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * entity와 AccountView로 같은 목록을 읽어 JSON으로 만드는 비용 비교. 평소 test에서는 건너뛴다.
+ *   gradle test --tests '*AccountReadBenchmark' -Dbenchmark=true -Dbenchmark.rows=200000
+ * 전체를 1000건씩 keyset으로 읽으며 초당 처리 건수와 건당 할당 byte를 잰다.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountReadBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BenchmarkAccounts accounts;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        accounts = new BenchmarkAccounts(jdbcTemplate, ROWS);
+        accounts.insert("read", "pbkdf2-sha256$100000$c2FsdA==$aGFzaA==");
+    }
+
+    @After
+    public void tearDown() {
+        if (accounts != null) {
+            accounts.delete();
+        }
+    }
+
+    @Test
+    public void entity_대_projection() throws Exception {
+        //JIT가 두 경로를 모두 compile 하도록 한 바퀴씩 먼저 돈다
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            run("entity (JPA)", print, after -> accountRepository.findByIdGreaterThanOrderById(after, PageRequest.of(0, PAGE_SIZE)),
+                    page -> ((Account) page.get(page.size() - 1)).getId());
+            run("AccountView (JDBC)", print, after -> accountRepository.findViewsAfter(after, PAGE_SIZE),
+                    page -> ((AccountView) page.get(page.size() - 1)).getId());
+        }
+    }
+
+    //건당 할당량은 이 스레드 기준이다. JDBC/Hibernate가 다른 스레드에서 할당하는 것은 없다
+    private void run(String name, boolean print, LongFunction<List<?>> pageReader, ToLongFunction<List<?>> lastId) throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long rows = 0;
+        long bytes = 0;
+        long after = BenchmarkAccounts.FIRST_ID - 1;
+        List<?> page;
+        while (!(page = pageReader.apply(after)).isEmpty()) {
+            bytes += objectMapper.writeValueAsBytes(page).length;
+            rows += page.size();
+            after = lastId.applyAsLong(page);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (print) {
+            System.out.printf("%-20s %,10.0f rows/s %,8d B allocated/row %,6d B json/row  (%,d rows)%n",
+                    name, rows * 1e9 / elapsed, allocated / rows, bytes / rows, rows);
+        }
+    }
+}
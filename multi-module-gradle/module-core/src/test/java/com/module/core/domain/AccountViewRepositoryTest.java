@@ -0,0 +1,59 @@
+package com.module.core.domain;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountViewRepositoryTest {
+
+    //sequence가 나눠주는 id와 겹치지 않게 직접 넣는다
+    private static final long FIRST_ID = 1_000_000L;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("insert into account (id, user_name, password) values (?, ?, ?)", FIRST_ID + i, "view" + i, "x");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        jdbcTemplate.update("delete from account where id >= ?", FIRST_ID);
+    }
+
+    @Test
+    public void id로_조회(){
+        AccountView view = accountRepository.findViewById(FIRST_ID + 2).get();
+
+        assertThat(view.getUserName(), is("view2"));
+        assertFalse(accountRepository.findViewById(-1).isPresent());
+    }
+
+    @Test
+    public void keyset_페이지_조회(){
+        List<AccountView> views = accountRepository.findViewsAfter(FIRST_ID + 1, 2);
+
+        assertThat(views.size(), is(2));
+        assertThat(views.get(0).getId(), is(FIRST_ID + 2));
+        assertThat(views.get(1).getUserName(), is("view3"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.module.core.domain;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * benchmark용 대량 계정. JPA를 거치지 않고 JDBC batch로 넣고, 끝나면 넣은 id 범위만 지운다.
+ * sequence가 나눠주는 id와 겹치지 않도록 FIRST_ID부터 쓴다.
+ */
+class BenchmarkAccounts {
+
+    static final long FIRST_ID = 1_000_000_000L;
+    private static final int BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rows;
+
+    BenchmarkAccounts(JdbcTemplate jdbcTemplate, int rows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rows = rows;
+    }
+
+    //userName은 userNamePrefix + 0부터의 순번
+    void insert(String userNamePrefix, String password) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{FIRST_ID + i, userNamePrefix + i, password});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("insert into account (id, user_name, password) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into account (id, user_name, password) values (?, ?, ?)", batch);
+    }
+
+    //한 번에 지우면 H2 undo log가 heap을 넘친다
+    void delete() {
+        for (long id = FIRST_ID; id < FIRST_ID + rows; id += BATCH_SIZE) {
+            jdbcTemplate.update("delete from account where id >= ? and id < ?", id, id + BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.module.core.domain;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "module.r2dbc.enabled=true")
+public class ReactiveAccountRepositoryTest {
+
+    @Autowired
+    private ReactiveAccountRepository reactiveAccountRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @After
+    public void tearDown() {
+        jdbcTemplate.update("delete from account where user_name like 'reactive%'");
+    }
+
+    @Test
+    public void 저장한_계정을_JPA와_R2DBC로_조회(){
+        //when
+        Account saved = reactiveAccountRepository.save(Account.builder().userName("reactive1").password("hash").build()).block();
+
+        //then
+        assertThat(accountRepository.findById(saved.getId()).get().getUserName(), is("reactive1"));
+        assertThat(reactiveAccountRepository.findByUserName("reactive1").block().getId(), is(saved.getId()));
+        assertThat(reactiveAccountRepository.findById(saved.getId()).block().getPassword(), is("hash"));
+        assertTrue(reactiveAccountRepository.existsByUserName("reactive1").block());
+        assertFalse(reactiveAccountRepository.existsByUserName("reactive-none").block());
+        assertThat(reactiveAccountRepository.findByUserName("reactive-none").block(), is((Account) null));
+    }
+
+    @Test
+    public void 같은_userName은_저장_실패(){
+        //given
+        reactiveAccountRepository.save(Account.builder().userName("reactive2").password("hash").build()).block();
+
+        //when
+        try {
+            reactiveAccountRepository.save(Account.builder().userName("reactive2").password("hash").build()).block();
+            fail();
+        } catch (R2dbcDataIntegrityViolationException expected) {
+        }
+    }
+
+    @Test
+    public void JPA와_번갈아_저장해도_id가_겹치지_않음(){
+        //given
+        Set<Long> ids = new HashSet<>();
+
+        //when: sequence 구간(50개)을 여러 번 넘긴다
+        for (int i = 0; i < 120; i++) {
+            ids.add(reactiveAccountRepository.save(Account.builder().userName("reactive-r" + i).password("hash").build()).block().getId());
+            ids.add(accountRepository.save(Account.builder().userName("reactive-j" + i).password("hash").build()).getId());
+        }
+
+        //then
+        assertThat(ids.size(), is(240));
+    }
+}
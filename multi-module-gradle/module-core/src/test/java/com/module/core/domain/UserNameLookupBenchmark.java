@@ -0,0 +1,93 @@
+package com.module.core.domain;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * userName 중복 확인 비용 비교. 수백만 건을 넣어야 해서 평소 test에서는 건너뛴다.
+ *   gradle :module-core:test --tests '*UserNameLookupBenchmark' -Dbenchmark=true -Dbenchmark.rows=2000000
+ * 같은 miss 조회를 index 없이(full scan), index로, Bloom filter 앞단으로 각각 잰다.
+ * 측정 중에 unique index를 잠시 지우므로 다른 test와 context를 나누고 DB도 따로 쓴다.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:user-name-lookup-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class UserNameLookupBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    UserNameIndex userNameIndex;
+
+    private BenchmarkAccounts accounts;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        accounts = new BenchmarkAccounts(jdbcTemplate, ROWS);
+        long start = System.currentTimeMillis();
+        accounts.insert("bench", "x");
+        System.out.printf("inserted %,d rows in %,d ms%n", ROWS, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        userNameIndex.rebuild();
+        System.out.printf("built user name filter in %,d ms%n", System.currentTimeMillis() - start);
+    }
+
+    @After
+    public void tearDown() {
+        if (accounts != null) {
+            accounts.delete();
+            userNameIndex.rebuild();
+        }
+    }
+
+    @Test
+    public void userName_중복_확인() {
+        //index 없이: 예전처럼 매번 table 전체를 읽는다
+        jdbcTemplate.execute("alter table account drop constraint ux_account_user_name");
+        try {
+            report("exists, no index (miss)", 20, i -> accountRepository.existsByUserName("free" + i));
+        } finally {
+            jdbcTemplate.execute("alter table account add constraint ux_account_user_name unique (user_name)");
+        }
+
+        report("exists, unique index (hit)", 100_000, i -> accountRepository.existsByUserName("bench" + ThreadLocalRandom.current().nextInt(ROWS)));
+        report("exists, unique index (miss)", 100_000, i -> accountRepository.existsByUserName("free" + i));
+        report("findById hydration (hit)", 100_000, i -> accountRepository.findById(BenchmarkAccounts.FIRST_ID + ThreadLocalRandom.current().nextInt(ROWS)).isPresent());
+        report("bloom filter + index (hit)", 100_000, i -> userNameIndex.exists("bench" + ThreadLocalRandom.current().nextInt(ROWS)));
+        report("bloom filter + index (miss)", 1_000_000, i -> userNameIndex.exists("free" + i));
+    }
+
+    //절반은 warm-up으로 버리고 나머지의 평균을 잰다
+    private static void report(String name, int iterations, IntPredicate lookup) {
+        for (int i = 0; i < iterations / 2; i++) {
+            lookup.test(-i);
+        }
+        int matched = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (lookup.test(i)) {
+                matched++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-30s %,12.2f us/op  (%,d ops, %,d matched)%n", name, elapsed / 1000.0 / iterations, iterations, matched);
+    }
+}
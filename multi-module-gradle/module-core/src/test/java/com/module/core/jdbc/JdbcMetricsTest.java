@@ -0,0 +1,57 @@
+package com.module.core.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "module.jdbc.slow-query-threshold=0ms")
+public class JdbcMetricsTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void SQL_실행_시간과_느린_SQL_기록(){
+        //given
+        double slow = meterRegistry.counter("jdbc.query.slow", "type", "select").count();
+
+        //when
+        jdbcTemplate.queryForObject("select count(*) from account", Long.class);
+
+        //then
+        assertThat(dataSource, instanceOf(ProxyDataSource.class));
+        assertTrue(meterRegistry.get("jdbc.query").tag("type", "select").timer().count() > 0);
+        assertThat(meterRegistry.counter("jdbc.query.slow", "type", "select").count(), is(slow + 1));
+    }
+
+    @Test
+    public void 커넥션_풀_metric(){
+        //when
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        //then
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").gauge());
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().count() > 0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.module.core.journal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+
+public class AccountJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void 다시_열면_기록한_record를_복구() throws Exception {
+        //given
+        Path directory = folder.getRoot().toPath();
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            journal.append("journal1", "hash1");
+            journal.append("journal2", "hash2");
+        }
+
+        //when
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            List<JournalEntry> entries = journal.recoveredAfter(0);
+
+            //then
+            assertThat(entries.size(), is(2));
+            assertThat(entries.get(1).getSequence(), is(2L));
+            assertThat(entries.get(1).getUserName(), is("journal2"));
+            assertThat(entries.get(1).getEncodedPassword(), is("hash2"));
+            assertThat(journal.recoveredAfter(1).size(), is(1));
+            assertThat(journal.append("journal3", "hash3"), is(3L));
+        }
+    }
+
+    @Test
+    public void 깨진_마지막_record는_버리고_그_자리에_이어씀() throws Exception {
+        //given
+        Path directory = folder.getRoot().toPath();
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            journal.append("torn1", "hash1");
+            journal.append("torn2", "hash2");
+        }
+        //두 번째 record의 payload 마지막 byte를 바꾼다
+        File segment = directory.resolve(String.format("%020d.journal", 1)).toFile();
+        int secondRecordEnd = 2 * (16 + 4 + "torn1".length() + "hash1".length());
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(secondRecordEnd - 1);
+            file.write('x');
+        }
+
+        //when
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            //then
+            assertThat(journal.recoveredAfter(0).size(), is(1));
+            assertThat(journal.append("torn3", "hash3"), is(2L));
+        }
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            List<JournalEntry> entries = journal.recoveredAfter(0);
+            assertThat(entries.size(), is(2));
+            assertThat(entries.get(1).getUserName(), is("torn3"));
+        }
+    }
+
+    @Test
+    public void segment가_차면_새_segment로_넘어가고_반영된_segment는_지움() throws Exception {
+        //given
+        Path directory = folder.getRoot().toPath();
+        try (AccountJournal journal = new AccountJournal(directory, 256, false)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append("roll" + i, "hash" + i);
+            }
+            int segments = journal.getSegmentCount();
+            assertTrue(segments > 1);
+
+            //when
+            journal.deleteUpTo(20);
+
+            //then
+            assertThat(journal.getSegmentCount(), is(1));
+            assertThat(directory.toFile().list().length, is(1));
+            assertThat(journal.append("roll21", "hash21"), is(21L));
+        }
+        try (AccountJournal journal = new AccountJournal(directory, 256, false)) {
+            assertThat(journal.getLastSequence(), is(21L));
+        }
+    }
+
+    @Test
+    public void journal이_없어도_반영된_sequence_뒤부터_번호를_이어감() throws Exception {
+        //given
+        Path directory = folder.getRoot().toPath();
+
+        //when
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            journal.advanceTo(500);
+
+            //then
+            assertThat(journal.append("advance1", "hash1"), is(501L));
+        }
+        try (AccountJournal journal = new AccountJournal(directory, 4096, false)) {
+            assertThat(journal.recoveredAfter(500).size(), is(1));
+            assertThat(journal.getLastSequence(), is(501L));
+        }
+    }
+
+    @Test
+    public void 길이를_2_byte에_담을_수_없는_값은_거절() throws Exception {
+        //given
+        char[] name = new char[0x10000];
+        Arrays.fill(name, 'a');
+
+        try (AccountJournal journal = new AccountJournal(folder.getRoot().toPath(), 1024 * 1024, false)) {
+            //when
+            try {
+                journal.append(new String(name), "hash1");
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+
+            //then
+            assertThat(journal.append("short1", "hash1"), is(1L));
+        }
+    }
+}
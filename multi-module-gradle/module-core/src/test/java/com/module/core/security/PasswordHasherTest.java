@@ -0,0 +1,42 @@
+package com.module.core.security;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PasswordHasherTest {
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(properties(1000));
+
+    @Test
+    public void 같은_비밀번호만_일치(){
+        String encoded = passwordHasher.hash("1234");
+
+        assertThat(encoded, startsWith("pbkdf2-sha256$1000$"));
+        assertThat(passwordHasher.matches("1234", encoded), is(true));
+        assertThat(passwordHasher.matches("12345", encoded), is(false));
+    }
+
+    @Test
+    public void salt가_달라_같은_비밀번호도_hash가_다름(){
+        assertThat(passwordHasher.hash("1234"), not(passwordHasher.hash("1234")));
+    }
+
+    @Test
+    public void 반복_횟수를_바꿔도_이전_hash를_검증(){
+        String encoded = passwordHasher.hash("1234");
+
+        PasswordHasher changed = new PasswordHasher(properties(2000));
+
+        assertThat(changed.matches("1234", encoded), is(true));
+    }
+
+    private static PasswordProperties properties(int iterations) {
+        PasswordProperties properties = new PasswordProperties();
+        properties.setIterations(iterations);
+        return properties;
+    }
+}
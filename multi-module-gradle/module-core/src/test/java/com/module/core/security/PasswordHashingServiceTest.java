@@ -0,0 +1,92 @@
+package com.module.core.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PasswordHashingServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordProperties properties = new PasswordProperties();
+    private PasswordHasher passwordHasher;
+    private PasswordHashingService passwordHashingService;
+
+    @After
+    public void tearDown() {
+        passwordHashingService.destroy();
+    }
+
+    @Test
+    public void 대기열이_가득_차면_거절() throws Exception {
+        //given: worker 1개, 대기열 0
+        properties.setIterations(200_000);
+        properties.setThreads(1);
+        properties.setQueueCapacity(0);
+        create();
+        CompletableFuture<String> first = passwordHashingService.hashAsync("1234");
+
+        //when
+        CompletableFuture<String> second = passwordHashingService.hashAsync("1234");
+
+        //then
+        try {
+            second.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+        }
+        assertTrue(passwordHasher.matches("1234", first.get()));
+        assertThat(meterRegistry.counter("password.hash.rejected").count(), is(1.0));
+    }
+
+    @Test
+    public void 여러_건을_순서대로_hash() throws Exception {
+        //given
+        properties.setIterations(1000);
+        properties.setThreads(2);
+        create();
+
+        //when
+        List<String> encoded = passwordHashingService.hashAll(Arrays.asList("a", "b", "c")).get();
+
+        //then
+        assertThat(encoded.size(), is(3));
+        assertTrue(passwordHasher.matches("a", encoded.get(0)));
+        assertTrue(passwordHasher.matches("c", encoded.get(2)));
+        assertThat(meterRegistry.get("password.hash.duration").timer().count(), is(2L));
+    }
+
+    @Test
+    public void 목표_시간에_맞춰_반복_횟수를_정함() {
+        //given
+        properties.getCalibration().setMinIterations(1000);
+        properties.getCalibration().setMaxIterations(5000);
+        properties.getCalibration().setTargetMillis(10_000);
+        create();
+
+        //when
+        passwordHashingService.calibrate();
+
+        //then: 목표가 매우 크므로 상한에 걸린다
+        assertThat(passwordHasher.getIterations(), is(5000));
+        assertThat(meterRegistry.get("password.hash.iterations").gauge().value(), is(5000.0));
+    }
+
+    private void create() {
+        passwordHasher = new PasswordHasher(properties);
+        passwordHashingService = new PasswordHashingService(passwordHasher, properties, meterRegistry);
+    }
+}
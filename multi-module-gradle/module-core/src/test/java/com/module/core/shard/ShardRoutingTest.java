@@ -0,0 +1,105 @@
+package com.module.core.shard;
+
+import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.domain.AccountView;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "module.sharding.enabled=true",
+        "module.sharding.urls[0]=jdbc:h2:mem:shard-routing-0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "module.sharding.urls[1]=jdbc:h2:mem:shard-routing-1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "module.sharding.urls[2]=jdbc:h2:mem:shard-routing-2;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class ShardRoutingTest {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void userName_hash로_고른_shard에만_저장() {
+        //when
+        for (int i = 0; i < 30; i++) {
+            accountRepository.save(Account.builder().userName("routed" + i).password("x").build());
+        }
+
+        //then
+        List<Long> counts = shardRouter.scatter(shard ->
+                jdbcTemplate.queryForObject("select count(*) from account where user_name like 'routed%'", Long.class));
+        assertThat(counts.stream().mapToLong(Long::longValue).sum(), is(30L));
+        for (int i = 0; i < 30; i++) {
+            String userName = "routed" + i;
+            int shard = shardRouter.shardOf(userName);
+            long id = accountRepository.findIdByUserName(userName).get();
+            assertThat(shardRouter.shardOfId(id), is(shard));
+            assertThat(accountRepository.findById(id).get().getUserName(), is(userName));
+            assertTrue(accountRepository.existsByUserName(userName));
+            assertThat(shardRouter.route(shard, () -> jdbcTemplate.queryForObject(
+                    "select count(*) from account where user_name = ?", Long.class, userName)), is(1L));
+        }
+    }
+
+    @Test
+    public void 모든_shard를_읽어_id_순서로_합침() {
+        //given
+        for (int i = 0; i < 20; i++) {
+            accountRepository.save(Account.builder().userName("merged" + i).password("x").build());
+        }
+        long after = accountRepository.findIdByUserName("merged0").get() - 1;
+
+        //when
+        List<AccountView> views = accountRepository.findViewsAfter(after, 10);
+
+        //then
+        assertThat(views.size(), is(10));
+        for (int i = 1; i < views.size(); i++) {
+            assertTrue(views.get(i - 1).getId() < views.get(i).getId());
+        }
+        assertThat(accountRepository.findViewById(views.get(3).getId()).get().getUserName(), is(views.get(3).getUserName()));
+    }
+
+    @Test
+    public void 다른_shard의_transaction_안에서도_대상_shard로_감() {
+        //given
+        String userName = "nested0";
+        int shard = shardRouter.shardOf(userName);
+        int other = (shard + 1) % shardRouter.getShardCount();
+
+        //when
+        shardRouter.inTransaction(other, false, () ->
+                accountRepository.save(Account.builder().userName(userName).password("x").build()));
+
+        //then
+        assertThat(shardRouter.route(shard, () -> jdbcTemplate.queryForObject(
+                "select count(*) from account where user_name = ?", Long.class, userName)), is(1L));
+        assertThat(shardRouter.route(other, () -> jdbcTemplate.queryForObject(
+                "select count(*) from account where user_name = ?", Long.class, userName)), is(0L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shard를_정하지_않은_목록_조회는_거절() {
+        new TransactionTemplate(transactionManager).execute(status -> accountRepository.count());
+    }
+}
@@ -0,0 +1,51 @@
+package com.module.core.support;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void 넣은_값은_항상_있다고_답함() {
+        //given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    public void false_positive_비율이_목표_근처() {
+        //given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        assertThat(falsePositives / 100_000.0, lessThan(0.02));
+        assertThat(filter.expectedFalsePositiveRate(), lessThan(0.02));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void 잘못된_비율은_거부() {
+        new BloomFilter(100, 1.0);
+    }
+}
@@ -2,8 +2,9 @@ package com.module;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ModuleFoApplication {
     public static void main(String[] args){
         SpringApplication.run(ModuleFoApplication.class, args);
@@ -1,18 +1,47 @@
 package com.module.fo.controller;
 
 import com.module.core.domain.Account;
+import com.module.core.domain.AccountRepository;
+import com.module.core.domain.AccountView;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
+//화면용 조회는 entity 대신 AccountView로 내려준다
 @RestController
+@AllArgsConstructor
 public class FoController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private AccountRepository accountRepository;
+
     @GetMapping("/")
-    public Account signUp(){
+    public AccountView signUp(){
         Account account = Account.builder()
                 .userName("user1")
                 .password("password")
                 .build();
 
-        return account;
+        return new AccountView(account.getId(), account.getUserName());
+    }
+
+    //마지막으로 받은 id를 after로 넘기면 그 다음 계정부터 준다
+    @GetMapping("/accounts")
+    public List<AccountView> accounts(@RequestParam(value = "after", defaultValue = "0") long after,
+                                      @RequestParam(value = "size", defaultValue = "20") int size){
+        return accountRepository.findViewsAfter(after, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    @GetMapping("/accounts/{id}")
+    public ResponseEntity<AccountView> account(@PathVariable("id") long id){
+        return accountRepository.findViewById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,18 @@
+package com.edu.tistory.authorization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.edu.tistory.model.User.UserType;
+
+//handler에 들어올 수 있는 UserType. method에 붙은 것이 class에 붙은 것보다 먼저다. 붙지 않은 handler는 검사하지 않는다
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AllowUserType {
+
+    UserType[] value();
+}
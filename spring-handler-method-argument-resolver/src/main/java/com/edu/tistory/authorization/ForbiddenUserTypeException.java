@@ -0,0 +1,13 @@
+package com.edu.tistory.authorization;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//로그인은 했지만 @AllowUserType에 없는 UserType. 403으로 응답한다
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class ForbiddenUserTypeException extends RuntimeException {
+
+    public ForbiddenUserTypeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.edu.tistory.authorization;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.edu.tistory.custom.LoginUserResolver;
+import com.edu.tistory.model.User;
+
+//handler가 불리기 전, argument binding 전에 @AllowUserType을 검사한다. 찾은 User는 LoginUserResolver가 그대로 재사용한다
+public class UserTypeInterceptor implements HandlerInterceptor {
+
+    private final UserTypeRules rules;
+    private final LoginUserResolver loginUserResolver;
+
+    public UserTypeInterceptor(UserTypeRules rules, LoginUserResolver loginUserResolver) {
+        this.rules = rules;
+        this.loginUserResolver = loginUserResolver;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        int mask = rules.maskOf((HandlerMethod) handler);
+        if (mask == UserTypeRules.UNRESTRICTED) {
+            return true;
+        }
+        User user = loginUserResolver.resolveUser(request);
+        if (!UserTypeRules.allows(mask, user.getUserType())) {
+            throw new ForbiddenUserTypeException(user.getUserType() + " is not allowed");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.edu.tistory.authorization;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.edu.tistory.model.User.UserType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * handler method별 @AllowUserType을 시작할 때 한 번 읽어 UserType ordinal bitmask로 바꿔 둔 표.
+ * 요청마다 annotation을 다시 읽지 않고 map 조회 한 번, bit 연산 한 번으로 끝난다.
+ * - HandlerMapping이 요청마다 넘기는 HandlerMethod는 등록할 때의 Method instance를 그대로 들고 있으므로 IdentityHashMap으로 찾는다
+ * - HandlerMapping은 interceptor를 받아서 만들어지므로 생성자에서는 읽을 수 없다. singleton이 다 만들어진 뒤에 채운다
+ */
+@Slf4j
+@Component
+public class UserTypeRules implements SmartInitializingSingleton {
+
+    //표에 없는 handler. 아무 UserType이나 들어온다
+    static final int UNRESTRICTED = -1;
+
+    private final ApplicationContext applicationContext;
+
+    private volatile Map<Method, Integer> masks = new IdentityHashMap<>();
+
+    public UserTypeRules(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Method, Integer> compiled = new IdentityHashMap<>();
+        for (RequestMappingHandlerMapping mapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            compiled.putAll(compile(mapping.getHandlerMethods().values()));
+        }
+        masks = compiled;
+        log.info("compiled {} @AllowUserType rules", compiled.size());
+    }
+
+    static Map<Method, Integer> compile(Collection<HandlerMethod> handlerMethods) {
+        Map<Method, Integer> compiled = new IdentityHashMap<>();
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            AllowUserType allow = handlerMethod.getMethodAnnotation(AllowUserType.class);
+            if (allow == null) {
+                allow = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), AllowUserType.class);
+            }
+            if (allow != null) {
+                compiled.put(handlerMethod.getMethod(), mask(allow.value()));
+            }
+        }
+        return compiled;
+    }
+
+    static int mask(UserType... userTypes) {
+        int mask = 0;
+        for (UserType userType : userTypes) {
+            mask |= 1 << userType.ordinal();
+        }
+        return mask;
+    }
+
+    //검사할 필요가 없는 handler면 UNRESTRICTED
+    public int maskOf(HandlerMethod handlerMethod) {
+        Integer mask = masks.get(handlerMethod.getMethod());
+        return mask == null ? UNRESTRICTED : mask;
+    }
+
+    public static boolean allows(int mask, UserType userType) {
+        return (mask & (1 << userType.ordinal())) != 0;
+    }
+
+    //benchmark, test에서 표를 직접 채울 때 쓴다
+    void setMasks(Map<Method, Integer> masks) {
+        this.masks = masks;
+    }
+}
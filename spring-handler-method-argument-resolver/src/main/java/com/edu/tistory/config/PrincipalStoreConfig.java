@@ -0,0 +1,29 @@
+package com.edu.tistory.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.edu.tistory.model.User;
+import com.edu.tistory.principal.LocalPrincipalStore;
+import com.edu.tistory.principal.PrincipalCache;
+import com.edu.tistory.principal.PrincipalStore;
+
+//실제 저장소를 붙일 때는 PrincipalStore bean을 등록하고 principal.store.local.enabled=false로 둔다
+@Configuration
+public class PrincipalStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "principal.store.local.enabled", havingValue = "true", matchIfMissing = true)
+    public LocalPrincipalStore localPrincipalStore(PrincipalStoreProperties properties) {
+        PrincipalStoreProperties.Local local = properties.getLocal();
+        LocalPrincipalStore store = new LocalPrincipalStore(local.getLatency());
+        local.getTokens().forEach((token, principal) -> store.put(token, User.of(principal.getUserId(), principal.getUserType())));
+        return store;
+    }
+
+    @Bean
+    public PrincipalCache principalCache(PrincipalStore principalStore, PrincipalStoreProperties properties) {
+        return new PrincipalCache(principalStore, properties.getCache());
+    }
+}
@@ -0,0 +1,53 @@
+package com.edu.tistory.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.edu.tistory.model.User.UserType;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "principal.store")
+@Getter
+@Setter
+public class PrincipalStoreProperties {
+
+    private Cache cache = new Cache();
+    private Local local = new Local();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private long maximumSize = 100_000;
+        //이 시간이 지나면 다시 읽기 전까지 쓰지 않는다. 권한이 바뀐 뒤 반영되기까지의 최대 시간
+        private Duration ttl = Duration.ofMinutes(5);
+        //이 시간이 지난 뒤 조회되면 이전 값을 돌려주면서 뒤에서 다시 읽는다(refresh-ahead). ttl보다 짧아야 한다
+        private Duration refreshAfter = Duration.ofMinutes(1);
+        //없는 token도 이 시간 동안 기억해 같은 token으로 저장소를 반복해서 두드리지 않게 한다
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+
+    //원격 저장소 대신 쓰는 메모리 저장소. 실제 저장소를 붙이면 enabled=false로 끈다
+    @Getter
+    @Setter
+    public static class Local {
+        private boolean enabled = true;
+        //원격 저장소 왕복 시간 흉내
+        private Duration latency = Duration.ZERO;
+        //principal.store.local.tokens.{token}.user-id=..., principal.store.local.tokens.{token}.user-type=Manager
+        private Map<String, Principal> tokens = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Principal {
+        private String userId;
+        private UserType userType = UserType.Member;
+    }
+}
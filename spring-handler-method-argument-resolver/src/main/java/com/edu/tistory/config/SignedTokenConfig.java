@@ -0,0 +1,43 @@
+package com.edu.tistory.config;
+
+import java.time.Clock;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.edu.tistory.token.EcTokenKey;
+import com.edu.tistory.token.HmacTokenKey;
+import com.edu.tistory.token.SignedTokenVerifier;
+import com.edu.tistory.token.TokenKey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "principal.token.enabled", havingValue = "true")
+public class SignedTokenConfig {
+
+    @Bean
+    public SignedTokenVerifier signedTokenVerifier(SignedTokenProperties properties, MeterRegistry meterRegistry) {
+        //key는 시작할 때 한 번 풀어 둔다. 잘못된 key 설정은 요청이 아니라 시작에서 실패한다
+        Map<String, TokenKey> keys = new HashMap<>();
+        properties.getKeys().forEach((kid, key) -> keys.put(kid, tokenKey(kid, key)));
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("principal.token.enabled=true requires at least one principal.token.keys entry");
+        }
+        return new SignedTokenVerifier(keys, properties, Clock.systemUTC(), meterRegistry);
+    }
+
+    private static TokenKey tokenKey(String kid, SignedTokenProperties.Key key) {
+        if ((key.getHmacSecret() == null) == (key.getEcPublicKey() == null)) {
+            throw new IllegalStateException("principal.token.keys." + kid + " needs exactly one of hmac-secret, ec-public-key");
+        }
+        if (key.getHmacSecret() != null) {
+            return new HmacTokenKey(Base64.getDecoder().decode(key.getHmacSecret()));
+        }
+        return EcTokenKey.fromEncoded(Base64.getDecoder().decode(key.getEcPublicKey()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.edu.tistory.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "principal.token")
+@Getter
+@Setter
+public class SignedTokenProperties {
+
+    //켜면 '.'이 두 개인 Bearer token은 PrincipalStore 대신 서명으로 확인한다
+    private boolean enabled = false;
+    private long maximumSize = 100_000;
+    //확인한 token을 기억하는 최대 시간. token이 먼저 만료되면 그때까지만 기억한다
+    private Duration maxTtl = Duration.ofMinutes(10);
+    //principal.token.keys.{kid}.hmac-secret=base64 또는 principal.token.keys.{kid}.ec-public-key=base64(X.509 DER). key를 바꿀 때는 새 kid를 추가하고 이전 token이 다 만료된 뒤 지운다
+    private Map<String, Key> keys = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Key {
+        private String hmacSecret;
+        private String ecPublicKey;
+    }
+}
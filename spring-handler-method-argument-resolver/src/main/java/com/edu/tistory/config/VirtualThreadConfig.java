@@ -0,0 +1,31 @@
+package com.edu.tistory.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//spring.threads.virtual.enabled=true면 Tomcat 요청을 platform thread pool 대신 요청마다 virtual thread에서 처리한다
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(virtualThreadExecutor));
+    }
+
+    //Tomcat은 외부에서 넘긴 executor를 닫지 않는다
+    @Override
+    public void destroy() {
+        virtualThreadExecutor.shutdown();
+    }
+
+}
@@ -2,19 +2,35 @@ package com.edu.tistory.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.edu.tistory.authorization.UserTypeInterceptor;
+import com.edu.tistory.authorization.UserTypeRules;
 import com.edu.tistory.custom.LoginUserResolver;
+import com.edu.tistory.principal.PrincipalCache;
+import com.edu.tistory.token.SignedTokenVerifier;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final PrincipalCache principalCache;
+    private final UserTypeRules userTypeRules;
+    private final ObjectProvider<SignedTokenVerifier> signedTokenVerifier;
+
+    public WebConfig(PrincipalCache principalCache, UserTypeRules userTypeRules, ObjectProvider<SignedTokenVerifier> signedTokenVerifier) {
+        this.principalCache = principalCache;
+        this.userTypeRules = userTypeRules;
+        this.signedTokenVerifier = signedTokenVerifier;
+    }
+
     @Bean
     public LoginUserResolver loginUserResolver() {
-        return new LoginUserResolver();
+        return new LoginUserResolver(principalCache, signedTokenVerifier.getIfAvailable());
     }
 
     @Override
@@ -22,4 +38,9 @@ public class WebConfig implements WebMvcConfigurer {
         resolvers.add(loginUserResolver());
         WebMvcConfigurer.super.addArgumentResolvers(resolvers);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UserTypeInterceptor(userTypeRules, loginUserResolver()));
+    }
 }
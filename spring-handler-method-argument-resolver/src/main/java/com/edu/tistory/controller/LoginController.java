@@ -1,40 +1,38 @@
 package com.edu.tistory.controller;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.edu.tistory.authorization.AllowUserType;
 import com.edu.tistory.custom.LoginUser;
 import com.edu.tistory.model.User;
 import com.edu.tistory.model.User.UserType;
 
+//UserType 검사는 UserTypeInterceptor가 handler 전에 끝낸다. 여기까지 온 user는 이미 허용된 사용자다
 @RestController
 public class LoginController {
 
 
     @GetMapping("/login/manager")
+    @AllowUserType(UserType.Manager)
     public ResponseEntity<String> pageForManager(@LoginUser User user) {
         // Page for manager
-        return getResponseEntity(user, UserType.Manager);
+        return ResponseEntity.ok().build();
     }
 
     @GetMapping("/login/vip")
+    @AllowUserType(UserType.VIPMember)
     public ResponseEntity<String> pageForVIPMember(@LoginUser User user) {
         // Page for vip
-        return getResponseEntity(user, UserType.VIPMember);
+        return ResponseEntity.ok().build();
     }
 
     @GetMapping("/login/member")
+    @AllowUserType(UserType.Member)
     public ResponseEntity<String> pageForMember(@LoginUser User user) {
         // Page for member
-        return getResponseEntity(user, UserType.Member);
-    }
-
-    public ResponseEntity<String> getResponseEntity(User user, UserType userType) {
-        if (user.getUserType() != userType)
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-        return new ResponseEntity<String>(HttpStatus.OK);
+        return ResponseEntity.ok().build();
     }
 
 }
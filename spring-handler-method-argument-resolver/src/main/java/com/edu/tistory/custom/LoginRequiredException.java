@@ -0,0 +1,13 @@
+package com.edu.tistory.custom;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//token이 없거나 저장소에 없는 token. @LoginUser를 받는 handler는 401로 응답한다
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class LoginRequiredException extends RuntimeException {
+
+    public LoginRequiredException(String message) {
+        super(message);
+    }
+}
@@ -1,35 +1,80 @@
 package com.edu.tistory.custom;
 
+import java.util.Optional;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import com.edu.tistory.model.User;
-import com.edu.tistory.model.User.UserType;
+import com.edu.tistory.principal.PrincipalCache;
+import com.edu.tistory.token.SignedTokenVerifier;
+import com.edu.tistory.token.SignedTokens;
 
 public class LoginUserResolver implements HandlerMethodArgumentResolver {
 
+    //한 요청 안에서 처음 찾은 User를 담아두는 request attribute. 같은 요청의 다른 parameter, interceptor도 꺼내 쓸 수 있다
+    public static final String LOGIN_USER_ATTRIBUTE = LoginUserResolver.class.getName() + ".LOGIN_USER";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final PrincipalCache principalCache;
+    //principal.token.enabled=false면 null. 모든 token을 PrincipalStore에서 찾는다
+    private final SignedTokenVerifier signedTokenVerifier;
+
+    public LoginUserResolver(PrincipalCache principalCache) {
+        this(principalCache, null);
+    }
+
+    public LoginUserResolver(PrincipalCache principalCache, SignedTokenVerifier signedTokenVerifier) {
+        this.principalCache = principalCache;
+        this.signedTokenVerifier = signedTokenVerifier;
+    }
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
-        //parameter가 User Type인지 체크
+        //parameter가 User Type인지 체크. HandlerMethodArgumentResolverComposite가 parameter별로 결과를 cache하므로
+        //parameter마다 한 번만 불린다. 여기서 다시 map에 담으면 isAssignableFrom보다 조회가 더 비싸다
         return parameter.getParameterType().isAssignableFrom(User.class);
     }
 
     @Override
     public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
                                   NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        return resolveUser(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
 
-        User user = new User();
+    //argument binding 전에 사용자가 필요한 곳(UserTypeInterceptor)도 이 method로 찾는다. 같은 요청에서는 한 번만 찾는다
+    public User resolveUser(HttpServletRequest request) {
+        User user = (User) request.getAttribute(LOGIN_USER_ATTRIBUTE);
+        if (user == null) {
+            user = findByToken(token(request))
+                    .orElseThrow(() -> new LoginRequiredException("unknown token"));
+            request.setAttribute(LOGIN_USER_ATTRIBUTE, user);
+        }
+        return user;
+    }
 
-        //User의 id가 시작하는 값에 따라 UserType(Manager, VIPMemeber, Member)차등부여하고 리턴
-        String userId = webRequest.getParameter("userId");
-        if (userId.charAt(0) == 'a') user.setUserType(UserType.Manager);
-        else if (userId.charAt(0) == 'b') user.setUserType(UserType.VIPMember);
-        else user.setUserType(UserType.Member);
+    //서명된 token은 이 서버에서 확인하고, 그 외에는 저장소에서 찾는다
+    private Optional<User> findByToken(String token) {
+        if (signedTokenVerifier != null && SignedTokens.isSignedToken(token)) {
+            return signedTokenVerifier.verify(token);
+        }
+        return principalCache.findByToken(token);
+    }
 
-        return user;
+    //Authorization: Bearer {token}
+    private static String token(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX) || authorization.length() == BEARER_PREFIX.length()) {
+            throw new LoginRequiredException("bearer token required");
+        }
+        return authorization.substring(BEARER_PREFIX.length());
     }
 
 }
@@ -1,17 +1,41 @@
 package com.edu.tistory.model;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import lombok.Getter;
-import lombok.Setter;
 
+//값이 바뀌지 않는다. userId 없이 UserType만 있는 User는 UserType별로 하나씩 만들어 두고 같은 instance를 쓴다
 @Getter
 public class User {
-    private String userId;
-    private String userPassword;
-    @Setter
-    private UserType userType;
+
+    private static final Map<UserType, User> BY_TYPE = new EnumMap<>(UserType.class);
+
+    static {
+        for (UserType userType : UserType.values()) {
+            BY_TYPE.put(userType, new User(null, userType));
+        }
+    }
+
+    private final String userId;
+    private final String userPassword;
+    private final UserType userType;
+
+    private User(String userId, UserType userType) {
+        this.userId = userId;
+        this.userPassword = null;
+        this.userType = userType;
+    }
+
+    public static User of(UserType userType) {
+        return BY_TYPE.get(userType);
+    }
+
+    public static User of(String userId, UserType userType) {
+        return new User(userId, userType);
+    }
 
     public enum UserType {
         Manager, VIPMember, Member
     }
 }
-
@@ -0,0 +1,40 @@
+package com.edu.tistory.principal;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.edu.tistory.model.User;
+
+//원격 저장소 대신 쓰는 메모리 저장소. latency를 주면 조회마다 그만큼 기다려 원격 왕복을 흉내 낸다
+public class LocalPrincipalStore implements PrincipalStore {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final long latencyMillis;
+
+    public LocalPrincipalStore(Duration latency) {
+        this.latencyMillis = latency.toMillis();
+    }
+
+    public void put(String token, User user) {
+        users.put(token, user);
+    }
+
+    public void remove(String token) {
+        users.remove(token);
+    }
+
+    @Override
+    public Optional<User> findByToken(String token) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while looking up token", e);
+            }
+        }
+        return Optional.ofNullable(users.get(token));
+    }
+}
@@ -0,0 +1,66 @@
+package com.edu.tistory.principal;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.edu.tistory.config.PrincipalStoreProperties;
+import com.edu.tistory.model.User;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * PrincipalStore 앞에 두는 크기 제한 cache. 요청마다 저장소에 가지 않고 메모리에서 token을 확인한다.
+ * - 찾은 사용자는 ttl 동안, 없는 token은 negativeTtl 동안 기억한다
+ * - refreshAfter가 지난 항목이 조회되면 이전 값을 바로 돌려주고 뒤에서 다시 읽는다. 자주 쓰는 token은 만료로 멈추는 일이 없다
+ * - 뒤에서 다시 읽다 실패하면 이전 값을 ttl까지 그대로 쓴다
+ */
+public class PrincipalCache {
+
+    private final LoadingCache<String, Optional<User>> cache;
+
+    public PrincipalCache(PrincipalStore principalStore, PrincipalStoreProperties.Cache properties) {
+        this(principalStore, properties, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    PrincipalCache(PrincipalStore principalStore, PrincipalStoreProperties.Cache properties, Ticker ticker, Executor refreshExecutor) {
+        if (properties.getRefreshAfter().compareTo(properties.getTtl()) >= 0) {
+            throw new IllegalArgumentException("principal.store.cache.refresh-after must be shorter than ttl");
+        }
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<String, Optional<User>>() {
+                    @Override
+                    public long expireAfterCreate(String token, Optional<User> user, long currentTime) {
+                        return user.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Optional<User> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Optional<User> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .build(principalStore::findByToken);
+    }
+
+    public Optional<User> findByToken(String token) {
+        return cache.get(token);
+    }
+
+    //로그인, 로그아웃, 권한 변경 직후 부른다. 없는 token으로 기억된 것도 지운다
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+}
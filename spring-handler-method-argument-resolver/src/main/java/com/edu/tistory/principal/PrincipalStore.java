@@ -0,0 +1,12 @@
+package com.edu.tistory.principal;
+
+import java.util.Optional;
+
+import com.edu.tistory.model.User;
+
+//token으로 로그인한 사용자를 찾는 곳. session DB나 원격 인증 서버 등으로 바꿔 끼울 수 있다
+public interface PrincipalStore {
+
+    //없는 token이면 empty. 저장소에 닿지 못하면 예외를 던진다
+    Optional<User> findByToken(String token);
+}
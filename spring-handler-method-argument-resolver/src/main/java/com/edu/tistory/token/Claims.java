@@ -0,0 +1,20 @@
+package com.edu.tistory.token;
+
+import com.edu.tistory.model.User.UserType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//token 가운데 부분. sub=userId, typ=UserType, exp=만료 시각(epoch second)
+//발급하는 쪽이 iat, iss 같은 claim을 더 넣어도 서명이 맞으면 받는다
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+class Claims {
+    private String sub;
+    private UserType typ;
+    private long exp;
+}
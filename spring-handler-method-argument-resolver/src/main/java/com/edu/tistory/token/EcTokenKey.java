@@ -0,0 +1,81 @@
+package com.edu.tistory.token;
+
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+
+//ES256(P-256). 검증하는 쪽은 public key만 가진다. 서명은 JDK Signature가 만드는 DER 형식 그대로 쓴다
+public class EcTokenKey implements TokenKey {
+
+    private static final String ALGORITHM = "SHA256withECDSA";
+    private static final ECParameterSpec P_256 = p256();
+
+    private final PublicKey publicKey;
+
+    //SHA256withECDSA는 어느 curve의 key로도 확인되므로, ES256이 아닌 key는 설정을 읽을 때 거절한다
+    public EcTokenKey(PublicKey publicKey) {
+        if (!(publicKey instanceof ECPublicKey) || !isP256(((ECPublicKey) publicKey).getParams())) {
+            throw new IllegalArgumentException("EC public key must be on P-256 (secp256r1)");
+        }
+        this.publicKey = publicKey;
+    }
+
+    //X.509(SubjectPublicKeyInfo) DER
+    public static EcTokenKey fromEncoded(byte[] encodedPublicKey) {
+        try {
+            return new EcTokenKey(KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(encodedPublicKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("invalid EC public key", e);
+        }
+    }
+
+    public static byte[] sign(PrivateKey privateKey, byte[] content) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initSign(privateKey);
+            signature.update(content);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isP256(ECParameterSpec params) {
+        return params.getCurve().equals(P_256.getCurve())
+                && params.getGenerator().equals(P_256.getGenerator())
+                && params.getOrder().equals(P_256.getOrder())
+                && params.getCofactor() == P_256.getCofactor();
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] content, byte[] signature) {
+        try {
+            Signature verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(content);
+            return verifier.verify(signature);
+        } catch (SignatureException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
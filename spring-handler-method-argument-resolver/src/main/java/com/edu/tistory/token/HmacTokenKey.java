@@ -0,0 +1,41 @@
+package com.edu.tistory.token;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+//HS256. 발급하는 쪽과 같은 secret을 나눠 가진다. Mac은 thread-safe하지 않아 thread마다 하나씩 만들어 둔다
+public class HmacTokenKey implements TokenKey {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public HmacTokenKey(byte[] secret) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("HS256 secret must be at least 256 bits");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public byte[] sign(byte[] content) {
+        return mac.get().doFinal(content);
+    }
+
+    @Override
+    public boolean verify(byte[] content, byte[] signature) {
+        //비교 시간으로 서명을 한 byte씩 맞춰 보지 못하게 끝까지 비교한다
+        return MessageDigest.isEqual(sign(content), signature);
+    }
+}
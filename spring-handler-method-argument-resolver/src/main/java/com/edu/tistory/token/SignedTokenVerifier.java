@@ -0,0 +1,155 @@
+package com.edu.tistory.token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.edu.tistory.config.SignedTokenProperties;
+import com.edu.tistory.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 서명된 token을 저장소 없이 이 서버에서 확인한다. 어느 서버로 요청이 가도 같은 결과라 sticky session이 필요 없다.
+ * - 한 번 확인한 token은 SHA-256 hash를 key로 maxTtl과 token 만료 중 빠른 쪽까지 기억한다. 자주 오는 client는 서명 확인을 건너뛴다
+ * - 원본 token은 cache에 남기지 않는다. heap dump에서 그대로 꺼내 쓸 수 없다
+ * - 실패한 token은 기억하지 않는다. 아무 문자열로 cache를 채울 수 없게 한다
+ * metrics: principal.token.verify(서명 확인 시간), principal.token.rejected{reason}, cache.gets{cache=principal.token.verified,result=hit|miss}
+ */
+public class SignedTokenVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    enum Rejection {
+        MALFORMED, UNKNOWN_KEY, BAD_SIGNATURE, EXPIRED
+    }
+
+    private final Map<String, TokenKey> keys;
+    private final Clock clock;
+    private final Cache<ByteBuffer, VerifiedToken> verified;
+    private final Timer verifyTimer;
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+
+    public SignedTokenVerifier(Map<String, TokenKey> keys, SignedTokenProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.keys = keys;
+        this.clock = clock;
+        long maxTtlNanos = properties.getMaxTtl().toNanos();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer hash, VerifiedToken token, long currentTime) {
+                        long untilExpiry = Duration.between(clock.instant(), token.getExpiresAt()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "principal.token.verified");
+        this.verifyTimer = Timer.builder("principal.token.verify").register(meterRegistry);
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("principal.token.rejected")
+                    .tag("reason", rejection.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    //서명이 틀렸거나, 모르는 kid거나, 만료됐으면 empty
+    public Optional<User> verify(String token) {
+        ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            //cache 만료는 nano tick 기준이라 token의 exp와 어긋날 수 있다. exp는 시계로 다시 확인한다
+            if (!cached.getExpiresAt().isAfter(clock.instant())) {
+                verified.invalidate(hash);
+                return reject(Rejection.EXPIRED);
+            }
+            return Optional.of(cached.getUser());
+        }
+        long start = System.nanoTime();
+        try {
+            return verifySignature(token).map(verifiedToken -> {
+                verified.put(hash, verifiedToken);
+                return verifiedToken.getUser();
+            });
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    //benchmark에서 cache 없이 부른다
+    Optional<VerifiedToken> verifySignature(String token) {
+        if (!SignedTokens.isSignedToken(token)) {
+            return reject(Rejection.MALFORMED);
+        }
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        TokenKey key = keys.get(token.substring(0, first));
+        if (key == null) {
+            return reject(Rejection.UNKNOWN_KEY);
+        }
+        Claims claims;
+        try {
+            if (!key.verify(token.substring(0, second).getBytes(StandardCharsets.US_ASCII), SignedTokens.DECODER.decode(token.substring(second + 1)))) {
+                return reject(Rejection.BAD_SIGNATURE);
+            }
+            claims = SignedTokens.OBJECT_MAPPER.readValue(SignedTokens.DECODER.decode(token.substring(first + 1, second)), Claims.class);
+        } catch (IllegalArgumentException | IOException e) {
+            return reject(Rejection.MALFORMED);
+        }
+        if (claims.getTyp() == null) {
+            return reject(Rejection.MALFORMED);
+        }
+        Instant expiresAt = Instant.ofEpochSecond(claims.getExp());
+        if (!expiresAt.isAfter(clock.instant())) {
+            return reject(Rejection.EXPIRED);
+        }
+        return Optional.of(new VerifiedToken(User.of(claims.getSub(), claims.getTyp()), expiresAt));
+    }
+
+    private <T> Optional<T> reject(Rejection rejection) {
+        rejections.get(rejection).increment();
+        return Optional.empty();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class VerifiedToken {
+        private final User user;
+        private final Instant expiresAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.edu.tistory.token;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.UnaryOperator;
+
+import com.edu.tistory.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {kid}.{base64url(claims json)}.{base64url(signature)} 형식의 token.
+ * 서명은 앞의 "{kid}.{claims}" 부분에 대해 만든다. 알고리즘은 token이 아니라 kid에 설정된 key가 정한다.
+ */
+public final class SignedTokens {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private SignedTokens() {
+    }
+
+    //signer: HmacTokenKey::sign, content -> EcTokenKey.sign(privateKey, content)
+    public static String issue(String kid, User user, Instant expiresAt, UnaryOperator<byte[]> signer) {
+        Claims claims = new Claims(user.getUserId(), user.getUserType(), expiresAt.getEpochSecond());
+        String content;
+        try {
+            content = kid + '.' + ENCODER.encodeToString(OBJECT_MAPPER.writeValueAsBytes(claims));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return content + '.' + ENCODER.encodeToString(signer.apply(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    //'.'이 정확히 두 개. 그 외의 token은 PrincipalStore에서 찾는 opaque token으로 본다
+    public static boolean isSignedToken(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        return second > 0 && token.indexOf('.', second + 1) < 0;
+    }
+}
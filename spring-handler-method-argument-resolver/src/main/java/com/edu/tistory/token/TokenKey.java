@@ -0,0 +1,8 @@
+package com.edu.tistory.token;
+
+//token 서명을 확인하는 key. kid별로 하나씩 시작할 때 만들어 두고 재사용한다
+public interface TokenKey {
+
+    //서명이 맞지 않거나 형식이 잘못된 서명이면 false
+    boolean verify(byte[] content, byte[] signature);
+}
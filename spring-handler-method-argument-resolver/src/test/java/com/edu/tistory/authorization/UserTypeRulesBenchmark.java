@@ -0,0 +1,112 @@
+package com.edu.tistory.authorization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import com.edu.tistory.model.User.UserType;
+
+/**
+ * route routes개에서 요청 하나의 UserType을 검사하는 비용.
+ * - compiled: 시작할 때 만든 bitmask 표 조회
+ * - annotationPerRequest: 요청마다 @AllowUserType을 읽어 배열을 훑는 방식
+ * - linearScan: route 목록을 앞에서부터 훑는 방식
+ * getMethod()는 부를 때마다 새 Method instance를 돌려주므로 route마다 다른 handler method처럼 쓴다.
+ *   mvn test-compile 후 IDE에서 main 실행
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserTypeRulesBenchmark {
+
+    @Param({"16", "2048", "8192"})
+    private int routes;
+
+    private final UserTypeRules rules = new UserTypeRules(null);
+    private HandlerMethod[] handlerMethods;
+    private int[] masks;
+    private int next;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        List<HandlerMethod> list = new ArrayList<>();
+        for (int i = 0; i < routes; i++) {
+            list.add(new HandlerMethod(new VipController(), VipController.class.getMethod("page")));
+        }
+        handlerMethods = list.toArray(new HandlerMethod[0]);
+        rules.setMasks(UserTypeRules.compile(list));
+        masks = new int[routes];
+        for (int i = 0; i < routes; i++) {
+            masks[i] = rules.maskOf(handlerMethods[i]);
+        }
+    }
+
+    private HandlerMethod nextHandlerMethod() {
+        next = next + 1 == routes ? 0 : next + 1;
+        return handlerMethods[next];
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return UserTypeRules.allows(rules.maskOf(nextHandlerMethod()), UserType.VIPMember);
+    }
+
+    @Benchmark
+    public boolean annotationPerRequest() {
+        HandlerMethod handlerMethod = nextHandlerMethod();
+        AllowUserType allow = handlerMethod.getMethodAnnotation(AllowUserType.class);
+        if (allow == null) {
+            allow = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), AllowUserType.class);
+        }
+        for (UserType userType : allow.value()) {
+            if (userType == UserType.VIPMember) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        HandlerMethod handlerMethod = nextHandlerMethod();
+        for (int i = 0; i < routes; i++) {
+            if (handlerMethods[i].getMethod() == handlerMethod.getMethod()) {
+                return UserTypeRules.allows(masks[i], UserType.VIPMember);
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserTypeRulesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @AllowUserType({UserType.Manager, UserType.VIPMember})
+    public static class VipController {
+
+        public void page() {
+        }
+    }
+}
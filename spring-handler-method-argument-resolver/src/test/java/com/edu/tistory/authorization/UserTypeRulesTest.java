@@ -0,0 +1,83 @@
+package com.edu.tistory.authorization;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import com.edu.tistory.model.User.UserType;
+
+public class UserTypeRulesTest {
+
+    private final UserTypeRules rules = new UserTypeRules(null);
+
+    private HandlerMethod classRule;
+    private HandlerMethod methodRule;
+    private HandlerMethod open;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        classRule = new HandlerMethod(new VipController(), "page");
+        methodRule = new HandlerMethod(new VipController(), "managerPage");
+        open = new HandlerMethod(new OpenController(), "page");
+        rules.setMasks(UserTypeRules.compile(Arrays.asList(classRule, methodRule, open)));
+    }
+
+    @Test
+    public void class에_붙은_rule을_method가_물려받음() {
+        //when
+        int mask = rules.maskOf(classRule);
+
+        //then
+        assertTrue(UserTypeRules.allows(mask, UserType.Manager));
+        assertTrue(UserTypeRules.allows(mask, UserType.VIPMember));
+        assertFalse(UserTypeRules.allows(mask, UserType.Member));
+    }
+
+    @Test
+    public void method에_붙은_rule이_class보다_먼저() {
+        //when
+        int mask = rules.maskOf(methodRule);
+
+        //then
+        assertTrue(UserTypeRules.allows(mask, UserType.Manager));
+        assertFalse(UserTypeRules.allows(mask, UserType.VIPMember));
+    }
+
+    @Test
+    public void rule이_없으면_검사하지_않음() {
+        assertThat(rules.maskOf(open), is(UserTypeRules.UNRESTRICTED));
+    }
+
+    @Test
+    public void 요청마다_새로_만든_HandlerMethod도_같은_rule을_찾음() throws NoSuchMethodException {
+        //given
+        HandlerMethod perRequest = new HandlerMethod(new VipController(), classRule.getMethod());
+
+        //when, then
+        assertThat(rules.maskOf(perRequest), is(UserTypeRules.mask(UserType.Manager, UserType.VIPMember)));
+    }
+
+    @AllowUserType({UserType.Manager, UserType.VIPMember})
+    static class VipController {
+
+        public void page() {
+        }
+
+        @AllowUserType(UserType.Manager)
+        public void managerPage() {
+        }
+    }
+
+    static class OpenController {
+
+        public void page() {
+        }
+    }
+}
@@ -5,11 +5,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
+import java.util.Base64;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,15 +21,29 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import com.edu.tistory.SpringFoApplication;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+import com.edu.tistory.token.HmacTokenKey;
+import com.edu.tistory.token.SignedTokens;
 
 import lombok.extern.slf4j.Slf4j;
 
-@SpringBootTest(classes = SpringFoApplication.class)
+@SpringBootTest(classes = SpringFoApplication.class, properties = {
+        "principal.store.local.tokens.manager-token.user-id=aaa",
+        "principal.store.local.tokens.manager-token.user-type=Manager",
+        "principal.store.local.tokens.vip-token.user-id=bbb",
+        "principal.store.local.tokens.vip-token.user-type=VIPMember",
+        "principal.store.local.tokens.member-token.user-id=ccc",
+        "principal.token.enabled=true",
+        "principal.token.keys.test.hmac-secret=" + LoginControllerTest.HMAC_SECRET
+})
 @RunWith(SpringRunner.class)
 @WebAppConfiguration
 @Slf4j
 public class LoginControllerTest {
 
+    static final String HMAC_SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
     @Autowired
     private WebApplicationContext wac;
 
@@ -39,10 +57,51 @@ public class LoginControllerTest {
     @Test
     public void test() throws Exception {
         this.mock.perform(get("/login/manager")
-                .param("userId", "ccc")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer member-token")
         )
                 .andDo(print())
-                .andExpect(status().is4xxClientError());
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void token이_없으면_401() throws Exception {
+        this.mock.perform(get("/login/manager"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void manager_token이면_manager_page_200() throws Exception {
+        this.mock.perform(get("/login/manager")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer manager-token")
+        )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void 서명된_token은_저장소_없이_확인() throws Exception {
+        String token = SignedTokens.issue("test", User.of("ddd", UserType.Manager), Instant.now().plusSeconds(60),
+                new HmacTokenKey(Base64.getDecoder().decode(HMAC_SECRET))::sign);
+
+        this.mock.perform(get("/login/manager")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+        )
+                .andExpect(status().isOk());
+        this.mock.perform(get("/login/manager")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x")
+        )
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void vip_token이면_vip_page_200_member_page_403() throws Exception {
+        this.mock.perform(get("/login/vip")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer vip-token")
+        )
+                .andExpect(status().isOk());
+        this.mock.perform(get("/login/member")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer vip-token")
+        )
+                .andExpect(status().isForbidden());
     }
 
 }
@@ -0,0 +1,99 @@
+package com.edu.tistory.custom;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.edu.tistory.config.PrincipalStoreProperties;
+import com.edu.tistory.controller.LoginController;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+import com.edu.tistory.principal.LocalPrincipalStore;
+import com.edu.tistory.principal.PrincipalCache;
+
+/**
+ * 요청 하나에서 @LoginUser parameter parameters개를 푸는 비용. lookupEveryTime은 parameter마다 token을 읽어
+ * principal cache에서 찾고, memoized는 처음 찾은 User를 request attribute에 담아 재사용한다.
+ * 둘 다 principal cache에 이미 올라간 token을 푼다.
+ * 요청 객체는 재사용하고 매 측정마다 memoization attribute만 지워 새 요청처럼 만든다.
+ *   mvn test-compile 후 IDE에서 main 실행. 할당률(gc.alloc.rate.norm)을 함께 출력한다
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginUserResolverBenchmark {
+
+    @Param({"1", "3"})
+    private int parameters;
+
+    private final PrincipalCache principalCache = localPrincipalCache();
+    private final LoginUserResolver resolver = new LoginUserResolver(principalCache);
+    private MethodParameter parameter;
+    private MockHttpServletRequest servletRequest;
+    private NativeWebRequest webRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        parameter = new MethodParameter(LoginController.class.getMethod("pageForManager", User.class), 0);
+        servletRequest = new MockHttpServletRequest("GET", "/login/manager");
+        servletRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer aaa-token");
+        webRequest = new ServletWebRequest(servletRequest);
+    }
+
+    @Benchmark
+    public void lookupEveryTime(Blackhole blackhole) {
+        for (int i = 0; i < parameters; i++) {
+            if (resolver.supportsParameter(parameter)) {
+                String token = servletRequest.getHeader(HttpHeaders.AUTHORIZATION).substring("Bearer ".length());
+                blackhole.consume(principalCache.findByToken(token).get());
+            }
+        }
+    }
+
+    @Benchmark
+    public void memoized(Blackhole blackhole) throws Exception {
+        servletRequest.removeAttribute(LoginUserResolver.LOGIN_USER_ATTRIBUTE);
+        for (int i = 0; i < parameters; i++) {
+            if (resolver.supportsParameter(parameter)) {
+                blackhole.consume(resolver.resolveArgument(parameter, null, webRequest, null));
+            }
+        }
+    }
+
+    private static PrincipalCache localPrincipalCache() {
+        LocalPrincipalStore store = new LocalPrincipalStore(Duration.ZERO);
+        store.put("aaa-token", User.of("aaa", UserType.Manager));
+        return new PrincipalCache(store, new PrincipalStoreProperties.Cache());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginUserResolverBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
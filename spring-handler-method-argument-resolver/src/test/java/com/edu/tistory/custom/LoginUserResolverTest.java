@@ -0,0 +1,96 @@
+package com.edu.tistory.custom;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.edu.tistory.config.PrincipalStoreProperties;
+import com.edu.tistory.controller.LoginController;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+import com.edu.tistory.principal.LocalPrincipalStore;
+import com.edu.tistory.principal.PrincipalCache;
+
+public class LoginUserResolverTest {
+
+    private final LocalPrincipalStore store = new LocalPrincipalStore(Duration.ZERO);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final LoginUserResolver resolver = new LoginUserResolver(new PrincipalCache(token -> {
+        lookups.incrementAndGet();
+        return store.findByToken(token);
+    }, new PrincipalStoreProperties.Cache()));
+
+    @Test
+    public void 같은_요청에서는_처음_찾은_User를_재사용() throws Exception {
+        //given
+        store.put("manager-token", User.of("aaa", UserType.Manager));
+        ServletWebRequest request = request("Bearer manager-token");
+
+        //when
+        Object first = resolver.resolveArgument(userParameter(), null, request, null);
+        Object second = resolver.resolveArgument(userParameter(), null, request, null);
+
+        //then
+        assertThat(second, sameInstance(first));
+        assertThat(request.getRequest().getAttribute(LoginUserResolver.LOGIN_USER_ATTRIBUTE), sameInstance(first));
+        assertThat(((User) first).getUserType(), is(UserType.Manager));
+        assertThat(lookups.get(), is(1));
+    }
+
+    @Test
+    public void 다른_요청도_cache에서_찾음() throws Exception {
+        //given
+        store.put("vip-token", User.of("bbb", UserType.VIPMember));
+
+        //when
+        Object first = resolver.resolveArgument(userParameter(), null, request("Bearer vip-token"), null);
+        Object second = resolver.resolveArgument(userParameter(), null, request("Bearer vip-token"), null);
+
+        //then
+        assertThat(second, sameInstance(first));
+        assertThat(lookups.get(), is(1));
+    }
+
+    @Test(expected = LoginRequiredException.class)
+    public void 없는_token이면_로그인_필요() throws Exception {
+        resolver.resolveArgument(userParameter(), null, request("Bearer unknown"), null);
+    }
+
+    @Test(expected = LoginRequiredException.class)
+    public void token이_없으면_로그인_필요() throws Exception {
+        resolver.resolveArgument(userParameter(), null, request(null), null);
+    }
+
+    @Test
+    public void User_parameter만_지원() throws Exception {
+        //given
+        MethodParameter index = new MethodParameter(String.class.getMethod("charAt", int.class), 0);
+
+        //when, then
+        assertTrue(resolver.supportsParameter(userParameter()));
+        assertFalse(resolver.supportsParameter(index));
+    }
+
+    private static MethodParameter userParameter() throws NoSuchMethodException {
+        return new MethodParameter(LoginController.class.getMethod("pageForManager", User.class), 0);
+    }
+
+    private static ServletWebRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login/manager");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return new ServletWebRequest(request);
+    }
+}
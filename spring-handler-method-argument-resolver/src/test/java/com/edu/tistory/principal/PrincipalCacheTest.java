@@ -0,0 +1,111 @@
+package com.edu.tistory.principal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.edu.tistory.config.PrincipalStoreProperties;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+
+public class PrincipalCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final LocalPrincipalStore store = new LocalPrincipalStore(Duration.ZERO);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final PrincipalCache cache = new PrincipalCache(token -> {
+        lookups.incrementAndGet();
+        return store.findByToken(token);
+    }, properties(), nanos::get, Runnable::run);
+
+    @Test
+    public void 찾은_사용자는_ttl_동안_저장소에_가지_않음() {
+        //given
+        store.put("token", User.of("aaa", UserType.Manager));
+        cache.findByToken("token");
+
+        //when
+        advance(Duration.ofSeconds(59));
+        cache.findByToken("token");
+
+        //then
+        assertThat(lookups.get(), is(1));
+    }
+
+    @Test
+    public void 없는_token은_negativeTtl이_지나면_다시_찾음() {
+        //given
+        assertFalse(cache.findByToken("token").isPresent());
+        store.put("token", User.of("aaa", UserType.Manager));
+
+        //when
+        advance(Duration.ofSeconds(9));
+        boolean beforeExpiry = cache.findByToken("token").isPresent();
+        advance(Duration.ofSeconds(2));
+        boolean afterExpiry = cache.findByToken("token").isPresent();
+
+        //then
+        assertFalse(beforeExpiry);
+        assertTrue(afterExpiry);
+        assertThat(lookups.get(), is(2));
+    }
+
+    @Test
+    public void refreshAfter가_지나면_이전_값을_주고_다시_읽음() {
+        //given
+        store.put("token", User.of("aaa", UserType.Member));
+        cache.findByToken("token");
+        store.put("token", User.of("aaa", UserType.Manager));
+
+        //when
+        advance(Duration.ofMinutes(2));
+        UserType stale = cache.findByToken("token").get().getUserType();
+        UserType refreshed = cache.findByToken("token").get().getUserType();
+
+        //then
+        assertThat(stale, is(UserType.Member));
+        assertThat(refreshed, is(UserType.Manager));
+        assertThat(lookups.get(), is(2));
+    }
+
+    @Test
+    public void invalidate하면_바로_다시_찾음() {
+        //given
+        store.put("token", User.of("aaa", UserType.Manager));
+        cache.findByToken("token");
+        store.remove("token");
+
+        //when
+        cache.invalidate("token");
+
+        //then
+        assertFalse(cache.findByToken("token").isPresent());
+        assertThat(lookups.get(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refreshAfter가_ttl보다_길면_실패() {
+        PrincipalStoreProperties.Cache properties = properties();
+        properties.setRefreshAfter(properties.getTtl());
+        new PrincipalCache(store, properties);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static PrincipalStoreProperties.Cache properties() {
+        PrincipalStoreProperties.Cache properties = new PrincipalStoreProperties.Cache();
+        properties.setTtl(Duration.ofMinutes(5));
+        properties.setRefreshAfter(Duration.ofMinutes(1));
+        properties.setNegativeTtl(Duration.ofSeconds(10));
+        return properties;
+    }
+}
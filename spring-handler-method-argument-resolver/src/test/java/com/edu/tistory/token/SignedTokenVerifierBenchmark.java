@@ -0,0 +1,85 @@
+package com.edu.tistory.token;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.edu.tistory.config.SignedTokenProperties;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 같은 token을 반복해서 확인하는 비용. cached는 token hash로 cache를 찾고, uncached는 매번 서명을 확인하고 claims를 읽는다.
+ *   mvn test-compile 후 IDE에서 main 실행
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignedTokenVerifierBenchmark {
+
+    @Param({"hs", "es"})
+    private String kid;
+
+    private SignedTokenVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        HmacTokenKey hmacKey = new HmacTokenKey(new byte[32]);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecKeyPair = generator.generateKeyPair();
+
+        Map<String, TokenKey> keys = new HashMap<>();
+        keys.put("hs", hmacKey);
+        keys.put("es", EcTokenKey.fromEncoded(ecKeyPair.getPublic().getEncoded()));
+        verifier = new SignedTokenVerifier(keys, new SignedTokenProperties(), Clock.systemUTC(), new SimpleMeterRegistry());
+
+        User user = User.of("aaa", UserType.Manager);
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        token = "hs".equals(kid)
+                ? SignedTokens.issue(kid, user, expiresAt, hmacKey::sign)
+                : SignedTokens.issue(kid, user, expiresAt, content -> EcTokenKey.sign(ecKeyPair.getPrivate(), content));
+    }
+
+    @Benchmark
+    public Object cached() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Object uncached() {
+        return verifier.verifySignature(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SignedTokenVerifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
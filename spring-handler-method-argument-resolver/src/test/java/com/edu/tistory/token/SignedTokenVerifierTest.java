@@ -0,0 +1,189 @@
+package com.edu.tistory.token;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.edu.tistory.config.SignedTokenProperties;
+import com.edu.tistory.model.User;
+import com.edu.tistory.model.User.UserType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SignedTokenVerifierTest {
+
+    private final HmacTokenKey hmacKey = new HmacTokenKey(new byte[32]);
+    private final MutableClock clock = new MutableClock(Instant.parse("2019-03-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KeyPair ecKeyPair;
+    private SignedTokenVerifier verifier;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = generator.generateKeyPair();
+
+        Map<String, TokenKey> keys = new HashMap<>();
+        keys.put("hs", hmacKey);
+        keys.put("es", EcTokenKey.fromEncoded(ecKeyPair.getPublic().getEncoded()));
+        verifier = new SignedTokenVerifier(keys, new SignedTokenProperties(), clock, meterRegistry);
+    }
+
+    @Test
+    public void HMAC_token에서_userId와_UserType을_꺼냄() {
+        //given
+        String token = SignedTokens.issue("hs", User.of("aaa", UserType.Manager), clock.instant().plusSeconds(60), hmacKey::sign);
+
+        //when
+        User user = verifier.verify(token).get();
+
+        //then
+        assertThat(user.getUserId(), is("aaa"));
+        assertThat(user.getUserType(), is(UserType.Manager));
+    }
+
+    @Test
+    public void EC_token도_public_key로_확인() {
+        //given
+        String token = SignedTokens.issue("es", User.of("bbb", UserType.VIPMember), clock.instant().plusSeconds(60),
+                content -> EcTokenKey.sign(ecKeyPair.getPrivate(), content));
+
+        //when
+        User user = verifier.verify(token).get();
+
+        //then
+        assertThat(user.getUserType(), is(UserType.VIPMember));
+    }
+
+    @Test
+    public void 모르는_claim이_더_있어도_서명이_맞으면_받음() {
+        //given
+        String claims = "{\"sub\":\"ddd\",\"typ\":\"Member\",\"exp\":" + clock.instant().plusSeconds(60).getEpochSecond()
+                + ",\"iat\":" + clock.instant().getEpochSecond() + ",\"iss\":\"auth\"}";
+        String content = "hs." + Base64.getUrlEncoder().withoutPadding().encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        String token = content + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(hmacKey.sign(content.getBytes(StandardCharsets.US_ASCII)));
+
+        //when
+        User user = verifier.verify(token).get();
+
+        //then
+        assertThat(user.getUserId(), is("ddd"));
+        assertThat(user.getUserType(), is(UserType.Member));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void P_256이_아닌_EC_key는_거절() throws Exception {
+        //given
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp384r1"));
+
+        //when, then
+        EcTokenKey.fromEncoded(generator.generateKeyPair().getPublic().getEncoded());
+    }
+
+    @Test
+    public void 같은_token은_서명을_한_번만_확인() {
+        //given
+        String token = SignedTokens.issue("hs", User.of("aaa", UserType.Manager), clock.instant().plusSeconds(60), hmacKey::sign);
+
+        //when
+        verifier.verify(token);
+        verifier.verify(token);
+        verifier.verify(token);
+
+        //then
+        assertThat(meterRegistry.get("principal.token.verify").timer().count(), is(1L));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principal.token.verified").tag("result", "hit").functionCounter().count(), is(2.0));
+    }
+
+    @Test
+    public void claims를_바꾸면_거절() {
+        //given
+        String token = SignedTokens.issue("hs", User.of("ccc", UserType.Member), clock.instant().plusSeconds(60), hmacKey::sign);
+        String forged = SignedTokens.issue("hs", User.of("ccc", UserType.Manager), clock.instant().plusSeconds(60), hmacKey::sign);
+        String[] tokenParts = token.split("\\.");
+        String[] forgedParts = forged.split("\\.");
+
+        //when, then
+        assertFalse(verifier.verify(tokenParts[0] + "." + forgedParts[1] + "." + tokenParts[2]).isPresent());
+        assertThat(rejected("bad_signature"), is(1.0));
+    }
+
+    @Test
+    public void 모르는_kid나_형식이_틀린_token은_거절() {
+        //given
+        String token = SignedTokens.issue("other", User.of("aaa", UserType.Manager), clock.instant().plusSeconds(60), hmacKey::sign);
+
+        //when, then
+        assertFalse(verifier.verify(token).isPresent());
+        assertFalse(verifier.verify("hs.e30.not-base64!").isPresent());
+        assertThat(rejected("unknown_key"), is(1.0));
+        assertThat(rejected("malformed"), is(1.0));
+    }
+
+    @Test
+    public void cache에_있어도_만료되면_거절() {
+        //given
+        String token = SignedTokens.issue("hs", User.of("aaa", UserType.Manager), clock.instant().plusSeconds(60), hmacKey::sign);
+        verifier.verify(token);
+
+        //when
+        clock.advance(Duration.ofSeconds(60));
+
+        //then
+        assertFalse(verifier.verify(token).isPresent());
+        assertFalse(verifier.verify(token).isPresent());
+        assertThat(rejected("expired"), is(2.0));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("principal.token.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.threads.virtual.enabled=true면 Tomcat 요청을 platform thread pool 대신 요청마다 virtual thread에서 처리한다.
+ * /delay처럼 I/O에 오래 묶이는 요청이 많을 때 동시에 처리할 수 있는 요청 수가 thread pool 크기에 묶이지 않는다.
+ * Tomcat 9.0.1x는 요청 처리 전체를 synchronized 안에서 실행해 carrier thread가 묶이므로,
+ * 이 모드는 Boot 2.7(Tomcat 9.0.8x)과 Java 21 이상에서만 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(virtualThreadExecutor));
+    }
+
+    //Tomcat은 외부에서 넘긴 executor를 닫지 않는다
+    @Override
+    public void destroy() {
+        virtualThreadExecutor.shutdown();
+    }
+
+}
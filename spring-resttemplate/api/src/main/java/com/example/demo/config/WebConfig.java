@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import com.example.demo.filter.GzipRequestFilter;
+
+@Configuration
+public class WebConfig {
+
+    //응답 body의 해시로 ETag를 만들고, If-None-Match가 일치하면 body 없이 304를 내려준다
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/json", "/xml", "/json/batch", "/xml/batch");
+        return registration;
+    }
+
+    //압축을 푼 body가 이 크기를 넘으면 413
+    @Bean
+    public FilterRegistrationBean<GzipRequestFilter> gzipRequestFilter(
+            @Value("${api.gzip-request.max-inflated-size}") DataSize maxInflatedSize) {
+        return new FilterRegistrationBean<>(new GzipRequestFilter(maxInflatedSize.toBytes()));
+    }
+
+}
@@ -1,18 +1,28 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import javax.servlet.http.HttpServletRequest;
 
-import org.jboss.logging.Param;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.demo.vo.JsonVo;
 import com.example.demo.vo.XmlVo;
+import com.example.demo.vo.XmlVoList;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,20 +30,65 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class APIController {
 	
-	//xml return
-	@GetMapping(value = "/xml", produces = "application/xml")
-	public XmlVo getXmlData() {
-		return new XmlVo();
+	private static final int MAX_BATCH_SIZE = 1000;
+	private static final int STREAM_BUFFER_SIZE = 8192;
+	private static final long MAX_DELAY_MILLIS = 10_000;
+	
+	//고정 응답이므로 클라이언트가 캐시하도록 허용. ETag는 WebConfig의 ShallowEtagHeaderFilter가 붙인다
+	private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(60, TimeUnit.SECONDS);
+	
+	//xml return (service 간 통신은 Accept: application/cbor로 binary 요청 가능)
+	@GetMapping(value = "/xml", produces = {"application/xml", "application/cbor"})
+	public ResponseEntity<XmlVo> getXmlData() {
+		return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(new XmlVo());
+	}
+	
+	//json return (Accept: application/cbor면 CBOR)
+	@GetMapping(value = "/json", produces = {"application/json", "application/cbor"})
+	public ResponseEntity<JsonVo> getJsonData() {
+		return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(new JsonVo());
 	}
 	
-	//json return
-	@GetMapping("/json")
-	public JsonVo getJsonData() {
-		return new JsonVo();
+	//batch xml return: 여러 건을 한 번의 왕복으로
+	@GetMapping(value = "/xml/batch", produces = {"application/xml", "application/cbor"})
+	public ResponseEntity<XmlVoList> getXmlDataBatch(@RequestParam("size") int size) {
+		if(size < 1 || size > MAX_BATCH_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		List<XmlVo> xmlVos = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			xmlVos.add(new XmlVo());
+		}
+		return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(new XmlVoList(xmlVos));
+	}
+	
+	//batch json return
+	@GetMapping(value = "/json/batch", produces = {"application/json", "application/cbor"})
+	public ResponseEntity<List<JsonVo>> getJsonDataBatch(@RequestParam("size") int size) {
+		if(size < 1 || size > MAX_BATCH_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		List<JsonVo> jsonVos = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			jsonVos.add(new JsonVo());
+		}
+		return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(jsonVos);
+	}
+	
+	//느린 downstream I/O 흉내: millis 만큼 요청 스레드를 붙잡아 둔다 (thread-per-request 동시성 측정용)
+	@GetMapping(value = "/delay", produces = {"application/json", "application/cbor"})
+	public ResponseEntity<JsonVo> getJsonDataDelayed(@RequestParam("millis") long millis) throws InterruptedException {
+		if(millis < 0 || millis > MAX_DELAY_MILLIS) {
+			return ResponseEntity.badRequest().build();
+		}
+		Thread.sleep(millis);
+		return ResponseEntity.ok(new JsonVo());
 	}
 	
 	//check header
-	@GetMapping("/entity")
+	//String 응답은 text/plain으로 고정한다. RestTemplate처럼 Accept에 media type을 많이 보내면
+	//Spring 5.3은 후보 media type을 정렬하다 "Comparison method violates its general contract!"로 실패한다
+	@GetMapping(value = "/entity", produces = MediaType.TEXT_PLAIN_VALUE)
 	public ResponseEntity<String> checkHeader(@RequestParam("name") String name, HttpServletRequest httpServletRequest) {
 		if(!httpServletRequest.getHeader("Authentication").equals("LEMON")) {
 			return new ResponseEntity<>("permission denied", HttpStatus.UNAUTHORIZED);
@@ -42,9 +97,35 @@ public class APIController {
 	}
 	
 	//post 
-	@PostMapping("/post")
+	@PostMapping(value = "/post", produces = MediaType.TEXT_PLAIN_VALUE)
 	public ResponseEntity<String> postForEntity(String contents){
 		log.info("contents: {}", contents);
 		return new ResponseEntity<>("Success Response", HttpStatus.OK);
 	}
+	
+	//streaming upload: body를 String으로 바인딩하지 않고 읽는 만큼만 버퍼에 둔다
+	@PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+	public ResponseEntity<String> upload(InputStream body) throws IOException {
+		byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+		long received = 0;
+		int read;
+		while((read = body.read(buffer)) != -1) {
+			received += read;
+		}
+		log.info("uploaded bytes: {}", received);
+		return new ResponseEntity<>(String.valueOf(received), HttpStatus.OK);
+	}
+	
+	//streaming download: size byte를 chunk 단위로 써서 내려준다
+	@GetMapping(value = "/download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<StreamingResponseBody> download(@RequestParam("size") long size) {
+		StreamingResponseBody body = outputStream -> {
+			byte[] chunk = new byte[STREAM_BUFFER_SIZE];
+			Arrays.fill(chunk, (byte) 'a');
+			for(long remaining = size; remaining > 0; remaining -= chunk.length) {
+				outputStream.write(chunk, 0, (int) Math.min(chunk.length, remaining));
+			}
+		};
+		return ResponseEntity.ok().contentLength(size).body(body);
+	}
 }
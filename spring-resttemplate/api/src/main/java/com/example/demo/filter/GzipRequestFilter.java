@@ -0,0 +1,400 @@
+package com.example.demo.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Content-Encoding: gzip 요청 body를 읽는 시점에 풀어준다.
+ * Tomcat은 응답 압축(server.compression)만 지원하므로 요청 쪽은 직접 처리한다.
+ * 전체를 메모리에 올리지 않고 stream으로 감싸기만 한다.
+ * 작은 압축 body가 크게 풀리는 요청을 막기 위해 풀린 크기가 maxInflatedSize를 넘으면 413으로 거절한다.
+ */
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+	private final long maxInflatedSize;
+
+	public GzipRequestFilter(long maxInflatedSize) {
+		this.maxInflatedSize = maxInflatedSize;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+			filterChain.doFilter(new GzipRequestWrapper(request, maxInflatedSize), response);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	private static class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+		private final long maxInflatedSize;
+		private ServletInputStream inputStream;
+
+		GzipRequestWrapper(HttpServletRequest request, long maxInflatedSize) {
+			super(request);
+			this.maxInflatedSize = maxInflatedSize;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if(inputStream == null) {
+				inputStream = new GzipServletInputStream(super.getInputStream(), maxInflatedSize);
+			}
+			return inputStream;
+		}
+
+		//압축 해제 후의 길이는 알 수 없다
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			if(isHiddenHeader(name)) {
+				return null;
+			}
+			return super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			if(isHiddenHeader(name)) {
+				return Collections.emptyEnumeration();
+			}
+			return super.getHeaders(name);
+		}
+
+		private boolean isHiddenHeader(String name) {
+			return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+		}
+	}
+
+	/**
+	 * 풀린 body가 한도를 넘었다. controller가 직접 읽다 받으면 그대로, @RequestBody 변환 중이면 HttpMessageNotReadableException의
+	 * cause로 오는데, ResponseStatusExceptionResolver가 cause의 @ResponseStatus도 찾으므로 어느 쪽이든 413이 된다.
+	 */
+	@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+	public static class InflatedBodyTooLargeException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		InflatedBodyTooLargeException(long maxInflatedSize) {
+			super("Inflated gzip request body exceeds " + maxInflatedSize + " bytes");
+		}
+	}
+
+	//gzip 형식이 아니거나 깨진 body. 413과 같은 방식으로 400이 된다
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public static class MalformedGzipBodyException extends ZipException {
+
+		private static final long serialVersionUID = 1L;
+
+		MalformedGzipBodyException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * gzip body를 Inflater로 직접 푼다. GZIPInputStream은 압축된 byte가 더 필요하면 원래 stream을 막고 읽으므로
+	 * non-blocking read(setReadListener)에서는 쓸 수 없다. 여기서는 원래 stream이 isReady()일 때만 읽고,
+	 * 풀린 byte가 있을 때만 isReady()가 true다. blocking read에서는 원래 stream을 그대로 기다린다.
+	 * RFC 1952대로 member가 이어 붙은 body는 차례로 풀고, member 뒤에 gzip이 아닌 byte가 있으면 실패한다.
+	 */
+	static class GzipServletInputStream extends ServletInputStream {
+
+		private static final int FHCRC = 2;
+		private static final int FEXTRA = 4;
+		private static final int FNAME = 8;
+		private static final int FCOMMENT = 16;
+		private static final int TRAILER_LENGTH = 8;
+
+		private enum State {
+			HEADER, BODY, TRAILER, MEMBER_END, FINISHED
+		}
+
+		private final ServletInputStream compressed;
+		private final long maxInflatedSize;
+		private final Inflater inflater = new Inflater(true);
+		private final CRC32 crc = new CRC32();
+		private final byte[] input = new byte[8192];
+		private final byte[] output = new byte[8192];
+		private final ByteArrayOutputStream header = new ByteArrayOutputStream();
+		private final byte[] trailer = new byte[TRAILER_LENGTH];
+		private int inputPos;
+		private int inputLimit;
+		private int outputPos;
+		private int outputLimit;
+		private int trailerLength;
+		private long inflatedSize;
+		private State state = State.HEADER;
+		private ReadListener readListener;
+
+		GzipServletInputStream(ServletInputStream compressed, long maxInflatedSize) {
+			this.compressed = compressed;
+			this.maxInflatedSize = maxInflatedSize;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if(!inflateForRead()) {
+				return -1;
+			}
+			return output[outputPos++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if(len == 0) {
+				return 0;
+			}
+			if(!inflateForRead()) {
+				return -1;
+			}
+			int read = Math.min(len, outputLimit - outputPos);
+			System.arraycopy(output, outputPos, b, off, read);
+			outputPos += read;
+			return read;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return state == State.FINISHED && outputPos == outputLimit;
+		}
+
+		@Override
+		public boolean isReady() {
+			try {
+				return inflate(false);
+			} catch (IOException e) {
+				//읽을 때 같은 예외가 다시 난다. 지금은 read()를 불러 예외를 받게 한다
+				return true;
+			}
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			this.readListener = readListener;
+			compressed.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					readListener.onDataAvailable();
+				}
+
+				//압축된 body는 다 받았으므로 남은 byte는 막히지 않고 풀 수 있다
+				@Override
+				public void onAllDataRead() throws IOException {
+					if(!isFinished()) {
+						readListener.onDataAvailable();
+					}
+					if(isFinished()) {
+						readListener.onAllDataRead();
+					}
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					readListener.onError(t);
+				}
+			});
+		}
+
+		@Override
+		public void close() throws IOException {
+			inflater.end();
+			compressed.close();
+		}
+
+		//풀린 byte가 있으면 true, body 끝이면 false
+		private boolean inflateForRead() throws IOException {
+			if(!inflate(readListener == null)) {
+				throw new IllegalStateException("read() called while isReady() is false");
+			}
+			return outputPos < outputLimit;
+		}
+
+		//풀린 byte가 있거나 끝까지 읽었으면 true. blocking이 아니면 원래 stream이 준비되지 않았을 때 false
+		private boolean inflate(boolean blocking) throws IOException {
+			while(outputPos == outputLimit && state != State.FINISHED) {
+				if(inputPos == inputLimit && (state != State.BODY || inflater.needsInput())) {
+					//다 받은 non-blocking stream은 isReady()가 false이고 read()는 예외다
+					if(!blocking && !compressed.isFinished() && !compressed.isReady()) {
+						return false;
+					}
+					int read = compressed.isFinished() ? -1 : compressed.read(input, 0, input.length);
+					if(read == -1 && state == State.MEMBER_END) {
+						state = State.FINISHED;
+						continue;
+					}
+					if(read == -1) {
+						throw new MalformedGzipBodyException("Unexpected end of gzip request body");
+					}
+					inputPos = 0;
+					inputLimit = read;
+					if(state == State.BODY && read > 0) {
+						inflater.setInput(input, 0, read);
+						inputPos = inputLimit;
+					}
+					continue;
+				}
+				switch(state) {
+				case HEADER:
+					readHeader();
+					break;
+				case BODY:
+					inflateBody();
+					break;
+				case TRAILER:
+					readTrailer();
+					break;
+				case MEMBER_END:
+					startNextMember();
+					break;
+				default:
+					break;
+				}
+			}
+			return true;
+		}
+
+		private void readHeader() throws IOException {
+			header.write(input, inputPos, inputLimit - inputPos);
+			int headerLength = headerLength(header.toByteArray());
+			if(headerLength < 0) {
+				inputPos = inputLimit;
+				return;
+			}
+			//header는 마지막으로 받은 chunk 안에서 끝난다. 그 뒤는 압축된 body다
+			inputPos = inputLimit - (header.size() - headerLength);
+			state = State.BODY;
+			if(inputPos < inputLimit) {
+				inflater.setInput(input, inputPos, inputLimit - inputPos);
+				inputPos = inputLimit;
+			}
+		}
+
+		private void inflateBody() throws IOException {
+			//한도를 넘은 뒤 다시 읽어도 같은 예외를 낸다
+			if(inflatedSize > maxInflatedSize) {
+				throw new InflatedBodyTooLargeException(maxInflatedSize);
+			}
+			int inflated;
+			try {
+				inflated = inflater.inflate(output, 0, output.length);
+			} catch (DataFormatException e) {
+				throw new MalformedGzipBodyException(e.getMessage());
+			}
+			if(inflated > 0) {
+				inflatedSize += inflated;
+				if(inflatedSize > maxInflatedSize) {
+					throw new InflatedBodyTooLargeException(maxInflatedSize);
+				}
+				crc.update(output, 0, inflated);
+				outputPos = 0;
+				outputLimit = inflated;
+			}
+			if(inflater.finished()) {
+				inputPos = inputLimit - inflater.getRemaining();
+				state = State.TRAILER;
+			} else if(inflater.needsDictionary()) {
+				throw new MalformedGzipBodyException("gzip body requires a preset dictionary");
+			}
+		}
+
+		private void readTrailer() throws IOException {
+			int read = Math.min(TRAILER_LENGTH - trailerLength, inputLimit - inputPos);
+			System.arraycopy(input, inputPos, trailer, trailerLength, read);
+			inputPos += read;
+			trailerLength += read;
+			if(trailerLength < TRAILER_LENGTH) {
+				return;
+			}
+			if(littleEndianInt(trailer, 0) != crc.getValue()) {
+				throw new MalformedGzipBodyException("Corrupt GZIP trailer");
+			}
+			if(littleEndianInt(trailer, 4) != (inflater.getBytesWritten() & 0xffffffffL)) {
+				throw new MalformedGzipBodyException("Corrupt GZIP trailer");
+			}
+			state = State.MEMBER_END;
+		}
+
+		//trailer 뒤에 byte가 더 있으면 다음 member의 header로 읽는다
+		private void startNextMember() {
+			header.reset();
+			inflater.reset();
+			crc.reset();
+			trailerLength = 0;
+			state = State.HEADER;
+		}
+
+		//RFC 1952 header 길이. 아직 다 받지 못했으면 -1
+		private static int headerLength(byte[] header) throws ZipException {
+			if(header.length < 10) {
+				return -1;
+			}
+			if((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b) {
+				throw new MalformedGzipBodyException("Not in GZIP format");
+			}
+			if(header[2] != 8) {
+				throw new MalformedGzipBodyException("Unsupported compression method");
+			}
+			int flags = header[3] & 0xff;
+			int pos = 10;
+			if((flags & FEXTRA) != 0) {
+				if(header.length < pos + 2) {
+					return -1;
+				}
+				pos += 2 + ((header[pos] & 0xff) | (header[pos + 1] & 0xff) << 8);
+			}
+			if((flags & FNAME) != 0) {
+				pos = skipZeroTerminated(header, pos);
+			}
+			if((flags & FCOMMENT) != 0) {
+				pos = skipZeroTerminated(header, pos);
+			}
+			if((flags & FHCRC) != 0 && pos >= 0) {
+				pos += 2;
+			}
+			return pos < 0 || pos > header.length ? -1 : pos;
+		}
+
+		private static int skipZeroTerminated(byte[] header, int pos) {
+			for(int i = Math.max(pos, 0); pos >= 0 && i < header.length; i++) {
+				if(header[i] == 0) {
+					return i + 1;
+				}
+			}
+			return -1;
+		}
+
+		private static long littleEndianInt(byte[] b, int off) {
+			return (b[off] & 0xffL) | (b[off + 1] & 0xffL) << 8 | (b[off + 2] & 0xffL) << 16 | (b[off + 3] & 0xffL) << 24;
+		}
+	}
+}
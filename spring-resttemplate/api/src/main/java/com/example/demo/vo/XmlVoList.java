@@ -0,0 +1,22 @@
+package com.example.demo.vo;
+
+import java.util.List;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//<XmlVoList><XmlVo>...</XmlVo><XmlVo>...</XmlVo></XmlVoList>
+@Getter
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "XmlVoList")
+public class XmlVoList {
+
+	@JacksonXmlElementWrapper(useWrapping = false)
+	@JacksonXmlProperty(localName = "XmlVo")
+	private List<XmlVo> xmlVos;
+
+}
@@ -0,0 +1,81 @@
+package com.example.demo.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "api.gzip-request.max-inflated-size=64KB")
+@AutoConfigureMockMvc
+public class APIControllerTest {
+
+	//RestTemplate이 String 응답을 받을 때 보내는 Accept
+	private static final String REST_TEMPLATE_ACCEPT = "text/plain, application/xml, text/xml, application/json, application/cbor, "
+			+ "application/*+xml, application/*+json, */*";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void RestTemplate의_Accept로_header_check() throws Exception {
+		mockMvc.perform(get("/entity").param("name", "jaeyeon").header("Authentication", "LEMON").header("Accept", REST_TEMPLATE_ACCEPT))
+				.andExpect(status().isOk())
+				.andExpect(content().string("welcome!"));
+	}
+
+	@Test
+	public void RestTemplate의_Accept로_post() throws Exception {
+		mockMvc.perform(post("/post").content("Post Request").header("Accept", REST_TEMPLATE_ACCEPT))
+				.andExpect(status().isOk())
+				.andExpect(content().string("Success Response"));
+	}
+
+	@Test
+	public void gzip_upload는_풀어서_읽는다() throws Exception {
+		mockMvc.perform(post("/upload").content(gzip(new byte[32 * 1024]))
+				.contentType(MediaType.APPLICATION_OCTET_STREAM).header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(String.valueOf(32 * 1024)));
+	}
+
+	@Test
+	public void 풀린_크기가_한도를_넘는_gzip_upload는_413() throws Exception {
+		mockMvc.perform(post("/upload").content(gzip(new byte[1024 * 1024]))
+				.contentType(MediaType.APPLICATION_OCTET_STREAM).header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(status().isPayloadTooLarge());
+	}
+
+	@Test
+	public void gzip_member_뒤에_다른_byte가_붙은_upload는_400() throws Exception {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write(gzip(new byte[1024]));
+		body.write("junk".getBytes(StandardCharsets.US_ASCII));
+
+		mockMvc.perform(post("/upload").content(body.toByteArray())
+				.contentType(MediaType.APPLICATION_OCTET_STREAM).header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(body);
+		}
+		return out.toByteArray();
+	}
+
+}
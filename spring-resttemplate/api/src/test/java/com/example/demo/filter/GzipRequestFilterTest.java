@@ -0,0 +1,275 @@
+package com.example.demo.filter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import org.junit.Test;
+
+import com.example.demo.filter.GzipRequestFilter.GzipServletInputStream;
+
+public class GzipRequestFilterTest {
+
+	private static final byte[] BODY = repeat("gzip request body ", 2000).getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void blocking_read로_gzip_body를_푼다() throws IOException {
+		//given
+		GzipServletInputStream in = new GzipServletInputStream(new ChunkedInputStream(gzip(BODY), 1000, false), Long.MAX_VALUE);
+
+		//when
+		byte[] read = readAll(in);
+
+		//then
+		assertArrayEquals(BODY, read);
+		assertTrue(in.isFinished());
+	}
+
+	@Test
+	public void FEXTRA_FNAME_header도_푼다() throws IOException {
+		//given
+		GzipServletInputStream in = new GzipServletInputStream(new ChunkedInputStream(gzipWithNameAndExtra(BODY), 3, false), Long.MAX_VALUE);
+
+		//when
+		byte[] read = readAll(in);
+
+		//then
+		assertArrayEquals(BODY, read);
+	}
+
+	@Test
+	public void non_blocking_read는_원래_stream이_준비됐을_때만_읽는다() throws IOException {
+		//given
+		ChunkedInputStream compressed = new ChunkedInputStream(gzip(BODY), 7, true);
+		GzipServletInputStream in = new GzipServletInputStream(compressed, Long.MAX_VALUE);
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		RecordingListener listener = new RecordingListener();
+		in.setReadListener(listener);
+		byte[] buffer = new byte[512];
+
+		//when: container처럼 isReady()가 false면 다음 chunk가 올 때까지 기다렸다 onDataAvailable을 부른다
+		while(!in.isFinished()) {
+			while(in.isReady() && !in.isFinished()) {
+				int n = in.read(buffer);
+				if(n > 0) {
+					read.write(buffer, 0, n);
+				}
+			}
+			compressed.arrive();
+		}
+
+		//then
+		assertArrayEquals(BODY, read.toByteArray());
+	}
+
+	@Test(expected = ZipException.class)
+	public void CRC가_틀리면_실패() throws IOException {
+		//given
+		byte[] gzip = gzip(BODY);
+		gzip[gzip.length - 8] ^= 1;
+
+		//when
+		readAll(new GzipServletInputStream(new ChunkedInputStream(gzip, 1000, false), Long.MAX_VALUE));
+	}
+
+	@Test
+	public void 이어_붙인_member를_모두_푼다() throws IOException {
+		//given
+		ByteArrayOutputStream members = new ByteArrayOutputStream();
+		members.write(gzip(BODY));
+		members.write(gzip(BODY));
+
+		//when
+		byte[] read = readAll(new GzipServletInputStream(new ChunkedInputStream(members.toByteArray(), 1000, false), Long.MAX_VALUE));
+
+		//then
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(BODY);
+		expected.write(BODY);
+		assertArrayEquals(expected.toByteArray(), read);
+	}
+
+	@Test
+	public void non_blocking_read도_이어_붙인_member를_모두_푼다() throws IOException {
+		//given
+		ByteArrayOutputStream members = new ByteArrayOutputStream();
+		members.write(gzip(BODY));
+		members.write(gzip(BODY));
+		ChunkedInputStream compressed = new ChunkedInputStream(members.toByteArray(), 7, true);
+		GzipServletInputStream in = new GzipServletInputStream(compressed, Long.MAX_VALUE);
+		in.setReadListener(new RecordingListener());
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		byte[] buffer = new byte[512];
+
+		//when
+		while(!in.isFinished()) {
+			while(in.isReady() && !in.isFinished()) {
+				int n = in.read(buffer);
+				if(n > 0) {
+					read.write(buffer, 0, n);
+				}
+			}
+			compressed.arrive();
+		}
+
+		//then
+		assertThat(read.size(), is(BODY.length * 2));
+	}
+
+	@Test(expected = ZipException.class)
+	public void member_뒤에_gzip이_아닌_byte가_있으면_실패() throws IOException {
+		//given
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write(gzip(BODY));
+		body.write(new byte[16]);
+
+		//when
+		readAll(new GzipServletInputStream(new ChunkedInputStream(body.toByteArray(), 1000, false), Long.MAX_VALUE));
+	}
+
+	@Test(expected = GzipRequestFilter.InflatedBodyTooLargeException.class)
+	public void 풀린_크기가_한도를_넘으면_실패() throws IOException {
+		//given: 0으로 채운 1MB는 1KB 남짓으로 압축된다
+		byte[] zeros = new byte[1024 * 1024];
+
+		//when
+		readAll(new GzipServletInputStream(new ChunkedInputStream(gzip(zeros), 1000, false), 64 * 1024));
+	}
+
+	private static byte[] readAll(ServletInputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[512];
+		int n;
+		while((n = in.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(body);
+		}
+		return out.toByteArray();
+	}
+
+	//GZIPOutputStream은 빈 flag header만 쓰므로 FEXTRA, FNAME이 있는 header는 직접 만든다
+	private static byte[] gzipWithNameAndExtra(byte[] body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(new byte[] {0x1f, (byte) 0x8b, 8, 4 | 8, 0, 0, 0, 0, 0, (byte) 0xff}, 0, 10);
+		out.write(new byte[] {3, 0, 'a', 'b', 'c'}, 0, 5);
+		out.write(new byte[] {'b', 'o', 'd', 'y', '.', 't', 'x', 't', 0}, 0, 9);
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(body);
+		deflater.finish();
+		byte[] buffer = new byte[1024];
+		while(!deflater.finished()) {
+			out.write(buffer, 0, deflater.deflate(buffer));
+		}
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		writeLittleEndianInt(out, crc.getValue());
+		writeLittleEndianInt(out, body.length);
+		return out.toByteArray();
+	}
+
+	private static void writeLittleEndianInt(ByteArrayOutputStream out, long value) {
+		for(int i = 0; i < 4; i++) {
+			out.write((int) (value >> (8 * i)) & 0xff);
+		}
+	}
+
+	private static String repeat(String s, int times) {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < times; i++) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 압축된 body를 chunkSize씩 내준다. nonBlocking이면 Tomcat처럼 준비되지 않았을 때 읽으면 IllegalStateException,
+	 * 한 chunk를 다 읽으면 arrive()가 불릴 때까지 isReady()가 false다.
+	 */
+	private static class ChunkedInputStream extends ServletInputStream {
+		private final byte[] data;
+		private final int chunkSize;
+		private final boolean nonBlocking;
+		private int pos;
+		private int available;
+
+		ChunkedInputStream(byte[] data, int chunkSize, boolean nonBlocking) {
+			this.data = data;
+			this.chunkSize = chunkSize;
+			this.nonBlocking = nonBlocking;
+			arrive();
+		}
+
+		void arrive() {
+			available = Math.min(chunkSize, data.length - pos);
+		}
+
+		@Override
+		public int read() {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if(pos == data.length) {
+				return -1;
+			}
+			if(nonBlocking && available == 0) {
+				throw new IllegalStateException("isReady() returned false");
+			}
+			if(!nonBlocking && available == 0) {
+				arrive();
+			}
+			int read = Math.min(len, available);
+			System.arraycopy(data, pos, b, off, read);
+			pos += read;
+			available -= read;
+			return read;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return pos == data.length;
+		}
+
+		@Override
+		public boolean isReady() {
+			return available > 0 || pos == data.length;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+		}
+	}
+
+	private static class RecordingListener implements ReadListener {
+		@Override
+		public void onDataAvailable() {
+		}
+
+		@Override
+		public void onAllDataRead() {
+		}
+
+		@Override
+		public void onError(Throwable t) {
+		}
+	}
+}
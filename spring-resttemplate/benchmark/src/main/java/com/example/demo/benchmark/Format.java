@@ -0,0 +1,115 @@
+package com.example.demo.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+/**
+ * 벤치마크 대상 직렬화 방식. 매퍼/JAXBContext는 재사용하고(서버/클라이언트 converter와 동일),
+ * JAXB Marshaller/Unmarshaller는 thread-safe하지 않으므로 호출마다 만든다.
+ */
+public enum Format {
+
+	JACKSON_JSON {
+		private final ObjectMapper objectMapper = new ObjectMapper();
+
+		@Override
+		public byte[] write(Object value) throws IOException {
+			return objectMapper.writeValueAsBytes(value);
+		}
+
+		@Override
+		public <T> T read(byte[] bytes, Class<T> type) throws IOException {
+			return objectMapper.readValue(bytes, type);
+		}
+	},
+
+	JACKSON_XML {
+		private final XmlMapper xmlMapper = new XmlMapper();
+
+		@Override
+		public byte[] write(Object value) throws IOException {
+			return xmlMapper.writeValueAsBytes(value);
+		}
+
+		@Override
+		public <T> T read(byte[] bytes, Class<T> type) throws IOException {
+			return xmlMapper.readValue(bytes, type);
+		}
+	},
+
+	//XmlRootElement가 없는 타입(JsonVo)은 JAXBElement로 감싸서 처리
+	JAXB {
+		private final Map<Class<?>, JAXBContext> contexts = new ConcurrentHashMap<>();
+
+		@Override
+		public byte[] write(Object value) throws IOException {
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+				Object element = value.getClass().isAnnotationPresent(XmlRootElement.class) ? value : wrap(value);
+				context(value.getClass()).createMarshaller().marshal(element, out);
+				return out.toByteArray();
+			} catch (JAXBException e) {
+				throw new IOException(e);
+			}
+		}
+
+		@Override
+		public <T> T read(byte[] bytes, Class<T> type) throws IOException {
+			try {
+				return context(type).createUnmarshaller()
+						.unmarshal(new StreamSource(new ByteArrayInputStream(bytes)), type)
+						.getValue();
+			} catch (JAXBException e) {
+				throw new IOException(e);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> JAXBElement<T> wrap(T value) {
+			return new JAXBElement<>(new QName(value.getClass().getSimpleName()), (Class<T>) value.getClass(), value);
+		}
+
+		private JAXBContext context(Class<?> type) {
+			return contexts.computeIfAbsent(type, key -> {
+				try {
+					return JAXBContext.newInstance(key);
+				} catch (JAXBException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+	},
+
+	CBOR {
+		private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+		@Override
+		public byte[] write(Object value) throws IOException {
+			return cborMapper.writeValueAsBytes(value);
+		}
+
+		@Override
+		public <T> T read(byte[] bytes, Class<T> type) throws IOException {
+			return cborMapper.readValue(bytes, type);
+		}
+	};
+
+	public abstract byte[] write(Object value) throws IOException;
+
+	public abstract <T> T read(byte[] bytes, Class<T> type) throws IOException;
+
+}
@@ -0,0 +1,176 @@
+package com.example.demo.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.xml.Jaxb2RootElementHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.demo.vo.JsonVo;
+import com.example.demo.vo.XmlVo;
+
+/**
+ * api 서버(write)와 client RestTemplate(read)이 실제로 거치는 HttpMessageConverter 비용.
+ * Spring 기본 converter 목록에서 media type별로 선택되는 converter를 그대로 사용한다
+ * (application/xml은 Jackson XML이 JAXB보다 먼저 선택되므로 JAXB는 Jaxb 클래스에서 따로 측정).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageConverterBenchmark {
+
+	@Param({"application/json", "application/xml", "application/cbor"})
+	private String mediaType;
+
+	private final JsonVo jsonVo = new JsonVo();
+	private final XmlVo xmlVo = new XmlVo();
+
+	private MediaType contentType;
+	private HttpMessageConverter<Object> jsonVoConverter;
+	private HttpMessageConverter<Object> xmlVoConverter;
+	private byte[] jsonVoBytes;
+	private byte[] xmlVoBytes;
+
+	@Setup
+	public void setUp() throws IOException {
+		contentType = MediaType.parseMediaType(mediaType);
+		List<HttpMessageConverter<?>> converters = new RestTemplate().getMessageConverters();
+		jsonVoConverter = select(converters, JsonVo.class);
+		xmlVoConverter = select(converters, XmlVo.class);
+		jsonVoBytes = write(jsonVoConverter, jsonVo);
+		xmlVoBytes = write(xmlVoConverter, xmlVo);
+	}
+
+	//server side
+	@Benchmark
+	public byte[] writeJsonVo() throws IOException {
+		return write(jsonVoConverter, jsonVo);
+	}
+
+	@Benchmark
+	public byte[] writeXmlVo() throws IOException {
+		return write(xmlVoConverter, xmlVo);
+	}
+
+	//client side
+	@Benchmark
+	public Object readJsonVo() throws IOException {
+		return jsonVoConverter.read(JsonVo.class, new InMemoryInputMessage(jsonVoBytes, contentType));
+	}
+
+	@Benchmark
+	public Object readXmlVo() throws IOException {
+		return xmlVoConverter.read(XmlVo.class, new InMemoryInputMessage(xmlVoBytes, contentType));
+	}
+
+	private byte[] write(HttpMessageConverter<Object> converter, Object value) throws IOException {
+		InMemoryOutputMessage message = new InMemoryOutputMessage();
+		converter.write(value, contentType, message);
+		return message.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private HttpMessageConverter<Object> select(List<HttpMessageConverter<?>> converters, Class<?> type) {
+		for(HttpMessageConverter<?> converter : converters) {
+			if(converter.canWrite(type, contentType) && converter.canRead(type, contentType)) {
+				return (HttpMessageConverter<Object>) converter;
+			}
+		}
+		throw new IllegalStateException("no converter for " + type.getSimpleName() + " as " + contentType);
+	}
+
+	//JAXB(@XmlRootElement 전용) converter. media type 파라미터와 무관하므로 따로 둔다
+	@State(Scope.Benchmark)
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(1)
+	public static class Jaxb {
+
+		private final XmlVo xmlVo = new XmlVo();
+		private final Jaxb2RootElementHttpMessageConverter jaxbConverter = new Jaxb2RootElementHttpMessageConverter();
+		private byte[] xmlVoBytes;
+
+		@Setup
+		public void setUp() throws IOException {
+			xmlVoBytes = writeXmlVo();
+		}
+
+		@Benchmark
+		public byte[] writeXmlVo() throws IOException {
+			InMemoryOutputMessage message = new InMemoryOutputMessage();
+			jaxbConverter.write(xmlVo, MediaType.APPLICATION_XML, message);
+			return message.toByteArray();
+		}
+
+		@Benchmark
+		public Object readXmlVo() throws IOException {
+			return jaxbConverter.read(XmlVo.class, new InMemoryInputMessage(xmlVoBytes, MediaType.APPLICATION_XML));
+		}
+	}
+
+	//네트워크 없이 converter를 호출하기 위한 메모리 버퍼 메시지
+	private static class InMemoryOutputMessage implements HttpOutputMessage {
+		private final HttpHeaders headers = new HttpHeaders();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+		@Override
+		public OutputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		byte[] toByteArray() {
+			return body.toByteArray();
+		}
+	}
+
+	private static class InMemoryInputMessage implements HttpInputMessage {
+		private final HttpHeaders headers = new HttpHeaders();
+		private final byte[] body;
+
+		InMemoryInputMessage(byte[] body, MediaType contentType) {
+			this.body = body;
+			this.headers.setContentType(contentType);
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.demo.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.vo.JsonVo;
+import com.example.demo.vo.XmlVo;
+
+/**
+ * 매퍼를 직접 호출했을 때의 JsonVo/XmlVo 직렬화, 역직렬화 비용.
+ * 처리량과 지연시간(sample)을 함께 측정하고, 할당률은 -prof gc 로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"JACKSON_JSON", "JACKSON_XML", "JAXB", "CBOR"})
+	private Format format;
+
+	private final JsonVo jsonVo = new JsonVo();
+	private final XmlVo xmlVo = new XmlVo();
+	private byte[] jsonVoBytes;
+	private byte[] xmlVoBytes;
+
+	@Setup
+	public void setUp() throws IOException {
+		jsonVoBytes = format.write(jsonVo);
+		xmlVoBytes = format.write(xmlVo);
+	}
+
+	@Benchmark
+	public byte[] serializeJsonVo() throws IOException {
+		return format.write(jsonVo);
+	}
+
+	@Benchmark
+	public byte[] serializeXmlVo() throws IOException {
+		return format.write(xmlVo);
+	}
+
+	@Benchmark
+	public JsonVo deserializeJsonVo() throws IOException {
+		return format.read(jsonVoBytes, JsonVo.class);
+	}
+
+	@Benchmark
+	public XmlVo deserializeXmlVo() throws IOException {
+		return format.read(xmlVoBytes, XmlVo.class);
+	}
+}
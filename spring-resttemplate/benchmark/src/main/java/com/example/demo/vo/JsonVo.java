@@ -0,0 +1,14 @@
+package com.example.demo.vo;
+
+import javax.xml.bind.annotation.XmlElement;
+
+import lombok.Getter;
+
+@Getter
+public class JsonVo {
+	@XmlElement
+	private final String type = "JSON";
+	
+	@XmlElement 
+	private final String message = "This is Json Data!!";
+}
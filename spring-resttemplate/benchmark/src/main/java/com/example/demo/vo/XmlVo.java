@@ -0,0 +1,18 @@
+package com.example.demo.vo;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.Getter;
+
+@Getter
+@XmlRootElement(name = "XmlVo")
+public class XmlVo {
+	
+	@XmlElement
+	private final String type = "XML";
+	
+	@XmlElement 
+	private final String message = "This is Xml Data!!";
+
+}
@@ -0,0 +1,77 @@
+package com.example.demo.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import lombok.Getter;
+
+/**
+ * 캐시에 저장된 응답. body는 byte[]로 들고 있으므로 여러 번 읽을 수 있다.
+ */
+@Getter
+public class CachedResponse {
+
+	private final HttpStatus statusCode;
+	private final HttpHeaders headers;
+	private final byte[] body;
+	private final String eTag;
+	private final long expiresAt;
+
+	public CachedResponse(HttpStatus statusCode, HttpHeaders headers, byte[] body, long expiresAt) {
+		this.statusCode = statusCode;
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+		this.body = body;
+		this.eTag = headers.getETag();
+		this.expiresAt = expiresAt;
+	}
+
+	public boolean isFresh(long now) {
+		return now < expiresAt;
+	}
+
+	//304 Not Modified 이후 body는 그대로 두고 유효기간만 갱신
+	public CachedResponse revalidated(long expiresAt) {
+		return new CachedResponse(statusCode, headers, body, expiresAt);
+	}
+
+	public int weight() {
+		return body.length;
+	}
+
+	public ClientHttpResponse toClientHttpResponse() {
+		return new ClientHttpResponse() {
+			@Override
+			public HttpStatus getStatusCode() {
+				return statusCode;
+			}
+
+			@Override
+			public int getRawStatusCode() {
+				return statusCode.value();
+			}
+
+			@Override
+			public String getStatusText() {
+				return statusCode.getReasonPhrase();
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+
+			@Override
+			public InputStream getBody() {
+				return new ByteArrayInputStream(body);
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.demo.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * GET 응답을 Cache-Control/ETag에 따라 캐시한다.
+ * - max-age 이내: 네트워크 없이 캐시에서 응답 (hit)
+ * - 만료됐지만 ETag가 있음: If-None-Match로 재검증, 304면 캐시된 body 재사용 (revalidation)
+ * - no-store 또는 max-age/ETag가 없는 응답은 저장하지 않는다
+ */
+public class CachingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private final ResponseCache responseCache;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter revalidations;
+
+	public CachingClientHttpRequestInterceptor(ResponseCache responseCache, MeterRegistry meterRegistry) {
+		this.responseCache = responseCache;
+		this.hits = meterRegistry.counter("resttemplate.cache.requests", "result", "hit");
+		this.misses = meterRegistry.counter("resttemplate.cache.requests", "result", "miss");
+		this.revalidations = meterRegistry.counter("resttemplate.cache.requests", "result", "revalidated");
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		if(request.getMethod() != HttpMethod.GET) {
+			return execution.execute(request, body);
+		}
+
+		String key = cacheKey(request);
+		long now = System.currentTimeMillis();
+		CachedResponse cached = responseCache.get(key);
+		if(cached != null && cached.isFresh(now)) {
+			hits.increment();
+			return cached.toClientHttpResponse();
+		}
+
+		if(cached != null && cached.getETag() != null) {
+			request.getHeaders().setIfNoneMatch(cached.getETag());
+		}
+		ClientHttpResponse response = execution.execute(request, body);
+
+		if(cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			revalidations.increment();
+			CachedResponse refreshed = cached.revalidated(now + maxAgeMillis(response.getHeaders()));
+			response.close();
+			responseCache.put(key, refreshed);
+			return refreshed.toClientHttpResponse();
+		}
+
+		misses.increment();
+		if(!isCacheable(response)) {
+			responseCache.invalidate(key);
+			return response;
+		}
+		CachedResponse stored;
+		try {
+			stored = new CachedResponse(response.getStatusCode(), response.getHeaders(),
+					StreamUtils.copyToByteArray(response.getBody()), now + maxAgeMillis(response.getHeaders()));
+		} finally {
+			response.close();
+		}
+		responseCache.put(key, stored);
+		return stored.toClientHttpResponse();
+	}
+
+	//같은 URL이라도 Accept가 다르면 다른 표현(json/xml)이므로 key에 포함
+	private String cacheKey(HttpRequest request) {
+		return request.getURI() + " " + request.getHeaders().getAccept();
+	}
+
+	private boolean isCacheable(ClientHttpResponse response) throws IOException {
+		if(response.getStatusCode() != HttpStatus.OK) {
+			return false;
+		}
+		HttpHeaders headers = response.getHeaders();
+		String cacheControl = headers.getCacheControl();
+		if(cacheControl != null && cacheControl.contains("no-store")) {
+			return false;
+		}
+		return headers.getETag() != null || maxAgeMillis(headers) > 0;
+	}
+
+	//no-cache는 저장하되 매번 재검증하도록 유효기간 0으로 둔다
+	private long maxAgeMillis(HttpHeaders headers) {
+		String cacheControl = headers.getCacheControl();
+		if(!StringUtils.hasText(cacheControl)) {
+			return 0;
+		}
+		long maxAge = 0;
+		for(String directive : StringUtils.commaDelimitedListToStringArray(cacheControl)) {
+			directive = directive.trim();
+			if(directive.equals("no-cache")) {
+				return 0;
+			}
+			if(directive.startsWith("max-age=")) {
+				try {
+					maxAge = Long.parseLong(directive.substring("max-age=".length()));
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return TimeUnit.SECONDS.toMillis(maxAge);
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 항목 수와 body 전체 크기(byte) 두 기준으로 제한되는 LRU 캐시.
+ * 둘 중 하나라도 넘으면 가장 오래 사용되지 않은 항목부터 제거한다.
+ */
+public class LruResponseCache implements ResponseCache {
+
+	private final int maxEntries;
+	private final long maxBytes;
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private final Counter evictions;
+
+	public LruResponseCache(int maxEntries, long maxBytes, MeterRegistry meterRegistry) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.evictions = meterRegistry.counter("resttemplate.cache.evictions");
+		Gauge.builder("resttemplate.cache.size", this, LruResponseCache::size).register(meterRegistry);
+		Gauge.builder("resttemplate.cache.bytes", this, LruResponseCache::bytes).baseUnit("bytes").register(meterRegistry);
+	}
+
+	@Override
+	public synchronized CachedResponse get(String key) {
+		return entries.get(key);
+	}
+
+	@Override
+	public synchronized void put(String key, CachedResponse response) {
+		if(response.weight() > maxBytes) {
+			return;
+		}
+		CachedResponse previous = entries.put(key, response);
+		if(previous != null) {
+			bytes -= previous.weight();
+		}
+		bytes += response.weight();
+		evictIfNeeded();
+	}
+
+	@Override
+	public synchronized void invalidate(String key) {
+		CachedResponse removed = entries.remove(key);
+		if(removed != null) {
+			bytes -= removed.weight();
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long bytes() {
+		return bytes;
+	}
+
+	private void evictIfNeeded() {
+		Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+		while((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+			bytes -= eldest.next().getValue().weight();
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+}
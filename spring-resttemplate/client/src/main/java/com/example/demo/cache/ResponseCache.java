@@ -0,0 +1,17 @@
+package com.example.demo.cache;
+
+/**
+ * CachingClientHttpRequestInterceptor가 사용하는 응답 저장소.
+ * 구현체를 바꿔 끼울 수 있도록 interface로 분리한다.
+ */
+public interface ResponseCache {
+
+	CachedResponse get(String key);
+
+	void put(String key, CachedResponse response);
+
+	void invalidate(String key);
+
+	void clear();
+
+}
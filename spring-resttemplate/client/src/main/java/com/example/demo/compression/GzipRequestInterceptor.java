@@ -0,0 +1,42 @@
+package com.example.demo.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * minRequestSize 이상인 요청 body를 gzip으로 압축해서 보낸다.
+ * 응답 압축 해제는 Apache HttpClient가 Accept-Encoding을 붙이고 알아서 처리한다.
+ */
+public class GzipRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private final int minRequestSize;
+
+	public GzipRequestInterceptor(int minRequestSize) {
+		this.minRequestSize = minRequestSize;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		HttpHeaders headers = request.getHeaders();
+		if(body.length < minRequestSize || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return execution.execute(request, body);
+		}
+		headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+		return execution.execute(request, gzip(body));
+	}
+
+	private byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+		try(GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(body);
+		}
+		return out.toByteArray();
+	}
+}
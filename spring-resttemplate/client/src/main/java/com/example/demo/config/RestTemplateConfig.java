@@ -1,27 +1,97 @@
 package com.example.demo.config;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.demo.cache.CachingClientHttpRequestInterceptor;
+import com.example.demo.cache.LruResponseCache;
+import com.example.demo.cache.ResponseCache;
+import com.example.demo.compression.GzipRequestInterceptor;
+import com.example.demo.pool.AdaptivePoolSizer;
+import com.example.demo.pool.InstrumentedConnectionManager;
+import com.example.demo.resilience.HedgeAbortingRequestFactory;
+import com.example.demo.resilience.ResiliencePipeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class RestTemplateConfig {
 
 
     @Bean
-    public RestTemplate getCustomRestTemplate(){
-        HttpComponentsClientHttpRequestFactory httpRequestFactory = new HttpComponentsClientHttpRequestFactory();
-        httpRequestFactory.setConnectTimeout(2000);
-        httpRequestFactory.setReadTimeout(3000);
-        HttpClient httpClient = HttpClientBuilder.create()
-                .setMaxConnTotal(200)
-                .setMaxConnPerRoute(20)
-                .build();
-        httpRequestFactory.setHttpClient(httpClient);
+    @Primary
+    public RestTemplate getCustomRestTemplate(RestTemplateProperties properties, HttpClient httpClient,
+                                              ResponseCache responseCache, MeterRegistry meterRegistry){
+        RestTemplate restTemplate = new RestTemplate(requestFactory(properties, httpClient));
+        if(properties.getCache().isEnabled()) {
+            restTemplate.getInterceptors().add(new CachingClientHttpRequestInterceptor(responseCache, meterRegistry));
+        }
+        if(properties.getCompression().isEnabled()) {
+            restTemplate.getInterceptors().add(new GzipRequestInterceptor(properties.getCompression().getMinRequestSize()));
+        }
+        return restTemplate;
+    }
+
+    //대용량 upload/download용. interceptor가 있으면 body 전체가 버퍼링되므로 두지 않고, 요청 body도 바로 흘려보낸다
+    @Bean
+    public RestTemplate streamingRestTemplate(RestTemplateProperties properties, HttpClient httpClient){
+        HttpComponentsClientHttpRequestFactory httpRequestFactory = requestFactory(properties, httpClient);
+        httpRequestFactory.setBufferRequestBody(false);
         return new RestTemplate(httpRequestFactory);
     }
 
+    @Bean
+    public HttpClient httpClient(InstrumentedConnectionManager connectionManager){
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .build();
+    }
+
+    @Bean
+    public InstrumentedConnectionManager connectionManager(RestTemplateProperties properties, MeterRegistry meterRegistry){
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry);
+        connectionManager.setMaxTotal(properties.getPool().getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getPool().getMaxPerRoute());
+        return connectionManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "resttemplate.pool.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(InstrumentedConnectionManager connectionManager, RestTemplateProperties properties){
+        return new AdaptivePoolSizer(connectionManager, properties.getPool().getAdaptive());
+    }
+
+    @Bean
+    public ResiliencePipeline resiliencePipeline(RestTemplateProperties properties, MeterRegistry meterRegistry,
+                                                 @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor){
+        ExecutorService hedgeExecutor = virtualThreadExecutor.getIfAvailable();
+        if(hedgeExecutor != null) {
+            return new ResiliencePipeline(properties.getResilience(), meterRegistry, hedgeExecutor);
+        }
+        return new ResiliencePipeline(properties.getResilience(), meterRegistry);
+    }
+
+    @Bean
+    public ResponseCache responseCache(RestTemplateProperties properties, MeterRegistry meterRegistry){
+        RestTemplateProperties.Cache cache = properties.getCache();
+        return new LruResponseCache(cache.getMaxEntries(), cache.getMaxBytes(), meterRegistry);
+    }
+
+    private HttpComponentsClientHttpRequestFactory requestFactory(RestTemplateProperties properties, HttpClient httpClient){
+        HttpComponentsClientHttpRequestFactory httpRequestFactory = new HedgeAbortingRequestFactory(httpClient);
+        httpRequestFactory.setConnectTimeout(properties.getConnectTimeout());
+        httpRequestFactory.setReadTimeout(properties.getReadTimeout());
+        return httpRequestFactory;
+    }
+
 }
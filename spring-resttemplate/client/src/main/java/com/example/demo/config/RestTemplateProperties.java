@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "resttemplate")
+@Getter
+@Setter
+public class RestTemplateProperties {
+
+    private int connectTimeout = 2000;
+    private int readTimeout = 3000;
+    private Pool pool = new Pool();
+    private Cache cache = new Cache();
+    private Compression compression = new Compression();
+    private Resilience resilience = new Resilience();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxTotal = 200;
+        private int maxPerRoute = 20;
+        private Adaptive adaptive = new Adaptive();
+    }
+
+    //pending 대기가 생기면 route별 커넥션 수를 늘리고, 한가하면 다시 줄인다
+    @Getter
+    @Setter
+    public static class Adaptive {
+        private boolean enabled = false;
+        private int minPerRoute = 5;
+        private int maxPerRoute = 100;
+        private long intervalMillis = 5000;
+        private long leaseWaitThresholdMillis = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 1000;
+        private long maxBytes = 10 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+        private boolean enabled = true;
+        private int minRequestSize = 2048;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        private boolean enabled = true;
+        //retry
+        private int maxAttempts = 3;
+        private long backoffBaseMillis = 50;
+        private long backoffMaxMillis = 1000;
+        private double retryBudgetRatio = 0.2;
+        private double retryBudgetMaxTokens = 10;
+        //hedge
+        private boolean hedgeEnabled = true;
+        private double hedgePercentile = 0.95;
+        private long hedgeMinDelayMillis = 20;
+        private int hedgeThreads = 64;
+        //circuit breaker
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private long openDurationMillis = 5000;
+        private int halfOpenCalls = 3;
+    }
+
+}
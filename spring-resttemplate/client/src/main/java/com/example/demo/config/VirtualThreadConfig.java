@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//spring.threads.virtual.enabled=true면 Tomcat 요청과 hedge 요청, 부하 테스트 worker를 virtual thread에서 실행한다
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    //구현 클래스가 export되지 않아 추론한 destroy method를 reflection으로 부를 수 없으므로 destroy()에서 닫는다
+    @Bean(destroyMethod = "")
+    public ExecutorService virtualThreadExecutor() {
+        return virtualThreadExecutor;
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(virtualThreadExecutor));
+    }
+
+    //Tomcat은 외부에서 넘긴 executor를 닫지 않는다
+    @Override
+    public void destroy() {
+        virtualThreadExecutor.shutdown();
+    }
+
+}
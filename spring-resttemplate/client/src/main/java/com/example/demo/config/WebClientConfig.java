@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class WebClientConfig {
+
+    //RestTemplate과 동일한 커넥션 수/타임아웃, 단 요청마다 스레드를 점유하지 않는다
+    @Bean
+    public WebClient getCustomWebClient(WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("client")
+                .maxConnections(200)
+                .pendingAcquireTimeout(Duration.ofMillis(2000))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 2000)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(3000, TimeUnit.MILLISECONDS)));
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+}
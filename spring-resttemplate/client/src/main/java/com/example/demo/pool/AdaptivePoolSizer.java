@@ -0,0 +1,71 @@
+package com.example.demo.pool;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.example.demo.config.RestTemplateProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주기적으로 route별 풀 상태를 보고 maxPerRoute를 조절한다.
+ * - 대기 중인 요청(pending)이 있거나 평균 lease 대기가 임계치를 넘으면 2배로 늘린다 (adaptive.max-per-route까지)
+ * - 대기가 없고 사용 중인 커넥션이 한도의 절반 미만이면 한 단계씩 줄인다 (adaptive.min-per-route까지)
+ * 전체 한도(pool.max-total)는 바꾸지 않는다.
+ */
+@Slf4j
+public class AdaptivePoolSizer implements InitializingBean, DisposableBean {
+
+	private final InstrumentedConnectionManager connectionManager;
+	private final RestTemplateProperties.Adaptive adaptive;
+	private final long leaseWaitThresholdNanos;
+	private ScheduledExecutorService scheduler;
+
+	public AdaptivePoolSizer(InstrumentedConnectionManager connectionManager, RestTemplateProperties.Adaptive adaptive) {
+		this.connectionManager = connectionManager;
+		this.adaptive = adaptive;
+		this.leaseWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(adaptive.getLeaseWaitThresholdMillis());
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "adaptive-pool-sizer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::adjust, adaptive.getIntervalMillis(), adaptive.getIntervalMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	void adjust() {
+		for(HttpRoute route : connectionManager.getObservedRoutes()) {
+			PoolStats stats = connectionManager.getStats(route);
+			long averageWaitNanos = connectionManager.drainAverageLeaseWaitNanos(route);
+			int current = stats.getMax();
+			int next = current;
+
+			if(stats.getPending() > 0 || averageWaitNanos > leaseWaitThresholdNanos) {
+				next = Math.min(current * 2, adaptive.getMaxPerRoute());
+			} else if(stats.getLeased() < current / 2) {
+				next = Math.max(current - Math.max(current / 4, 1), adaptive.getMinPerRoute());
+			}
+
+			if(next != current) {
+				log.info("route {} maxPerRoute {} -> {} (leased={}, pending={}, avgLeaseWait={}us)", route.getTargetHost(),
+						current, next, stats.getLeased(), stats.getPending(), TimeUnit.NANOSECONDS.toMicros(averageWaitNanos));
+				connectionManager.setMaxPerRoute(route, next);
+			}
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.example.demo.pool;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 커넥션 풀 상태를 metric으로 노출하는 PoolingHttpClientConnectionManager.
+ * - resttemplate.pool.leased/pending/available/max : 전체 및 route별 gauge
+ * - resttemplate.pool.lease.wait : 커넥션을 빌리기까지 기다린 시간(histogram), route별
+ * AdaptivePoolSizer가 참고할 수 있도록 route별 대기 시간을 구간 단위로도 모아둔다.
+ *
+ * httpcore 4.4의 AbstractConnPool은 풀이 가득 차면 lease future의 synchronized(this) 안에서 condition을 기다린다.
+ * spring.threads.virtual.enabled=true면 RestTemplate 호출이 virtual thread에서 나가므로(VirtualThreadConfig),
+ * 그 대기 동안 carrier thread까지 묶인다. 그래서 풀 크기와 같은 수의 semaphore로 먼저 대기시키고,
+ * 풀에는 빈 커넥션이 있을 때만 들어가게 한다.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+	private final MeterRegistry meterRegistry;
+	private final Map<HttpRoute, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+	private final LeaseGate totalGate;
+	private final Map<HttpRoute, LeaseGate> routeGates = new ConcurrentHashMap<>();
+	private final Map<HttpClientConnection, HttpRoute> leasedRoutes = new ConcurrentHashMap<>();
+
+	public InstrumentedConnectionManager(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.totalGate = new LeaseGate(getMaxTotal());
+		registerGauges(Tags.of("route", "total"), null);
+	}
+
+	@Override
+	public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+		ConnectionRequest connectionRequest = super.requestConnection(route, state);
+		RouteMetrics metrics = routeMetrics.computeIfAbsent(route, this::createRouteMetrics);
+		return new ConnectionRequest() {
+			@Override
+			public HttpClientConnection get(long timeout, TimeUnit tunit)
+					throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+				long start = System.nanoTime();
+				LeaseGate routeGate = routeGate(route);
+				try {
+					long deadline = timeout > 0 ? start + tunit.toNanos(timeout) : Long.MAX_VALUE;
+					routeGate.acquire(deadline);
+					try {
+						totalGate.acquire(deadline);
+					} catch (InterruptedException | ConnectionPoolTimeoutException e) {
+						routeGate.release();
+						throw e;
+					}
+					try {
+						HttpClientConnection connection = connectionRequest.get(remaining(deadline), TimeUnit.NANOSECONDS);
+						leasedRoutes.put(connection, route);
+						return connection;
+					} catch (InterruptedException | ExecutionException | ConnectionPoolTimeoutException | RuntimeException e) {
+						totalGate.release();
+						routeGate.release();
+						throw e;
+					}
+				} finally {
+					metrics.recordLeaseWait(System.nanoTime() - start);
+				}
+			}
+
+			@Override
+			public boolean cancel() {
+				return connectionRequest.cancel();
+			}
+		};
+	}
+
+	@Override
+	public void releaseConnection(HttpClientConnection managedConn, Object state, long keepalive, TimeUnit tunit) {
+		try {
+			super.releaseConnection(managedConn, state, keepalive, tunit);
+		} finally {
+			HttpRoute route = leasedRoutes.remove(managedConn);
+			if(route != null) {
+				totalGate.release();
+				routeGate(route).release();
+			}
+		}
+	}
+
+	//풀 크기가 바뀌면 gate의 permit 수도 맞춘다
+	@Override
+	public void setMaxTotal(int max) {
+		super.setMaxTotal(max);
+		if(totalGate != null) {
+			totalGate.resize(max);
+		}
+	}
+
+	@Override
+	public void setDefaultMaxPerRoute(int max) {
+		super.setDefaultMaxPerRoute(max);
+		routeGates.forEach((route, gate) -> gate.resize(getMaxPerRoute(route)));
+	}
+
+	@Override
+	public void setMaxPerRoute(HttpRoute route, int max) {
+		super.setMaxPerRoute(route, max);
+		LeaseGate gate = routeGates.get(route);
+		if(gate != null) {
+			gate.resize(max);
+		}
+	}
+
+	public Iterable<HttpRoute> getObservedRoutes() {
+		return routeMetrics.keySet();
+	}
+
+	//마지막 호출 이후 해당 route의 평균 lease 대기 시간(ns). 호출 시 구간을 초기화한다
+	public long drainAverageLeaseWaitNanos(HttpRoute route) {
+		RouteMetrics metrics = routeMetrics.get(route);
+		return metrics == null ? 0 : metrics.drainAverageWaitNanos();
+	}
+
+	private LeaseGate routeGate(HttpRoute route) {
+		return routeGates.computeIfAbsent(route, key -> new LeaseGate(getMaxPerRoute(key)));
+	}
+
+	private static long remaining(long deadline) {
+		return deadline == Long.MAX_VALUE ? 0 : Math.max(1, deadline - System.nanoTime());
+	}
+
+	private RouteMetrics createRouteMetrics(HttpRoute route) {
+		Tags tags = Tags.of("route", route.getTargetHost().toHostString());
+		registerGauges(tags, route);
+		Timer leaseWait = Timer.builder("resttemplate.pool.lease.wait")
+				.tags(tags)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		return new RouteMetrics(leaseWait);
+	}
+
+	private void registerGauges(Tags tags, HttpRoute route) {
+		Gauge.builder("resttemplate.pool.leased", this, manager -> manager.stats(route).getLeased()).tags(tags).register(meterRegistry);
+		Gauge.builder("resttemplate.pool.pending", this, manager -> manager.stats(route).getPending() + manager.gateWaiters(route))
+				.tags(tags).register(meterRegistry);
+		Gauge.builder("resttemplate.pool.available", this, manager -> manager.stats(route).getAvailable()).tags(tags).register(meterRegistry);
+		Gauge.builder("resttemplate.pool.max", this, manager -> manager.stats(route).getMax()).tags(tags).register(meterRegistry);
+	}
+
+	private PoolStats stats(HttpRoute route) {
+		return route == null ? getTotalStats() : getStats(route);
+	}
+
+	private int gateWaiters(HttpRoute route) {
+		if(route == null) {
+			return totalGate.getQueueLength() + routeGates.values().stream().mapToInt(LeaseGate::getQueueLength).sum();
+		}
+		LeaseGate gate = routeGates.get(route);
+		return gate == null ? 0 : gate.getQueueLength();
+	}
+
+	//permit 수를 늘리고 줄일 수 있는 semaphore. 줄일 때 이미 빌려간 permit은 반납될 때 사라진다
+	private static class LeaseGate extends Semaphore {
+		private int permits;
+
+		LeaseGate(int permits) {
+			super(permits, true);
+			this.permits = permits;
+		}
+
+		void acquire(long deadline) throws InterruptedException, ConnectionPoolTimeoutException {
+			if(deadline == Long.MAX_VALUE) {
+				acquire();
+			} else if(!tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+			}
+		}
+
+		synchronized void resize(int newPermits) {
+			int delta = newPermits - permits;
+			permits = newPermits;
+			if(delta > 0) {
+				release(delta);
+			} else if(delta < 0) {
+				reducePermits(-delta);
+			}
+		}
+	}
+
+	private static class RouteMetrics {
+		private final Timer leaseWait;
+		private final LongAdder windowWaitNanos = new LongAdder();
+		private final LongAdder windowCount = new LongAdder();
+
+		RouteMetrics(Timer leaseWait) {
+			this.leaseWait = leaseWait;
+		}
+
+		void recordLeaseWait(long nanos) {
+			leaseWait.record(nanos, TimeUnit.NANOSECONDS);
+			windowWaitNanos.add(nanos);
+			windowCount.increment();
+		}
+
+		long drainAverageWaitNanos() {
+			long count = windowCount.sumThenReset();
+			long nanos = windowWaitNanos.sumThenReset();
+			return count == 0 ? 0 : nanos / count;
+		}
+	}
+}
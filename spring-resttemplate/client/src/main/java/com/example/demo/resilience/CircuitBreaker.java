@@ -0,0 +1,119 @@
+package com.example.demo.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 windowSize건의 실패율로 열리는 circuit breaker.
+ * - CLOSED : 실패율이 threshold 이상이면(최소 minimumCalls건 이후) OPEN
+ * - OPEN : openDuration 동안 모든 요청을 거절, 이후 HALF_OPEN
+ * - HALF_OPEN : halfOpenCalls건만 probe로 통과시켜 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final double failureRateThreshold;
+	private final int minimumCalls;
+	private final long openDurationNanos;
+	private final int halfOpenCalls;
+	private final LongSupplier nanoClock;
+
+	private final boolean[] window;
+	private int windowIndex;
+	private int windowCount;
+	private int windowFailures;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	public CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openDurationNanos, int halfOpenCalls) {
+		this(failureRateThreshold, windowSize, minimumCalls, openDurationNanos, halfOpenCalls, System::nanoTime);
+	}
+
+	CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openDurationNanos, int halfOpenCalls,
+			LongSupplier nanoClock) {
+		this.failureRateThreshold = failureRateThreshold;
+		this.window = new boolean[windowSize];
+		this.minimumCalls = Math.min(minimumCalls, windowSize);
+		this.openDurationNanos = openDurationNanos;
+		this.halfOpenCalls = halfOpenCalls;
+		this.nanoClock = nanoClock;
+	}
+
+	public synchronized boolean tryAcquire() {
+		if(state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+			state = State.HALF_OPEN;
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+		}
+		switch(state) {
+			case CLOSED:
+				return true;
+			case HALF_OPEN:
+				if(halfOpenPermits > 0) {
+					halfOpenPermits--;
+					return true;
+				}
+				return false;
+			default:
+				return false;
+		}
+	}
+
+	public synchronized void onSuccess() {
+		if(state == State.HALF_OPEN) {
+			if(++halfOpenSuccesses >= halfOpenCalls) {
+				close();
+			}
+			return;
+		}
+		record(false);
+	}
+
+	public synchronized void onFailure() {
+		if(state == State.HALF_OPEN) {
+			open();
+			return;
+		}
+		record(true);
+		if(state == State.CLOSED && windowCount >= minimumCalls
+				&& (double) windowFailures / windowCount >= failureRateThreshold) {
+			open();
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	private void record(boolean failure) {
+		if(windowCount == window.length) {
+			if(window[windowIndex]) {
+				windowFailures--;
+			}
+		} else {
+			windowCount++;
+		}
+		window[windowIndex] = failure;
+		if(failure) {
+			windowFailures++;
+		}
+		windowIndex = (windowIndex + 1) % window.length;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = nanoClock.getAsLong();
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		windowIndex = 0;
+		windowCount = 0;
+		windowFailures = 0;
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.demo.resilience;
+
+//circuit이 열려 있어 요청을 보내지 않고 바로 실패시킬 때
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	public CircuitBreakerOpenException(String endpoint) {
+		super("circuit breaker is open: " + endpoint);
+	}
+
+}
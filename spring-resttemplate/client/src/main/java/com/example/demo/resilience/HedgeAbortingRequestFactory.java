@@ -0,0 +1,27 @@
+package com.example.demo.resilience;
+
+import java.net.URI;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * 만든 HTTP 요청을 ResiliencePipeline에 abort 대상으로 등록한다.
+ * primary 요청은 호출 스레드의 blocking I/O라 interrupt로 깨울 수 없으므로, hedge가 먼저 성공하면 연결을 끊어 깨운다.
+ * hedge 요청도 같은 방법으로, primary가 먼저 끝나면 끊는다.
+ */
+public class HedgeAbortingRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+	public HedgeAbortingRequestFactory(HttpClient httpClient) {
+		super(httpClient);
+	}
+
+	@Override
+	protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+		HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+		ResiliencePipeline.registerAbort(request::abort);
+		return request;
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.demo.resilience;
+
+import java.util.Arrays;
+
+/**
+ * 최근 size건 응답시간의 백분위수를 구한다. hedge 지연시간(p95) 계산용.
+ * 정렬 비용을 줄이기 위해 recomputeInterval건마다 한 번만 다시 계산한다.
+ */
+public class LatencyTracker {
+
+	private static final int RECOMPUTE_INTERVAL = 32;
+
+	private final long[] samples;
+	private final double percentile;
+	private int index;
+	private int count;
+	private int sinceRecompute;
+	private long cachedNanos;
+
+	public LatencyTracker(int size, double percentile) {
+		this.samples = new long[size];
+		this.percentile = percentile;
+	}
+
+	public synchronized void record(long nanos) {
+		samples[index] = nanos;
+		index = (index + 1) % samples.length;
+		count = Math.min(count + 1, samples.length);
+		sinceRecompute++;
+	}
+
+	//표본이 minSamples보다 적으면 -1
+	public synchronized long percentileNanos(int minSamples) {
+		if(count < minSamples) {
+			return -1;
+		}
+		if(sinceRecompute >= RECOMPUTE_INTERVAL || cachedNanos == 0) {
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			cachedNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+			sinceRecompute = 0;
+		}
+		return cachedNanos;
+	}
+}
@@ -0,0 +1,302 @@
+package com.example.demo.resilience;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.demo.config.RestTemplateProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * RestTemplate 호출을 endpoint별로 감싸는 circuit breaker -> hedge -> retry 순서의 파이프라인.
+ * - retry : 5xx, I/O 오류(timeout 포함)만, idempotent 요청만, RetryBudget이 허락할 때만. full jitter backoff
+ * - hedge : idempotent 요청이 최근 p95보다 오래 걸리면 같은 요청을 하나 더 보내 먼저 성공한 응답을 쓴다. 첫 요청은 호출 스레드에서 보낸다
+ * - circuit breaker : 실패율이 높으면 일정 시간 요청을 보내지 않고 CircuitBreakerOpenException
+ * 4xx는 서버가 정상 응답한 것이므로 실패로 세지 않고 그대로 던진다.
+ */
+public class ResiliencePipeline implements DisposableBean {
+
+	private static final int LATENCY_SAMPLES = 256;
+	private static final int MIN_HEDGE_SAMPLES = 20;
+	//지금 스레드에서 실행 중인 hedge 대상 요청(primary 또는 hedge)
+	private static final ThreadLocal<AbortableCall> CURRENT_CALL = new ThreadLocal<>();
+
+	private final RestTemplateProperties.Resilience properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	//hedge를 보낼 시각만 잰다. 요청은 executor에서 보낸다
+	private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "resilience-hedge-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public ResiliencePipeline(RestTemplateProperties.Resilience properties, MeterRegistry meterRegistry) {
+		this(properties, meterRegistry, newHedgeExecutor(properties.getHedgeThreads()), true);
+	}
+
+	//virtual thread executor처럼 외부에서 관리하는 executor로 hedge 요청을 보낸다
+	public ResiliencePipeline(RestTemplateProperties.Resilience properties, MeterRegistry meterRegistry, ExecutorService hedgeExecutor) {
+		this(properties, meterRegistry, hedgeExecutor, false);
+	}
+
+	private ResiliencePipeline(RestTemplateProperties.Resilience properties, MeterRegistry meterRegistry,
+			ExecutorService executor, boolean ownsExecutor) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	private static ExecutorService newHedgeExecutor(int hedgeThreads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		//여유 스레드가 없으면 RejectedExecutionException. 그 요청은 hedge 없이 primary만 기다린다
+		return new ThreadPoolExecutor(0, hedgeThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "resilience-hedge-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	public <T> T execute(String endpointName, boolean idempotent, Supplier<T> call) {
+		if(!properties.isEnabled()) {
+			return call.get();
+		}
+		Endpoint endpoint = endpoints.computeIfAbsent(endpointName, Endpoint::new);
+		endpoint.retryBudget.onRequest();
+
+		long start = System.nanoTime();
+		String outcome = "failure";
+		try {
+			for(int attempt = 1; ; attempt++) {
+				if(!endpoint.circuitBreaker.tryAcquire()) {
+					endpoint.shortCircuited.increment();
+					outcome = "short_circuited";
+					throw new CircuitBreakerOpenException(endpointName);
+				}
+				try {
+					T result = idempotent && properties.isHedgeEnabled() ? hedged(endpoint, call) : timed(endpoint, call);
+					endpoint.circuitBreaker.onSuccess();
+					outcome = "success";
+					return result;
+				} catch (RuntimeException e) {
+					if(!isRetryableFailure(e)) {
+						endpoint.circuitBreaker.onSuccess();
+						outcome = "client_error";
+						throw e;
+					}
+					endpoint.circuitBreaker.onFailure();
+					if(!idempotent || attempt >= properties.getMaxAttempts() || !endpoint.retryBudget.tryWithdraw()) {
+						throw e;
+					}
+					endpoint.retries.increment();
+					backoff(attempt);
+				}
+			}
+		} finally {
+			Timer.builder("resttemplate.resilience.calls")
+					.tags("endpoint", endpointName, "outcome", outcome)
+					.register(meterRegistry)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public CircuitBreaker.State getCircuitState(String endpointName) {
+		Endpoint endpoint = endpoints.get(endpointName);
+		return endpoint == null ? CircuitBreaker.State.CLOSED : endpoint.circuitBreaker.getState();
+	}
+
+	@Override
+	public void destroy() {
+		hedgeTimer.shutdownNow();
+		if(ownsExecutor) {
+			executor.shutdownNow();
+		}
+	}
+
+	private <T> T timed(Endpoint endpoint, Supplier<T> call) {
+		long start = System.nanoTime();
+		T result = call.get();
+		endpoint.latency.record(System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * 먼저 보낸 요청(primary)은 호출 스레드에서 그대로 실행하고, p95가 지나도 끝나지 않았을 때만 hedge를 pool에 보낸다.
+	 * hedge가 먼저 성공하면 primary가 등록해 둔 abort(HTTP 요청 중단)를 불러 호출 스레드를 깨우고 hedge 결과를 쓴다.
+	 * 반대로 primary가 먼저 끝나면 hedge의 abort를 불러, 아무도 기다리지 않는 hedge가 pool 스레드와 연결을 잡고 있지 않게 한다.
+	 */
+	private <T> T hedged(Endpoint endpoint, Supplier<T> call) {
+		long percentileNanos = endpoint.latency.percentileNanos(MIN_HEDGE_SAMPLES);
+		if(percentileNanos < 0) {
+			return timed(endpoint, call);
+		}
+		long hedgeDelayNanos = Math.max(percentileNanos, TimeUnit.MILLISECONDS.toNanos(properties.getHedgeMinDelayMillis()));
+
+		AbortableCall primary = new AbortableCall();
+		AbortableCall hedgeCall = new AbortableCall();
+		CompletableFuture<T> hedge = new CompletableFuture<>();
+		ScheduledFuture<?> scheduledHedge = hedgeTimer.schedule(() -> sendHedge(endpoint, call, primary, hedgeCall, hedge),
+				hedgeDelayNanos, TimeUnit.NANOSECONDS);
+		CURRENT_CALL.set(primary);
+		try {
+			return timed(endpoint, call);
+		} catch (RuntimeException e) {
+			if(scheduledHedge.cancel(false)) {
+				throw e;
+			}
+			//hedge를 보냈으면 그 결과를 기다린다. 둘 다 실패하면 hedge의 실패를 전달
+			try {
+				return hedge.join();
+			} catch (CompletionException hedgeFailure) {
+				if(hedgeFailure.getCause() instanceof RejectedExecutionException) {
+					throw e;
+				}
+				throw unwrap(hedgeFailure.getCause());
+			}
+		} finally {
+			CURRENT_CALL.remove();
+			scheduledHedge.cancel(false);
+			//primary 결과를 쓰게 됐으면 보낸 hedge는 필요 없다. 아직 요청을 만들기 전이면 만드는 즉시 중단된다
+			if(!hedge.isDone()) {
+				hedgeCall.abort();
+			}
+		}
+	}
+
+	private <T> void sendHedge(Endpoint endpoint, Supplier<T> call, AbortableCall primary, AbortableCall hedgeCall,
+			CompletableFuture<T> hedge) {
+		try {
+			executor.execute(() -> {
+				CURRENT_CALL.set(hedgeCall);
+				try {
+					if(hedge.complete(timed(endpoint, call))) {
+						primary.abort();
+					}
+				} catch (Throwable t) {
+					hedge.completeExceptionally(t);
+				} finally {
+					CURRENT_CALL.remove();
+				}
+			});
+			endpoint.hedges.increment();
+		} catch (RejectedExecutionException e) {
+			//여유 스레드가 없으면 hedge 없이 primary만 기다린다
+			hedge.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * 지금 스레드가 hedge 대상 요청(primary 또는 hedge)을 보내는 중이면, 다른 쪽이 이겼을 때 부를 abort를 등록한다.
+	 * HedgeAbortingRequestFactory가 HTTP 요청을 만들 때 부른다. hedge 대상이 아니면 아무것도 하지 않는다.
+	 */
+	public static void registerAbort(Runnable abort) {
+		AbortableCall current = CURRENT_CALL.get();
+		if(current != null) {
+			current.register(abort);
+		}
+	}
+
+	private boolean isRetryableFailure(RuntimeException e) {
+		return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+	}
+
+	private void backoff(int attempt) {
+		long maxDelay = Math.min(properties.getBackoffMaxMillis(), properties.getBackoffBaseMillis() << Math.min(attempt - 1, 20));
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private RuntimeException unwrap(Throwable cause) {
+		if(cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if(cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if(cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new IllegalStateException(cause);
+	}
+
+	private static final class AbortableCall {
+		private final List<Runnable> aborts = new ArrayList<>();
+		private boolean aborted;
+
+		synchronized void register(Runnable abort) {
+			if(aborted) {
+				abort.run();
+				return;
+			}
+			aborts.add(abort);
+		}
+
+		void abort() {
+			List<Runnable> toRun;
+			synchronized(this) {
+				aborted = true;
+				toRun = new ArrayList<>(aborts);
+				aborts.clear();
+			}
+			toRun.forEach(Runnable::run);
+		}
+	}
+
+	private class Endpoint {
+		private final String name;
+		private final CircuitBreaker circuitBreaker;
+		private final RetryBudget retryBudget;
+		private final LatencyTracker latency;
+		private final Counter retries;
+		private final Counter hedges;
+		private final Counter shortCircuited;
+
+		Endpoint(String name) {
+			this.name = name;
+			this.circuitBreaker = new CircuitBreaker(properties.getFailureRateThreshold(), properties.getSlidingWindowSize(),
+					properties.getMinimumCalls(), TimeUnit.MILLISECONDS.toNanos(properties.getOpenDurationMillis()),
+					properties.getHalfOpenCalls());
+			this.retryBudget = new RetryBudget(properties.getRetryBudgetRatio(), properties.getRetryBudgetMaxTokens());
+			this.latency = new LatencyTracker(LATENCY_SAMPLES, properties.getHedgePercentile());
+			this.retries = meterRegistry.counter("resttemplate.resilience.retries", "endpoint", name);
+			this.hedges = meterRegistry.counter("resttemplate.resilience.hedges", "endpoint", name);
+			this.shortCircuited = meterRegistry.counter("resttemplate.resilience.short_circuited", "endpoint", name);
+			Gauge.builder("resttemplate.resilience.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+					.tag("endpoint", name)
+					.description("0=closed, 1=open, 2=half_open")
+					.register(meterRegistry);
+			Gauge.builder("resttemplate.resilience.retry.budget", retryBudget, RetryBudget::getTokens)
+					.tag("endpoint", name)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.demo.resilience;
+
+/**
+ * 재시도가 전체 요청의 일정 비율을 넘지 않도록 제한한다.
+ * 요청마다 ratio만큼 토큰이 쌓이고(최대 maxTokens) 재시도 1회에 토큰 1개를 쓴다.
+ * 장애 시 재시도가 트래픽을 몇 배로 불리는 retry storm을 막는다.
+ */
+public class RetryBudget {
+
+	private final double ratio;
+	private final double maxTokens;
+	private double tokens;
+
+	public RetryBudget(double ratio, double maxTokens) {
+		this.ratio = ratio;
+		this.maxTokens = maxTokens;
+		this.tokens = maxTokens;
+	}
+
+	public synchronized void onRequest() {
+		tokens = Math.min(maxTokens, tokens + ratio);
+	}
+
+	public synchronized boolean tryWithdraw() {
+		if(tokens < 1) {
+			return false;
+		}
+		tokens -= 1;
+		return true;
+	}
+
+	public synchronized double getTokens() {
+		return tokens;
+	}
+}
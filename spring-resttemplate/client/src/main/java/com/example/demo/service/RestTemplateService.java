@@ -1,24 +1,61 @@
 package com.example.demo.service;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.example.demo.utils.RestTemplateUtil;
+import com.example.demo.utils.SingleFlight;
+import com.example.demo.utils.WebClientUtil;
 import com.example.demo.vo.JsonVo;
 import com.example.demo.vo.XmlVo;
+import com.example.demo.vo.XmlVoList;
 
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
 public class RestTemplateService {
 	
+	//동시에 들어온 같은 GET 요청은 한 번만 보낸다
+	private final SingleFlight singleFlight = new SingleFlight();
+	
 	public XmlVo getXmlData() {
-		return RestTemplateUtil.getXmlResponse();
+		return singleFlight.execute("xml", RestTemplateUtil::getXmlResponse);
 	}
 	
 	public JsonVo getJsonData() {
-		return RestTemplateUtil.getJsonRsponse();
+		return singleFlight.execute("json", RestTemplateUtil::getJsonRsponse);
+	}
+	
+	public XmlVo getXmlDataAsCbor() {
+		return singleFlight.execute("xml:cbor", RestTemplateUtil::getXmlCborResponse);
+	}
+	
+	public JsonVo getJsonDataAsCbor() {
+		return singleFlight.execute("json:cbor", RestTemplateUtil::getJsonCborResponse);
+	}
+	
+	//합쳐진 호출은 응답 객체를 공유한다. VO는 값이 바뀌지 않지만 목록은 호출마다 새로 만들어 한 호출의 수정이 다른 호출에 보이지 않게 한다
+	public List<XmlVo> getXmlDataBatch(int size) {
+		XmlVoList xmlVoList = singleFlight.execute("xml/batch?size=" + size, () -> RestTemplateUtil.getXmlBatchResponse(size));
+		return new ArrayList<>(xmlVoList.getXmlVos());
+	}
+	
+	public List<JsonVo> getJsonDataBatch(int size) {
+		JsonVo[] jsonVos = singleFlight.execute("json/batch?size=" + size, () -> RestTemplateUtil.getJsonBatchResponse(size));
+		return new ArrayList<>(Arrays.asList(jsonVos));
+	}
+	
+	//동시 요청 수 자체를 측정하려는 용도이므로 singleFlight로 합치지 않는다
+	public JsonVo getJsonDataDelayed(long millis) {
+		return RestTemplateUtil.getDelayedJsonResponse(millis);
 	}
 	
 	public ResponseEntity<String> getEntity(String key) {
@@ -28,5 +65,31 @@ public class RestTemplateService {
 	public ResponseEntity<String> addData() {
 		return RestTemplateUtil.post();
 	}
+	
+	//대용량 전송: 양쪽 모두 body 전체를 heap에 올리지 않는다
+	public long upload(InputStream body, boolean compress) {
+		return Long.parseLong(RestTemplateUtil.upload(body, compress));
+	}
+	
+	public long download(long size, OutputStream out) {
+		return RestTemplateUtil.download(size, out);
+	}
+	
+	//async: 호출 스레드를 막지 않으므로 여러 요청을 동시에 보낼 수 있다
+	public Mono<XmlVo> getXmlDataAsync() {
+		return WebClientUtil.getXmlResponse();
+	}
+	
+	public Mono<JsonVo> getJsonDataAsync() {
+		return WebClientUtil.getJsonRsponse();
+	}
+	
+	public Mono<ResponseEntity<String>> getEntityAsync(String key) {
+		return WebClientUtil.getResponseEntity(key);
+	}
+	
+	public Mono<ResponseEntity<String>> addDataAsync() {
+		return WebClientUtil.post();
+	}
 
 }
@@ -1,39 +1,84 @@
 package com.example.demo.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.demo.resilience.ResiliencePipeline;
 import com.example.demo.vo.JsonVo;
 import com.example.demo.vo.XmlVo;
+import com.example.demo.vo.XmlVoList;
 
 @Component
 public class RestTemplateUtil {
 	
+	private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+	
 	private static RestTemplate restTemplate;
+	private static RestTemplate streamingRestTemplate;
+	private static ResiliencePipeline resiliencePipeline;
 	
 	@Autowired
-	public RestTemplateUtil(RestTemplate restTemplate) {
+	public RestTemplateUtil(RestTemplate restTemplate, @Qualifier("streamingRestTemplate") RestTemplate streamingRestTemplate,
+			ResiliencePipeline resiliencePipeline) {
 		this.restTemplate=restTemplate;
+		this.streamingRestTemplate=streamingRestTemplate;
+		this.resiliencePipeline=resiliencePipeline;
 	}
 	
 	public static XmlVo getXmlResponse(){
-		return restTemplate.getForObject("http://localhost:8080/xml", XmlVo.class);
+		return resiliencePipeline.execute("/xml", true, () -> restTemplate.getForObject("http://localhost:8080/xml", XmlVo.class));
 	}
 	
 	public static JsonVo getJsonRsponse(){
-		return restTemplate.getForObject("http://localhost:8080/json", JsonVo.class);
+		return resiliencePipeline.execute("/json", true, () -> restTemplate.getForObject("http://localhost:8080/json", JsonVo.class));
+	}
+	
+	//binary(CBOR) 응답 요청: 텍스트 파싱 없이 더 작은 payload
+	//payload 크기와 지연이 텍스트와 다르므로 latency(hedge 기준), circuit, retry budget을 따로 둔다
+	public static XmlVo getXmlCborResponse(){
+		return resiliencePipeline.execute("/xml:cbor", true, () -> exchangeCbor("http://localhost:8080/xml", XmlVo.class));
+	}
+	
+	public static JsonVo getJsonCborResponse(){
+		return resiliencePipeline.execute("/json:cbor", true, () -> exchangeCbor("http://localhost:8080/json", JsonVo.class));
+	}
+	
+	public static XmlVoList getXmlBatchResponse(int size){
+		return resiliencePipeline.execute("/xml/batch", true,
+				() -> restTemplate.getForObject("http://localhost:8080/xml/batch?size={size}", XmlVoList.class, size));
+	}
+	
+	public static JsonVo[] getJsonBatchResponse(int size){
+		return resiliencePipeline.execute("/json/batch", true,
+				() -> restTemplate.getForObject("http://localhost:8080/json/batch?size={size}", JsonVo[].class, size));
+	}
+	
+	//millis 만큼 늦게 오는 응답. 요청 스레드가 I/O에 오래 묶이는 상황을 재현한다
+	public static JsonVo getDelayedJsonResponse(long millis){
+		return resiliencePipeline.execute("/delay", true,
+				() -> restTemplate.getForObject("http://localhost:8080/delay?millis={millis}", JsonVo.class, millis));
 	}
 	
 	public static ResponseEntity<String> getResponseEntity(String key){
@@ -48,10 +93,57 @@ public class RestTemplateUtil {
 		params.put("name", "jaeyeon");
  		
 		//순서대로 url, method, entity(header, params), return type
-		return restTemplate.exchange("http://localhost:8080/entity?name={name}", HttpMethod.GET, httpEntity, String.class, params);
+		return resiliencePipeline.execute("/entity", true,
+				() -> restTemplate.exchange("http://localhost:8080/entity?name={name}", HttpMethod.GET, httpEntity, String.class, params));
 	}
 	
 	public static ResponseEntity<String> post(){
-		return restTemplate.postForEntity("http://localhost:8080/post", "Post Request", String.class);
+		return resiliencePipeline.execute("/post", false,
+				() -> restTemplate.postForEntity("http://localhost:8080/post", "Post Request", String.class));
+	}
+	
+	//body를 메모리에 모으지 않고 그대로 흘려보낸다. compress면 전송 중에 gzip
+	public static String upload(InputStream body, boolean compress){
+		//body stream은 한 번만 읽을 수 있으므로 재시도/hedge 하지 않는다
+		return resiliencePipeline.execute("/upload", false, () -> streamingRestTemplate.execute("http://localhost:8080/upload", HttpMethod.POST, request -> {
+			request.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+			if(compress) {
+				request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+			}
+			//streamingRestTemplate의 요청은 getBody() 대신 전송 시점에 body를 쓰는 setBody()만 지원
+			((StreamingHttpOutputMessage) request).setBody(out -> {
+				if(compress) {
+					GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+					StreamUtils.copy(body, gzip);
+					gzip.finish();
+				} else {
+					StreamUtils.copy(body, out);
+				}
+			});
+		}, response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8)));
+	}
+	
+	//응답 body를 받는 대로 out에 쓰고, 받은 byte 수를 돌려준다
+	public static Long download(long size, OutputStream out){
+		//이미 out에 쓴 내용이 있으므로 재시도하지 않는다
+		return resiliencePipeline.execute("/download", false, () -> streamingRestTemplate.execute("http://localhost:8080/download?size={size}",
+				HttpMethod.GET, null, response -> copy(response.getBody(), out), size));
+	}
+	
+	private static long copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[8192];
+		long copied = 0;
+		int read;
+		while((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+			copied += read;
+		}
+		return copied;
+	}
+	
+	private static <T> T exchangeCbor(String url, Class<T> responseType){
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(Collections.singletonList(CBOR));
+		return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType).getBody();
 	}
 }
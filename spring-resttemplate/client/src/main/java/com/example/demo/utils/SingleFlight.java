@@ -0,0 +1,56 @@
+package com.example.demo.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key로 동시에 들어온 호출을 하나로 합친다.
+ * 먼저 들어온 호출(leader)만 supplier를 실행하고, 그 사이에 들어온 호출은 같은 결과(또는 예외)를 공유한다.
+ * 결과를 저장하지는 않으므로 호출이 끝나면 다음 호출은 다시 실행된다.
+ */
+public class SingleFlight {
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String key, Supplier<T> supplier) {
+		CompletableFuture<Object> call = new CompletableFuture<>();
+		CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+		if(leader != null) {
+			return (T) await(leader);
+		}
+
+		try {
+			T result = supplier.get();
+			call.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private Object await(CompletableFuture<Object> leader) {
+		try {
+			return leader.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.demo.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.demo.vo.JsonVo;
+import com.example.demo.vo.XmlVo;
+
+import reactor.core.publisher.Mono;
+
+//RestTemplateUtil의 non-blocking 버전. 구독 전까지는 요청이 나가지 않는다
+@Component
+public class WebClientUtil {
+
+	private static WebClient webClient;
+
+	@Autowired
+	public WebClientUtil(WebClient webClient) {
+		this.webClient = webClient;
+	}
+
+	public static Mono<XmlVo> getXmlResponse(){
+		return webClient.get()
+				.uri("http://localhost:8080/xml")
+				.accept(MediaType.APPLICATION_XML)
+				.retrieve()
+				.bodyToMono(XmlVo.class);
+	}
+
+	public static Mono<JsonVo> getJsonRsponse(){
+		return webClient.get()
+				.uri("http://localhost:8080/json")
+				.accept(MediaType.APPLICATION_JSON)
+				.retrieve()
+				.bodyToMono(JsonVo.class);
+	}
+
+	public static Mono<ResponseEntity<String>> getResponseEntity(String key){
+		//순서대로 url(params), header, return type
+		return webClient.get()
+				.uri("http://localhost:8080/entity?name={name}", "jaeyeon")
+				.header("Authentication", key)
+				.exchange()
+				.flatMap(response -> response.toEntity(String.class))
+				.flatMap(WebClientUtil::errorIfFailed);
+	}
+
+	public static Mono<ResponseEntity<String>> post(){
+		return webClient.post()
+				.uri("http://localhost:8080/post")
+				.syncBody("Post Request")
+				.exchange()
+				.flatMap(response -> response.toEntity(String.class))
+				.flatMap(WebClientUtil::errorIfFailed);
+	}
+
+	//RestTemplate처럼 4xx, 5xx 응답은 예외로 전달
+	private static Mono<ResponseEntity<String>> errorIfFailed(ResponseEntity<String> entity){
+		if(!entity.getStatusCode().isError()) {
+			return Mono.just(entity);
+		}
+		byte[] body = entity.hasBody() ? entity.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0];
+		return Mono.error(WebClientResponseException.create(entity.getStatusCodeValue(),
+				entity.getStatusCode().getReasonPhrase(), entity.getHeaders(), body, StandardCharsets.UTF_8));
+	}
+}
@@ -6,11 +6,9 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
-@Setter
-@XmlRootElement
+@XmlRootElement(name = "XmlVo") //api 서버(Jackson XML)가 내려주는 루트 엘리먼트명
 public class XmlVo {
 	
 	@XmlElement
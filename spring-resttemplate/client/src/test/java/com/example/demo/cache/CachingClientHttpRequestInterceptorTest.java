@@ -0,0 +1,77 @@
+package com.example.demo.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CachingClientHttpRequestInterceptorTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CachingClientHttpRequestInterceptor interceptor =
+			new CachingClientHttpRequestInterceptor(new LruResponseCache(100, 1024 * 1024, meterRegistry), meterRegistry);
+	private final List<HttpHeaders> sentHeaders = new ArrayList<>();
+
+	@Test
+	public void ETag가_같으면_304로_재검증하고_캐시된_body_재사용() throws Exception {
+		//given
+		interceptor.intercept(get(), new byte[0], respond(HttpStatus.OK, "no-cache", "{\"type\":\"JSON\"}"));
+
+		//when
+		ClientHttpResponse revalidated = interceptor.intercept(get(), new byte[0], respond(HttpStatus.NOT_MODIFIED, "max-age=60", ""));
+
+		//then
+		assertThat(sentHeaders.get(1).getIfNoneMatch().get(0), is("\"v1\""));
+		assertThat(revalidated.getStatusCode(), is(HttpStatus.OK));
+		assertThat(StreamUtils.copyToString(revalidated.getBody(), StandardCharsets.UTF_8), is("{\"type\":\"JSON\"}"));
+		assertThat(meterRegistry.counter("resttemplate.cache.requests", "result", "revalidated").count(), is(1.0));
+	}
+
+	@Test
+	public void 재검증으로_갱신된_유효기간_안에서는_네트워크_없이_응답() throws Exception {
+		//given
+		interceptor.intercept(get(), new byte[0], respond(HttpStatus.OK, "no-cache", "{\"type\":\"JSON\"}"));
+		interceptor.intercept(get(), new byte[0], respond(HttpStatus.NOT_MODIFIED, "max-age=60", ""));
+
+		//when
+		ClientHttpResponse cached = interceptor.intercept(get(), new byte[0], (request, body) -> {
+			throw new AssertionError("fresh entry must not hit the network");
+		});
+
+		//then
+		assertThat(StreamUtils.copyToString(cached.getBody(), StandardCharsets.UTF_8), is("{\"type\":\"JSON\"}"));
+		assertThat(sentHeaders.size(), is(2));
+		assertThat(meterRegistry.counter("resttemplate.cache.requests", "result", "hit").count(), is(1.0));
+	}
+
+	private static MockClientHttpRequest get() {
+		return new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080/json"));
+	}
+
+	private ClientHttpRequestExecution respond(HttpStatus status, String cacheControl, String body) {
+		return (request, requestBody) -> {
+			sentHeaders.add(HttpHeaders.readOnlyHttpHeaders(request.getHeaders()));
+			MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), status);
+			response.getHeaders().setETag("\"v1\"");
+			response.getHeaders().setCacheControl(cacheControl);
+			return response;
+		};
+	}
+}
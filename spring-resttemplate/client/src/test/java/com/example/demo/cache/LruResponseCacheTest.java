@@ -0,0 +1,80 @@
+package com.example.demo.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LruResponseCacheTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	public void 최대_항목수를_넘으면_가장_오래_안쓴_항목_제거() {
+		//given
+		LruResponseCache cache = new LruResponseCache(2, 1024, meterRegistry);
+		cache.put("a", response(10));
+		cache.put("b", response(10));
+		cache.get("a");
+
+		//when
+		cache.put("c", response(10));
+
+		//then
+		assertThat(cache.get("a"), is(notNullValue()));
+		assertThat(cache.get("b"), is(nullValue()));
+		assertThat(cache.size(), is(2));
+		assertThat(meterRegistry.counter("resttemplate.cache.evictions").count(), is(1.0));
+	}
+
+	@Test
+	public void 최대_용량을_넘으면_제거() {
+		//given
+		LruResponseCache cache = new LruResponseCache(100, 100, meterRegistry);
+		cache.put("a", response(60));
+
+		//when
+		cache.put("b", response(60));
+
+		//then
+		assertThat(cache.get("a"), is(nullValue()));
+		assertThat(cache.bytes(), is(60L));
+	}
+
+	@Test
+	public void 용량보다_큰_응답은_저장하지_않음() {
+		//given
+		LruResponseCache cache = new LruResponseCache(100, 100, meterRegistry);
+
+		//when
+		cache.put("a", response(101));
+
+		//then
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void 같은_key로_저장하면_용량_갱신() {
+		//given
+		LruResponseCache cache = new LruResponseCache(100, 100, meterRegistry);
+		cache.put("a", response(60));
+
+		//when
+		cache.put("a", response(30));
+
+		//then
+		assertThat(cache.bytes(), is(30L));
+	}
+
+	private CachedResponse response(int size) {
+		return new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[size], Long.MAX_VALUE);
+	}
+}
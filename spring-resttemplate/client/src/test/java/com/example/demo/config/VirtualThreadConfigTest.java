@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.resilience.ResiliencePipeline;
+
+@SpringBootTest(webEnvironment=WebEnvironment.RANDOM_PORT, properties="spring.threads.virtual.enabled=true")
+@RunWith(SpringRunner.class)
+public class VirtualThreadConfigTest {
+
+	@Autowired
+	ServletWebServerApplicationContext context;
+	
+	@Autowired
+	@Qualifier("virtualThreadExecutor")
+	ExecutorService virtualThreadExecutor;
+	
+	@Autowired
+	ResiliencePipeline resiliencePipeline;
+	
+	@Test
+	public void Tomcat_요청은_virtual_thread에서_처리() throws Exception {
+		//given
+		Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector().getProtocolHandler().getExecutor();
+		CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+		
+		//when
+		executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+		
+		//then
+		assertTrue(virtual.get(1, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void hedge_요청은_virtual_thread에서_전송() throws Exception {
+		//when
+		Object hedgeExecutor = ReflectionTestUtils.getField(resiliencePipeline, "executor");
+		
+		//then
+		assertThat(hedgeExecutor, sameInstance(virtualThreadExecutor));
+		assertTrue(virtualThreadExecutor.submit(() -> Thread.currentThread().isVirtual()).get(1, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.example.demo.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+//부하 테스트 대상 ApiApplication을 같은 머신에서 별도 JVM으로 띄운다
+@Slf4j
+public class ApiProcess implements AutoCloseable {
+
+	private final Process process;
+
+	private ApiProcess(Process process) {
+		this.process = process;
+	}
+
+	public static ApiProcess start(String java, String jar, String baseUrl, long timeoutSeconds, String... args) throws IOException, InterruptedException {
+		File logDirectory = new File("target");
+		logDirectory.mkdirs();
+		List<String> command = new ArrayList<>(Arrays.asList(java, "-jar", jar));
+		command.addAll(Arrays.asList(args));
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(new File(logDirectory, "api-loadtest.log"))
+				.start();
+		ApiProcess apiProcess = new ApiProcess(process);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+		while(!isUp(baseUrl)) {
+			if(!process.isAlive() || System.nanoTime() > deadline) {
+				apiProcess.close();
+				throw new IllegalStateException("api did not start: " + jar);
+			}
+			Thread.sleep(200);
+		}
+		log.info("api started from {}", jar);
+		return apiProcess;
+	}
+
+	private static boolean isUp(String baseUrl) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/json").openConnection();
+			connection.setConnectTimeout(200);
+			connection.setReadTimeout(1000);
+			return connection.getResponseCode() == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		process.destroy();
+		if(!process.waitFor(10, TimeUnit.SECONDS)) {
+			process.destroyForcibly();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.demo.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import com.example.demo.ClientApplication;
+
+//부하 테스트 도구는 test classpath에만 있으므로 client jar가 아니라 이 main으로 실행한다
+public class LoadTestApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ClientApplication.class)
+				.profiles("loadtest")
+				.run(args);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.example.demo.loadtest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@Profile("loadtest")
+@ConfigurationProperties(prefix = "loadtest")
+@Getter
+@Setter
+public class LoadTestProperties {
+
+    //초당 요청 수. 응답 속도와 관계없이 이 간격으로 요청을 보낸다(open-loop)
+    private int ratePerSecond = 500;
+    private long warmupSeconds = 5;
+    private long durationSeconds = 30;
+    //동시에 처리 중인 sync 요청 상한. 넘치면 queue에서 기다리고, 그 시간도 latency에 포함된다
+    private int maxConcurrency = 400;
+    private List<String> scenarios = new ArrayList<>(Arrays.asList("json", "json-async", "json-cbor", "xml", "xml-async", "xml-cbor", "json-delay"));
+    //json-delay 시나리오에서 api가 응답을 늦추는 시간. rate * delay 만큼의 요청이 동시에 떠 있게 된다
+    private long delayMillis = 100;
+    //sync 시나리오를 pool 설정별로 반복 실행한다. "maxTotal:maxPerRoute"
+    private List<String> poolSettings = new ArrayList<>(Arrays.asList("200:20", "200:100"));
+    //지정하면 api jar를 직접 띄우고 끝나면 내린다. 비워두면 이미 떠 있는 localhost:8080을 사용
+    private String apiJar;
+    //api를 띄울 bin/java. 기본값은 client를 실행한 JVM
+    private String apiJava = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    //api를 spring.threads.virtual.enabled=true로 띄운다
+    private boolean apiVirtualThreads = false;
+    private String apiBaseUrl = "http://localhost:8080";
+    private long apiStartupTimeoutSeconds = 60;
+}
@@ -0,0 +1,50 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+//시나리오별 결과를 한 표로 모아 비교한다. 전체 분포는 .hgrm 파일로 남겨 HdrHistogram plotter로 볼 수 있다
+public class LoadTestReport {
+
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final List<OpenLoopLoadGenerator.Result> results = new ArrayList<>();
+
+	public void add(OpenLoopLoadGenerator.Result result) {
+		results.add(result);
+	}
+
+	public List<OpenLoopLoadGenerator.Result> getResults() {
+		return results;
+	}
+
+	public String format() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-28s %8s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+				"scenario", "target/s", "actual/s", "count", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+		for(OpenLoopLoadGenerator.Result result : results) {
+			sb.append(String.format("%-28s %8d %9.1f %8d %7d", result.getName(), result.getTargetRate(),
+					result.getAchievedRate(), result.getCount(), result.getErrors()));
+			for(double percentile : PERCENTILES) {
+				sb.append(String.format(" %9.2f", result.getPercentileMillis(percentile)));
+			}
+			sb.append(String.format(" %9.2f%n", result.getHistogram().getMaxValue() / 1_000_000.0));
+		}
+		return sb.toString();
+	}
+
+	public void writeHistograms(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		for(OpenLoopLoadGenerator.Result result : results) {
+			Path file = directory.resolve(result.getName().replaceAll("[^A-Za-z0-9._-]", "_") + ".hgrm");
+			try(PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+				//latency는 ns로 기록했으므로 ms 단위로 출력
+				result.getHistogram().outputPercentileDistribution(out, 1_000_000.0);
+			}
+		}
+	}
+}
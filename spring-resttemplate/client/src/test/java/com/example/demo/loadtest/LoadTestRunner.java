@@ -0,0 +1,115 @@
+package com.example.demo.loadtest;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.pool.InstrumentedConnectionManager;
+import com.example.demo.utils.RestTemplateUtil;
+import com.example.demo.utils.WebClientUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * client → api 구간 end-to-end 부하 테스트. LoadTestApplication(loadtest profile)으로 실행한다.
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dstart-class=com.example.demo.loadtest.LoadTestApplication \
+ *       -Dexec.args="--loadtest.api-jar=../api/target/api-0.0.1-SNAPSHOT.jar"
+ * sync(RestTemplate) 시나리오는 pool 설정별로, async(WebClient) 시나리오는 한 번씩 실행해 한 표로 비교한다.
+ * 모든 요청이 실제로 api까지 가도록 sync 시나리오도 singleFlight를 거치지 않고 RestTemplateUtil을 바로 부른다.
+ * api의 platform thread와 virtual thread 비교는 --loadtest.api-virtual-threads=true로 다시 실행해 json-delay 결과를 본다.
+ * --spring.threads.virtual.enabled=true를 주면 client의 sync 시나리오와 hedge 요청도 virtual thread에서 보낸다.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestRunner implements CommandLineRunner {
+
+	private final InstrumentedConnectionManager connectionManager;
+	private final LoadTestProperties properties;
+	private final ExecutorService virtualThreadExecutor;
+
+	//RestTemplateUtil, WebClientUtil은 static 필드가 채워진 뒤에 써야 하므로 bean으로 받아 둔다
+	public LoadTestRunner(RestTemplateUtil restTemplateUtil, WebClientUtil webClientUtil, InstrumentedConnectionManager connectionManager,
+			LoadTestProperties properties, @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor) {
+		this.connectionManager = connectionManager;
+		this.properties = properties;
+		this.virtualThreadExecutor = virtualThreadExecutor.getIfAvailable();
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		if(properties.getApiJar() == null) {
+			runAll();
+			return;
+		}
+		String threadMode = "--spring.threads.virtual.enabled=" + properties.isApiVirtualThreads();
+		try(ApiProcess api = ApiProcess.start(properties.getApiJava(), properties.getApiJar(), properties.getApiBaseUrl(),
+				properties.getApiStartupTimeoutSeconds(), threadMode)) {
+			runAll();
+		}
+	}
+
+	private void runAll() throws Exception {
+		Map<String, Runnable> blockingScenarios = new LinkedHashMap<>();
+		Map<String, Supplier<CompletionStage<?>>> asyncScenarios = new LinkedHashMap<>();
+		for(String scenario : properties.getScenarios()) {
+			switch(scenario) {
+				case "json": blockingScenarios.put(scenario, RestTemplateUtil::getJsonRsponse); break;
+				case "json-cbor": blockingScenarios.put(scenario, RestTemplateUtil::getJsonCborResponse); break;
+				case "xml": blockingScenarios.put(scenario, RestTemplateUtil::getXmlResponse); break;
+				case "xml-cbor": blockingScenarios.put(scenario, RestTemplateUtil::getXmlCborResponse); break;
+				case "json-delay": blockingScenarios.put(scenario, () -> RestTemplateUtil.getDelayedJsonResponse(properties.getDelayMillis())); break;
+				case "json-async": asyncScenarios.put(scenario, () -> WebClientUtil.getJsonRsponse().toFuture()); break;
+				case "xml-async": asyncScenarios.put(scenario, () -> WebClientUtil.getXmlResponse().toFuture()); break;
+				default: throw new IllegalArgumentException("unknown scenario: " + scenario);
+			}
+		}
+
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(properties.getRatePerSecond(), properties.getMaxConcurrency());
+		LoadTestReport report = new LoadTestReport();
+		for(String poolSetting : properties.getPoolSettings()) {
+			applyPoolSetting(poolSetting);
+			for(Map.Entry<String, Runnable> scenario : blockingScenarios.entrySet()) {
+				String name = scenario.getKey() + " [pool " + poolSetting + (virtualThreadExecutor != null ? ", virtual" : "") + "]";
+				runBlocking(generator, name, scenario.getValue(), properties.getWarmupSeconds());
+				report.add(runBlocking(generator, name, scenario.getValue(), properties.getDurationSeconds()));
+				log.info("finished {}", name);
+			}
+		}
+		for(Map.Entry<String, Supplier<CompletionStage<?>>> scenario : asyncScenarios.entrySet()) {
+			generator.run(scenario.getKey(), scenario.getValue(), TimeUnit.SECONDS.toMillis(properties.getWarmupSeconds()));
+			report.add(generator.run(scenario.getKey(), scenario.getValue(), TimeUnit.SECONDS.toMillis(properties.getDurationSeconds())));
+			log.info("finished {}", scenario.getKey());
+		}
+
+		report.writeHistograms(Paths.get("target", "loadtest"));
+		log.info("load test report ({} req/s, {}s per scenario, histograms in target/loadtest)\n{}",
+				properties.getRatePerSecond(), properties.getDurationSeconds(), report.format());
+	}
+
+	//spring.threads.virtual.enabled=true면 platform thread worker(maxConcurrency개) 대신 virtual thread에서 실행
+	private OpenLoopLoadGenerator.Result runBlocking(OpenLoopLoadGenerator generator, String name, Runnable call, long seconds) {
+		long durationMillis = TimeUnit.SECONDS.toMillis(seconds);
+		if(virtualThreadExecutor != null) {
+			return generator.runBlocking(name, call, durationMillis, virtualThreadExecutor);
+		}
+		return generator.runBlocking(name, call, durationMillis);
+	}
+
+	private void applyPoolSetting(String poolSetting) {
+		String[] sizes = poolSetting.split(":");
+		connectionManager.setMaxTotal(Integer.parseInt(sizes[0].trim()));
+		connectionManager.setDefaultMaxPerRoute(Integer.parseInt(sizes[1].trim()));
+		connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+	}
+}
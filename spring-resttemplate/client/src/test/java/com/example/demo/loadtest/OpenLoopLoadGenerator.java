@@ -0,0 +1,141 @@
+package com.example.demo.loadtest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 고정된 도착률(constant arrival rate)로 요청을 보내는 부하 생성기.
+ * i번째 요청의 의도된 시작 시각은 start + i * interval 이고, latency는 실제 전송 시각이 아니라
+ * 이 의도된 시각부터 잰다. 서버가 느려져 요청이 밀려도 밀린 시간까지 기록되므로
+ * coordinated omission으로 tail latency가 작게 보이지 않는다.
+ */
+public class OpenLoopLoadGenerator {
+
+	private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final int ratePerSecond;
+	private final int maxConcurrency;
+
+	public OpenLoopLoadGenerator(int ratePerSecond, int maxConcurrency) {
+		if(ratePerSecond <= 0) {
+			throw new IllegalArgumentException("ratePerSecond must be positive");
+		}
+		this.ratePerSecond = ratePerSecond;
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	//호출 스레드를 점유하는 요청. maxConcurrency 개의 worker에서 실행된다
+	public Result runBlocking(String name, Runnable call, long durationMillis) {
+		ThreadPoolExecutor workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>());
+		try {
+			return runBlocking(name, call, durationMillis, workers);
+		} finally {
+			shutdown(workers);
+		}
+	}
+
+	//worker를 직접 지정. virtual thread executor를 넘기면 요청마다 스레드가 생기므로 maxConcurrency 제한이 없다
+	public Result runBlocking(String name, Runnable call, long durationMillis, Executor workers) {
+		return run(name, () -> CompletableFuture.runAsync(call, workers), durationMillis);
+	}
+
+	//non-blocking 요청. 완료 시점에 callback으로 기록하므로 별도 worker가 필요 없다
+	public Result run(String name, Supplier<? extends CompletionStage<?>> call, long durationMillis) {
+		Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+		AtomicLong errors = new AtomicLong();
+		AtomicInteger outstanding = new AtomicInteger();
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+		long total = durationMillis * ratePerSecond / 1000;
+
+		long start = System.nanoTime();
+		for(long i = 0; i < total; i++) {
+			long intendedStart = start + i * intervalNanos;
+			parkUntil(intendedStart);
+			outstanding.incrementAndGet();
+			CompletionStage<?> stage;
+			try {
+				stage = call.get();
+			} catch (RuntimeException e) {
+				stage = failed(e);
+			}
+			stage.whenComplete((result, error) -> {
+				histogram.recordValue(Math.min(System.nanoTime() - intendedStart, MAX_TRACKABLE_NANOS));
+				if(error != null) {
+					errors.incrementAndGet();
+				}
+				outstanding.decrementAndGet();
+			});
+		}
+		awaitOutstanding(outstanding);
+		long elapsedNanos = System.nanoTime() - start;
+		return new Result(name, ratePerSecond, histogram, errors.get(), elapsedNanos);
+	}
+
+	private static void parkUntil(long deadline) {
+		long remaining;
+		while((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	private static void awaitOutstanding(AtomicInteger outstanding) {
+		long deadline = System.nanoTime() + MAX_TRACKABLE_NANOS;
+		while(outstanding.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+
+	private static CompletionStage<?> failed(Throwable e) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
+	private static void shutdown(ExecutorService executor) {
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PACKAGE)
+	public static class Result {
+		private final String name;
+		private final int targetRate;
+		private final Histogram histogram;
+		private final long errors;
+		private final long elapsedNanos;
+
+		public long getCount() {
+			return histogram.getTotalCount();
+		}
+
+		public double getAchievedRate() {
+			return getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+		}
+
+		public double getPercentileMillis(double percentile) {
+			return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.demo.loadtest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class OpenLoopLoadGeneratorTest {
+
+	@Test
+	public void 초당_요청수만큼_요청을_보냄() {
+		//given
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(200, 10);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		OpenLoopLoadGenerator.Result result = generator.runBlocking("count", calls::incrementAndGet, 500);
+
+		//then
+		assertThat(calls.get(), is(100));
+		assertThat(result.getCount(), is(100L));
+		assertThat(result.getErrors(), is(0L));
+	}
+
+	@Test
+	public void 밀린_요청의_대기시간도_latency에_포함() {
+		//given: worker 1개, 10ms마다 요청. 첫 요청이 300ms 걸리면 그동안 도착한 요청이 전부 밀린다
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(100, 1);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		OpenLoopLoadGenerator.Result result = generator.runBlocking("stall", () -> {
+			if(calls.incrementAndGet() == 1) {
+				sleep(300);
+			}
+		}, 500);
+
+		//then: 느린 요청은 1개지만 closed-loop 측정과 달리 상위 10%가 모두 100ms를 넘는다
+		assertThat(result.getCount(), is(50L));
+		assertThat(result.getPercentileMillis(90), greaterThan(100.0));
+	}
+
+	@Test
+	public void 실패한_요청도_기록() {
+		//given
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(100, 4);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		OpenLoopLoadGenerator.Result result = generator.runBlocking("errors", () -> {
+			if(calls.incrementAndGet() % 2 == 0) {
+				throw new IllegalStateException();
+			}
+		}, 200);
+
+		//then
+		assertThat(result.getCount(), is(20L));
+		assertThat(result.getErrors(), is(10L));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.demo.pool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.demo.config.RestTemplateProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdaptivePoolSizerTest {
+
+	private final HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private InstrumentedConnectionManager connectionManager;
+	private AdaptivePoolSizer adaptivePoolSizer;
+
+	@Before
+	public void setUp() {
+		connectionManager = new InstrumentedConnectionManager(meterRegistry);
+		connectionManager.setDefaultMaxPerRoute(2);
+
+		RestTemplateProperties.Adaptive adaptive = new RestTemplateProperties.Adaptive();
+		adaptive.setMinPerRoute(2);
+		adaptive.setMaxPerRoute(8);
+		adaptivePoolSizer = new AdaptivePoolSizer(connectionManager, adaptive);
+	}
+
+	@After
+	public void tearDown() {
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void 커넥션_대기가_생기면_route_한도를_늘림() throws Exception {
+		//given
+		HttpClientConnection first = lease();
+		HttpClientConnection second = lease();
+		try {
+			lease();
+			fail();
+		} catch (ConnectionPoolTimeoutException expected) {
+		}
+
+		//when
+		adaptivePoolSizer.adjust();
+
+		//then
+		assertThat(connectionManager.getMaxPerRoute(route), is(4));
+		assertThat(meterRegistry.get("resttemplate.pool.leased").tag("route", "localhost:8080").gauge().value(), is(2.0));
+		assertThat(meterRegistry.get("resttemplate.pool.lease.wait").tag("route", "localhost:8080").timer().count(), is(3L));
+		connectionManager.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.releaseConnection(second, null, 0, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void 한가하면_최소값까지_줄임() throws Exception {
+		//given
+		connectionManager.setMaxPerRoute(route, 8);
+		connectionManager.releaseConnection(lease(), null, 0, TimeUnit.MILLISECONDS);
+
+		//when
+		for(int i = 0; i < 10; i++) {
+			adaptivePoolSizer.adjust();
+		}
+
+		//then
+		assertThat(connectionManager.getMaxPerRoute(route), is(2));
+	}
+
+	private HttpClientConnection lease() throws Exception {
+		return connectionManager.requestConnection(route, null).get(50, TimeUnit.MILLISECONDS);
+	}
+}
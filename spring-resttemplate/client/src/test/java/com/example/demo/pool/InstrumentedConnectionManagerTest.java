@@ -0,0 +1,106 @@
+package com.example.demo.pool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedConnectionManagerTest {
+
+	private final HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private InstrumentedConnectionManager connectionManager;
+
+	@Before
+	public void setUp() {
+		connectionManager = new InstrumentedConnectionManager(meterRegistry);
+		connectionManager.setDefaultMaxPerRoute(1);
+	}
+
+	@After
+	public void tearDown() {
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void 반납되면_기다리던_요청이_커넥션을_받음() throws Exception {
+		//given
+		HttpClientConnection first = lease(50);
+		CompletableFuture<HttpClientConnection> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return lease(5000);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		while(meterRegistry.get("resttemplate.pool.pending").tag("route", "localhost:8080").gauge().value() < 1) {
+			Thread.sleep(5);
+		}
+
+		//when
+		connectionManager.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+
+		//then
+		HttpClientConnection second = waiting.get(1, TimeUnit.SECONDS);
+		assertNotNull(second);
+		connectionManager.releaseConnection(second, null, 0, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void route_한도를_늘리면_대기_없이_빌려줌() throws Exception {
+		//given
+		HttpClientConnection first = lease(50);
+		try {
+			lease(50);
+			fail();
+		} catch (ConnectionPoolTimeoutException expected) {
+		}
+
+		//when
+		connectionManager.setMaxPerRoute(route, 2);
+		HttpClientConnection second = lease(50);
+
+		//then
+		assertThat(connectionManager.getStats(route).getLeased(), is(2));
+		connectionManager.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.releaseConnection(second, null, 0, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void 한도를_줄이면_반납된_커넥션만큼_줄어듬() throws Exception {
+		//given
+		connectionManager.setMaxPerRoute(route, 2);
+		HttpClientConnection first = lease(50);
+		HttpClientConnection second = lease(50);
+
+		//when
+		connectionManager.setMaxPerRoute(route, 1);
+		connectionManager.releaseConnection(first, null, 0, TimeUnit.MILLISECONDS);
+
+		//then: 아직 1개를 빌려간 상태이므로 한도 1에서는 더 빌릴 수 없다
+		try {
+			lease(50);
+			fail();
+		} catch (ConnectionPoolTimeoutException expected) {
+		}
+		connectionManager.releaseConnection(second, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.releaseConnection(lease(50), null, 0, TimeUnit.MILLISECONDS);
+	}
+
+	private HttpClientConnection lease(long timeoutMillis) throws Exception {
+		return connectionManager.requestConnection(route, null).get(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.demo.resilience;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker(0.5, 10, 4, 1000, 2, now::get);
+
+	@Test
+	public void 실패율이_임계치를_넘으면_열림() {
+		//when
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+
+		//then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+		assertFalse(circuitBreaker.tryAcquire());
+	}
+
+	@Test
+	public void 최소_호출수_전에는_열리지_않음() {
+		//when
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+
+		//then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void 대기시간이_지나면_probe_요청만_허용하고_성공하면_닫힘() {
+		//given
+		openCircuit();
+		now.addAndGet(1000);
+
+		//when
+		boolean first = circuitBreaker.tryAcquire();
+		boolean second = circuitBreaker.tryAcquire();
+		boolean third = circuitBreaker.tryAcquire();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+
+		//then
+		assertTrue(first);
+		assertTrue(second);
+		assertFalse(third);
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void probe_요청이_실패하면_다시_열림() {
+		//given
+		openCircuit();
+		now.addAndGet(1000);
+		circuitBreaker.tryAcquire();
+
+		//when
+		circuitBreaker.onFailure();
+
+		//then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+		assertFalse(circuitBreaker.tryAcquire());
+	}
+
+	private void openCircuit() {
+		for(int i = 0; i < 4; i++) {
+			circuitBreaker.onFailure();
+		}
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+	}
+}
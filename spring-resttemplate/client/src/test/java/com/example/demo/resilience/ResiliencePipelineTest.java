@@ -0,0 +1,280 @@
+package com.example.demo.resilience;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.demo.config.RestTemplateProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResiliencePipelineTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RestTemplateProperties.Resilience properties = new RestTemplateProperties.Resilience();
+	private ResiliencePipeline resiliencePipeline;
+
+	@After
+	public void tearDown() {
+		resiliencePipeline.destroy();
+	}
+
+	@Test
+	public void IO_오류는_재시도() {
+		//given
+		properties.setBackoffBaseMillis(1);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		String result = resiliencePipeline.execute("/json", true, () -> {
+			if(calls.incrementAndGet() < 3) {
+				throw new ResourceAccessException("read timed out");
+			}
+			return "ok";
+		});
+
+		//then
+		assertThat(result, is("ok"));
+		assertThat(calls.get(), is(3));
+		assertThat(meterRegistry.counter("resttemplate.resilience.retries", "endpoint", "/json").count(), is(2.0));
+	}
+
+	@Test
+	public void idempotent하지_않은_요청은_재시도하지_않음() {
+		//given
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		try {
+			resiliencePipeline.execute("/post", false, () -> {
+				calls.incrementAndGet();
+				throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+			});
+			fail();
+		} catch (HttpServerErrorException expected) {
+		}
+
+		//then
+		assertThat(calls.get(), is(1));
+	}
+
+	@Test
+	public void 클라이언트_오류는_재시도하지_않고_그대로_전달() {
+		//given
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		try {
+			resiliencePipeline.execute("/entity", true, () -> {
+				calls.incrementAndGet();
+				throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+			});
+			fail();
+		} catch (HttpClientErrorException expected) {
+		}
+
+		//then
+		assertThat(calls.get(), is(1));
+		assertThat(resiliencePipeline.getCircuitState("/entity"), is(CircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void 재시도_예산을_다_쓰면_더이상_재시도하지_않음() {
+		//given
+		properties.setBackoffBaseMillis(0);
+		properties.setRetryBudgetMaxTokens(2);
+		properties.setRetryBudgetRatio(0);
+		properties.setMinimumCalls(100);
+		properties.setSlidingWindowSize(100);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		for(int i = 0; i < 3; i++) {
+			try {
+				resiliencePipeline.execute("/json", true, () -> {
+					calls.incrementAndGet();
+					throw new ResourceAccessException("connection refused");
+				});
+			} catch (ResourceAccessException expected) {
+			}
+		}
+
+		//then: 요청 3번 + 재시도 2번
+		assertThat(calls.get(), is(5));
+	}
+
+	@Test
+	public void 실패가_계속되면_circuit이_열려_요청을_보내지_않음() {
+		//given
+		properties.setMaxAttempts(1);
+		properties.setMinimumCalls(4);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		AtomicInteger calls = new AtomicInteger();
+		for(int i = 0; i < 4; i++) {
+			try {
+				resiliencePipeline.execute("/xml", true, () -> {
+					calls.incrementAndGet();
+					throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+				});
+			} catch (HttpServerErrorException expected) {
+			}
+		}
+
+		//when
+		try {
+			resiliencePipeline.execute("/xml", true, () -> calls.incrementAndGet());
+			fail();
+		} catch (CircuitBreakerOpenException expected) {
+		}
+
+		//then
+		assertThat(calls.get(), is(4));
+		assertThat(resiliencePipeline.getCircuitState("/xml"), is(CircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	public void 느린_요청은_hedge로_먼저_온_응답을_사용하고_primary는_중단() {
+		//given
+		properties.setHedgeMinDelayMillis(10);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		warmUp("/json");
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch primaryAborted = new CountDownLatch(1);
+
+		//when
+		long start = System.nanoTime();
+		String result = resiliencePipeline.execute("/json", true, () -> {
+			if(calls.incrementAndGet() == 1) {
+				//HedgeAbortingRequestFactory가 HTTP 요청을 등록하는 것과 같다
+				ResiliencePipeline.registerAbort(primaryAborted::countDown);
+				if(await(primaryAborted, 2000)) {
+					throw new ResourceAccessException("aborted");
+				}
+				return "slow";
+			}
+			return sleepAndReturn(1, "fast");
+		});
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		//then
+		assertThat(result, is("fast"));
+		assertThat(primaryAborted.getCount(), is(0L));
+		assertThat(elapsedMillis, lessThan(1000L));
+		assertThat(meterRegistry.counter("resttemplate.resilience.hedges", "endpoint", "/json").count(), is(1.0));
+	}
+
+	@Test
+	public void primary가_먼저_끝나면_보낸_hedge는_중단() {
+		//given
+		properties.setHedgeMinDelayMillis(10);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		warmUp("/json");
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch hedgeSent = new CountDownLatch(1);
+		CountDownLatch hedgeAborted = new CountDownLatch(1);
+
+		//when: primary는 hedge가 나간 뒤에 끝나고, hedge는 중단될 때까지 응답하지 않는다
+		String result = resiliencePipeline.execute("/json", true, () -> {
+			if(calls.incrementAndGet() == 1) {
+				await(hedgeSent, 2000);
+				return "primary";
+			}
+			ResiliencePipeline.registerAbort(hedgeAborted::countDown);
+			hedgeSent.countDown();
+			if(await(hedgeAborted, 2000)) {
+				throw new ResourceAccessException("aborted");
+			}
+			return "hedge";
+		});
+
+		//then
+		assertThat(result, is("primary"));
+		assertTrue(await(hedgeAborted, 1000));
+		assertThat(meterRegistry.counter("resttemplate.resilience.hedges", "endpoint", "/json").count(), is(1.0));
+	}
+
+	@Test
+	public void 빠른_요청은_호출_스레드에서_실행하고_hedge를_보내지_않음() {
+		//given
+		properties.setHedgeMinDelayMillis(200);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		warmUp("/json");
+		AtomicReference<Thread> executedOn = new AtomicReference<>();
+
+		//when
+		String result = resiliencePipeline.execute("/json", true, () -> {
+			executedOn.set(Thread.currentThread());
+			return "ok";
+		});
+
+		//then
+		assertThat(result, is("ok"));
+		assertThat(executedOn.get(), is(Thread.currentThread()));
+		assertThat(meterRegistry.counter("resttemplate.resilience.hedges", "endpoint", "/json").count(), is(0.0));
+	}
+
+	@Test
+	public void primary가_실패하면_보낸_hedge의_결과를_사용() {
+		//given
+		properties.setHedgeMinDelayMillis(10);
+		properties.setMaxAttempts(1);
+		resiliencePipeline = new ResiliencePipeline(properties, meterRegistry);
+		warmUp("/json");
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		String result = resiliencePipeline.execute("/json", true, () -> {
+			if(calls.incrementAndGet() == 1) {
+				sleepAndReturn(100, "slow");
+				throw new ResourceAccessException("read timed out");
+			}
+			return sleepAndReturn(200, "hedge");
+		});
+
+		//then
+		assertThat(result, is("hedge"));
+		assertThat(calls.get(), is(2));
+	}
+
+	private void warmUp(String endpoint) {
+		for(int i = 0; i < 30; i++) {
+			resiliencePipeline.execute(endpoint, true, () -> sleepAndReturn(1, "warm-up"));
+		}
+	}
+
+	private static boolean await(CountDownLatch latch, long millis) {
+		try {
+			return latch.await(millis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static String sleepAndReturn(long millis, String value) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+}
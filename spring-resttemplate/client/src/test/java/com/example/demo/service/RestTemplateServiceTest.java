@@ -2,8 +2,14 @@ package com.example.demo.service;
 
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.*;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,11 +18,17 @@ import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.HttpClientErrorException.BadRequest;
 import org.springframework.web.client.HttpClientErrorException.Unauthorized;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.example.demo.cache.ResponseCache;
 import com.example.demo.vo.JsonVo;
 import com.example.demo.vo.XmlVo;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
 @SpringBootTest(webEnvironment=WebEnvironment.RANDOM_PORT)
 @RunWith(SpringRunner.class)
 public class RestTemplateServiceTest {
@@ -24,6 +36,12 @@ public class RestTemplateServiceTest {
 	@Autowired
 	RestTemplateService restTemplateService;
 	
+	@Autowired
+	ResponseCache responseCache;
+	
+	@Autowired
+	MeterRegistry meterRegistry;
+	
 	@Test
 	public void xml_요청_테스트() {
 		//when
@@ -34,6 +52,18 @@ public class RestTemplateServiceTest {
 		assertThat(xmlVo.getMessage(), is("This is Xml Data!!"));
 	}
 
+	@Test
+	public void 지연_응답_요청_테스트() {
+		//when
+		long start = System.nanoTime();
+		JsonVo jsonVo = restTemplateService.getJsonDataDelayed(100);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		
+		//then
+		assertThat(jsonVo.getType(), is("JSON"));
+		assertTrue(elapsedMillis >= 100);
+	}
+
 	@Test
 	public void json_요청_테스트() {
 		//when
@@ -45,6 +75,67 @@ public class RestTemplateServiceTest {
 		
 	}
 	
+	@Test
+	public void xml_cbor_요청_테스트() {
+		//when
+		XmlVo xmlVo = restTemplateService.getXmlDataAsCbor();
+		
+		//then
+		assertThat(xmlVo.getType(), is("XML"));
+		assertThat(xmlVo.getMessage(), is("This is Xml Data!!"));
+	}
+	
+	@Test
+	public void json_cbor_요청_테스트() {
+		//when
+		JsonVo jsonVo = restTemplateService.getJsonDataAsCbor();
+		
+		//then
+		assertThat(jsonVo.getType(), is("JSON"));
+		assertThat(jsonVo.getMessage(), is("This is Json Data!!"));
+	}
+	
+	@Test
+	public void json_반복_요청은_캐시에서_응답() {
+		//given
+		responseCache.clear();
+		restTemplateService.getJsonData();
+		double hits = meterRegistry.counter("resttemplate.cache.requests", "result", "hit").count();
+		
+		//when
+		JsonVo jsonVo = restTemplateService.getJsonData();
+		
+		//then
+		assertThat(jsonVo.getType(), is("JSON"));
+		assertThat(meterRegistry.counter("resttemplate.cache.requests", "result", "hit").count(), is(hits + 1));
+	}
+	
+	@Test
+	public void xml_batch_요청_테스트() {
+		//when
+		List<XmlVo> xmlVos = restTemplateService.getXmlDataBatch(10);
+		
+		//then
+		assertThat(xmlVos.size(), is(10));
+		assertThat(xmlVos.get(9).getType(), is("XML"));
+	}
+	
+	@Test
+	public void json_batch_요청_테스트() {
+		//when
+		List<JsonVo> jsonVos = restTemplateService.getJsonDataBatch(10);
+		
+		//then
+		assertThat(jsonVos.size(), is(10));
+		assertThat(jsonVos.get(9).getType(), is("JSON"));
+	}
+	
+	@Test(expected = BadRequest.class)
+	public void json_batch_요청_테스트_실패_최대건수_초과() {
+		//when
+		restTemplateService.getJsonDataBatch(1001);
+	}
+	
 	@Test
 	public void header_check_테스트_성공() {
 		//when
@@ -74,4 +165,127 @@ public class RestTemplateServiceTest {
 		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
 		
 	}
+	
+	@Test
+	public void xml_비동기_요청_테스트() {
+		//when
+		XmlVo xmlVo = restTemplateService.getXmlDataAsync().block();
+		
+		//then
+		assertThat(xmlVo.getType(), is("XML"));
+		assertThat(xmlVo.getMessage(), is("This is Xml Data!!"));
+	}
+	
+	@Test
+	public void json_비동기_동시_요청_테스트() {
+		//when
+		List<JsonVo> jsonVos = Flux.range(0, 100)
+				.flatMap(i -> restTemplateService.getJsonDataAsync())
+				.collectList()
+				.block();
+		
+		//then
+		assertThat(jsonVos.size(), is(100));
+		assertThat(jsonVos.get(0).getType(), is("JSON"));
+	}
+	
+	@Test
+	public void header_check_비동기_테스트_성공() {
+		//when
+		ResponseEntity<String> responseEntity = restTemplateService.getEntityAsync("LEMON").block();
+		
+		//then
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+	}
+	
+	@Test(expected = WebClientResponseException.Unauthorized.class)
+	public void header_check_비동기_테스트_실패_잘못된_인증키() {
+		//when
+		restTemplateService.getEntityAsync("fail").block();
+	}
+	
+	@Test
+	public void post_비동기_테스트() {
+		//when
+		ResponseEntity<String> responseEntity = restTemplateService.addDataAsync().block();
+		
+		//then
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+	}
+	
+	@Test
+	public void 대용량_upload_테스트() {
+		//given
+		long size = 5 * 1024 * 1024;
+		
+		//when
+		long received = restTemplateService.upload(new RepeatingInputStream(size), false);
+		
+		//then
+		assertThat(received, is(size));
+	}
+	
+	@Test
+	public void 대용량_gzip_upload_테스트() {
+		//given
+		long size = 5 * 1024 * 1024;
+		
+		//when
+		long received = restTemplateService.upload(new RepeatingInputStream(size), true);
+		
+		//then
+		assertThat(received, is(size));
+	}
+	
+	@Test
+	public void 대용량_download_테스트() {
+		//given
+		long size = 5 * 1024 * 1024;
+		CountingOutputStream out = new CountingOutputStream();
+		
+		//when
+		long downloaded = restTemplateService.download(size, out);
+		
+		//then
+		assertThat(downloaded, is(size));
+		assertThat(out.count, is(size));
+	}
+	
+	private static class RepeatingInputStream extends InputStream {
+		private long remaining;
+		
+		RepeatingInputStream(long size) {
+			this.remaining = size;
+		}
+		
+		@Override
+		public int read() {
+			return remaining-- > 0 ? 'a' : -1;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if(remaining <= 0) {
+				return -1;
+			}
+			int read = (int) Math.min(len, remaining);
+			Arrays.fill(b, off, off + read, (byte) 'a');
+			remaining -= read;
+			return read;
+		}
+	}
+	
+	private static class CountingOutputStream extends OutputStream {
+		private long count;
+		
+		@Override
+		public void write(int b) {
+			count++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
 }
@@ -0,0 +1,136 @@
+package com.example.demo.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+	private final SingleFlight singleFlight = new SingleFlight();
+
+	@Test
+	public void 동시에_들어온_같은_요청은_한번만_실행() throws Exception {
+		//given
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+
+		//when
+		List<Future<String>> results = new ArrayList<>();
+		results.add(executor.submit(() -> singleFlight.execute("json", () -> {
+			calls.incrementAndGet();
+			leaderStarted.countDown();
+			await(release);
+			return "response";
+		})));
+		leaderStarted.await();
+		CountDownLatch followersStarted = new CountDownLatch(9);
+		for(int i = 0; i < 9; i++) {
+			results.add(executor.submit(() -> {
+				followersStarted.countDown();
+				return singleFlight.execute("json", () -> {
+					calls.incrementAndGet();
+					return "other";
+				});
+			}));
+		}
+		followersStarted.await();
+		Thread.sleep(100);
+		release.countDown();
+
+		//then
+		for(Future<String> result : results) {
+			assertThat(result.get(1, TimeUnit.SECONDS), is("response"));
+		}
+		assertThat(calls.get(), is(1));
+		assertThat(singleFlight.inFlightCount(), is(0));
+		executor.shutdown();
+	}
+
+	@Test
+	public void 호출이_끝나면_다음_요청은_다시_실행() {
+		//given
+		AtomicInteger calls = new AtomicInteger();
+
+		//when
+		singleFlight.execute("json", calls::incrementAndGet);
+		singleFlight.execute("json", calls::incrementAndGet);
+
+		//then
+		assertThat(calls.get(), is(2));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void 실패한_결과도_전파() {
+		singleFlight.execute("json", () -> {
+			throw new IllegalStateException("upstream down");
+		});
+	}
+
+	@Test
+	public void leader가_실패하면_기다리던_호출도_같은_예외() throws Exception {
+		//given
+		IllegalStateException failure = new IllegalStateException("upstream down");
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		Future<String> leader = executor.submit(() -> singleFlight.execute("json", () -> {
+			leaderStarted.countDown();
+			await(release);
+			throw failure;
+		}));
+		leaderStarted.await();
+		CountDownLatch followerStarted = new CountDownLatch(1);
+		AtomicInteger followerCalls = new AtomicInteger();
+
+		//when
+		Future<String> follower = executor.submit(() -> {
+			followerStarted.countDown();
+			return singleFlight.execute("json", () -> {
+				followerCalls.incrementAndGet();
+				return "other";
+			});
+		});
+		followerStarted.await();
+		Thread.sleep(100);
+		release.countDown();
+
+		//then
+		assertThat(causeOf(leader), is(failure));
+		assertThat(causeOf(follower), is(failure));
+		assertThat(followerCalls.get(), is(0));
+		assertThat(singleFlight.inFlightCount(), is(0));
+		executor.shutdown();
+	}
+
+	private static Throwable causeOf(Future<?> future) throws InterruptedException, TimeoutException {
+		try {
+			future.get(1, TimeUnit.SECONDS);
+			throw new AssertionError("expected failure");
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}